@@ -16,4 +16,12 @@ public @interface Component {
     /** @return if not empty, this component will be injectable through these interfaces. This is a utility that allows
      *         to overcome the fact that libGDX reflection does not allow to read class interfaces at runtime. */
     Class<?>[] value() default {};
+
+    /** @return if true, the component will not be created during context initiation. Instead, it will be registered as
+     *         a provider in the context and fully created (constructed, injected and initiated) on the first request -
+     *         either by another component's dependency or by
+     *         {@link com.github.czyzby.autumn.context.Context#provide(Class)}. Note that the context and the annotation
+     *         processors are not cleared until all lazy components are created, as they are required to process the
+     *         components. Defaults to false. */
+    boolean lazy() default false;
 }
@@ -18,4 +18,11 @@ public @interface Initiate {
      *         when multiple classes have initiation methods, their invocations will be globally sorted by priorities.
      *         Methods with higher priority execute first. */
     int priority() default 0;
+
+    /** @return if true, the method is thread-safe and does not require the rendering thread (for example, it only
+     *         performs I/O operations). Concurrent methods with the same priority can be invoked in parallel if an
+     *         executor is set with {@link com.github.czyzby.autumn.context.ContextInitializer#initiationExecutor}.
+     *         Methods with lower priority are invoked only after all methods with higher priority are finished.
+     *         Defaults to false: the method is invoked on the thread that initiates the context. */
+    boolean concurrent() default false;
 }
@@ -0,0 +1,17 @@
+package com.github.czyzby.autumn.context;
+
+import com.badlogic.gdx.utils.Array;
+
+/** Allows {@link ContextInitializer} to invoke independent component constructors in parallel. Tasks passed to the
+ * executor only invoke constructors: dependencies are resolved and components are mapped in the context on the
+ * initiating thread. Note that component constructors invoked by the executor might be called outside of the rendering
+ * thread, so this should be used only if the constructors do not depend on the OpenGL context.
+ *
+ * @author MJ
+ * @see ContextInitializer#constructionExecutor(ComponentConstructionExecutor) */
+public interface ComponentConstructionExecutor extends ContextTaskExecutor {
+    /** @param tasks independent construction tasks. Each task should be invoked exactly once. This method should not
+     *            return until all tasks are finished. Exceptions thrown by the tasks should be rethrown. */
+    @Override
+    void invokeAll(Array<Runnable> tasks);
+}
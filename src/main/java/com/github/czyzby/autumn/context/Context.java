@@ -129,6 +129,12 @@ public class Context {
         }
     }
 
+    /** @param type superclass or interface of the provided type.
+     * @param provider will be used to provide instances of the selected type. */
+    public void addProvider(final Class<?> type, final DependencyProvider<?> provider) {
+        providers.get(type).add(provider);
+    }
+
     /** @param dependencyClass requested class.
      * @return provider that provides instances of the requested class.
      * @param <Type> type of requested class objects provided by the returned provider.
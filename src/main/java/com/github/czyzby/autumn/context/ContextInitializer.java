@@ -2,21 +2,26 @@ package com.github.czyzby.autumn.context;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
 import com.badlogic.gdx.utils.IdentityMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.reflect.*;
 import com.github.czyzby.autumn.annotation.*;
 import com.github.czyzby.autumn.context.error.ContextInitiationException;
+import com.github.czyzby.autumn.context.impl.InjectionPlan;
+import com.github.czyzby.autumn.context.impl.InjectionPlan.AnnotatedMember;
 import com.github.czyzby.autumn.context.impl.method.ContextConsumer;
 import com.github.czyzby.autumn.context.impl.method.MethodInvocation;
+import com.github.czyzby.autumn.context.profiler.ContextProfiler;
 import com.github.czyzby.autumn.processor.AnnotationProcessor;
 import com.github.czyzby.autumn.processor.event.EventDispatcher;
 import com.github.czyzby.autumn.processor.event.MessageDispatcher;
 import com.github.czyzby.autumn.processor.impl.*;
+import com.github.czyzby.autumn.provider.DependencyProvider;
 import com.github.czyzby.autumn.scanner.ClassScanner;
-import com.github.czyzby.kiwi.util.common.Exceptions;
-import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.autumn.scanner.SinglePassClassScanner;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
 import com.github.czyzby.kiwi.util.gdx.collection.lazy.LazyObjectMap;
@@ -53,14 +58,29 @@ public class ContextInitializer {
     /* Scanners, components. */
     /** Contains roots and class scanners that process the actual scanning. */
     private final IdentityMap<Class<?>, ClassScanner> scanners = GdxMaps.newIdentityMap();
+    /** Meta and regular annotations passed to the scanners. Indexes of the annotations are used as bit indexes in
+     * {@link #scannedComponents}. */
+    private final Array<Class<? extends Annotation>> scannedAnnotationsUnion = GdxArrays.newArray();
+    /** Classes found by the scanners mapped to bits representing their annotations. Kept between meta and regular
+     * components initiation, so the scanners have to process the class path once. */
+    private final ObjectMap<Class<?>, Bits> scannedComponents = GdxMaps.newOrderedMap();
     /** Contains components added with {@link #addComponent(Object)}. */
     private final Array<Object> manuallyAddedComponents = GdxArrays.newArray();
 
     /* Control variables. */
-    /** Contains constructors of components that contain unresolved constructor dependencies. */
-    private Array<Constructor> delayedConstructions = GdxArrays.newArray();
-    /** If unable to resolve dependencies after this amount of iterations, context fails to build. */
-    private int maxInitiationIterations = 100;
+    /** Providers of lazy components that were not created yet. */
+    private final Array<LazyComponentProvider> lazyComponents = GdxArrays.newArray();
+    /** Not null while eager components are constructed. Contains lazy components required by their constructors: these
+     * are mapped right away, but processed along with the eager components, once all of them are in the context. */
+    private Array<Object> deferredLazyComponents;
+    /** True after all components are initiated and processors finish their work. */
+    private boolean initiated;
+    /** Optional executor of component constructors. */
+    private ComponentConstructionExecutor constructionExecutor;
+    /** Optional executor of concurrent initiation methods. */
+    private ContextTaskExecutor initiationExecutor;
+    /** Optional profiler measuring initiation phases. */
+    private ContextProfiler profiler;
     /** See {@link Context#setCreateMissingDependencies(boolean)}. */
     private boolean createMissingDependencies = true;
     /** If true, scanners and processors are cleared after initiation. */
@@ -156,19 +176,56 @@ public class ContextInitializer {
         return this;
     }
 
-    /** @param maxInitiationIterations some components need dependencies for their constructors. They initiation is
-     *            basically delayed, until the requested components appear in the context. There is no specialized
-     *            mechanism of detecting circular constructor dependencies; instead, if after a certain number of
-     *            iterations some components are still missing, it is assumed that the context cannot be built. This
-     *            value is the said limit. It defaults to 100, which is more than enough for most - even big - contexts,
-     *            but if you are SURE there are no circular references in your context and it still fails to build after
-     *            100 iterations, change this value to a higher one.
-     * @return this for chaining. */
+    /** @param maxInitiationIterations ignored.
+     * @return this for chaining.
+     * @deprecated constructor dependencies are now resolved up front using a dependency graph and circular
+     *             dependencies are detected directly, so there is no iterations limit. */
+    @Deprecated
     public ContextInitializer maxInitiationIterationsAmount(final int maxInitiationIterations) {
-        this.maxInitiationIterations = maxInitiationIterations;
         return this;
     }
 
+    /** @param constructionExecutor if not null, constructors of independent components will be invoked using this
+     *            executor, possibly in parallel. Use only if component constructors do not require the rendering
+     *            thread. Defaults to null: components are constructed on the initiating thread.
+     * @return this for chaining. */
+    public ContextInitializer constructionExecutor(final ComponentConstructionExecutor constructionExecutor) {
+        this.constructionExecutor = constructionExecutor;
+        return this;
+    }
+
+    /** @param initiationExecutor if not null, {@link Initiate} methods marked as {@link Initiate#concurrent()} will be
+     *            invoked using this executor. Concurrent methods with the same priority are invoked in parallel; all of
+     *            them have to finish before methods with lower priority are invoked. Other methods are still invoked on
+     *            the initiating thread. Defaults to null: all methods are invoked on the initiating thread.
+     * @return this for chaining. */
+    public ContextInitializer initiationExecutor(final ContextTaskExecutor initiationExecutor) {
+        this.initiationExecutor = initiationExecutor;
+        return this;
+    }
+
+    /** @return executor of concurrent {@link Initiate} methods. Might be null. */
+    public ContextTaskExecutor getInitiationExecutor() {
+        return initiationExecutor;
+    }
+
+    /** @param profiler if not null, will measure the duration of each initiation phase and component processing. Note
+     *            that profiling adds a small overhead, so it should be enabled only when investigating startup
+     *            performance. Defaults to null.
+     * @return this for chaining.
+     * @see ContextProfiler#toJson()
+     * @see ContextProfiler#toFoldedStacks() */
+    public ContextInitializer profiler(final ContextProfiler profiler) {
+        this.profiler = profiler;
+        return this;
+    }
+
+    /** @return profiler measuring context initiation or null if profiling is disabled. Processors can use it to
+     *         measure their own actions. */
+    public ContextProfiler getProfiler() {
+        return profiler;
+    }
+
     /** @param createMissingDependencies if true, field and method dependencies with no components or providers in the
      *            concept will be created with default no-arg constructor. Defaults to true.
      * @return this for chaining.
@@ -269,16 +326,55 @@ public class ContextInitializer {
      * @see #scan(Class, ClassScanner) */
     public ContextDestroyer initiate() {
         validateScanners(); // Making sure scanners are properly defined.
-        final Context context = createContext(); // Creating new instance, applying user's settings.
-        final ContextDestroyer contextDestroyer = new ContextDestroyer();
-        mapInContext(context, processors); // Now context contains default processors. They are injectable.
-        mapInContext(context, manuallyAddedComponents); // Now manually added components are in the context.
-        initiateMetaComponents(context, contextDestroyer); // Now context contains custom annotation processors.
-        invokeProcessorActionsBeforeInitiation(); // Processors are ready to process!
-        initiateRegularComponents(context, contextDestroyer);// Now context contains all regular components.
-        invokeProcessorActionsAfterInitiation(context, contextDestroyer); // Processors finish up their work.
-        finishContext(context); // Clearing processors and components.
-        return contextDestroyer;
+        beginProfiling("initiate");
+        try {
+            final Context context = createContext(); // Creating new instance, applying user's settings.
+            final ContextDestroyer contextDestroyer = new ContextDestroyer();
+            mapInContext(context, processors); // Now context contains default processors. They are injectable.
+            mapInContext(context, manuallyAddedComponents); // Now manually added components are in the context.
+            beginProfiling("meta components");
+            try {
+                initiateMetaComponents(context, contextDestroyer); // Now context contains custom processors.
+            } finally {
+                endProfiling();
+            }
+            beginProfiling("before scanning");
+            try {
+                invokeProcessorActionsBeforeInitiation(); // Processors are ready to process!
+            } finally {
+                endProfiling();
+            }
+            beginProfiling("regular components");
+            try {
+                initiateRegularComponents(context, contextDestroyer);// Now context contains all regular components.
+            } finally {
+                endProfiling();
+            }
+            beginProfiling("after scanning");
+            try {
+                invokeProcessorActionsAfterInitiation(context, contextDestroyer); // Processors finish up their work.
+            } finally {
+                endProfiling();
+            }
+            finishContext(context); // Clearing processors and components.
+            return contextDestroyer;
+        } finally {
+            endProfiling();
+        }
+    }
+
+    /** @param section name of the profiled section. Ignored if profiler is not set. */
+    private void beginProfiling(final String section) {
+        if (profiler != null) {
+            profiler.begin(section);
+        }
+    }
+
+    /** Closes the last profiled section. Ignored if profiler is not set. */
+    private void endProfiling() {
+        if (profiler != null) {
+            profiler.end();
+        }
     }
 
     private Context createContext() {
@@ -297,12 +393,27 @@ public class ContextInitializer {
             doAfterInitiation.handleContext(context);
             doAfterInitiation = null;
         }
+        initiated = true;
+        if (lazyComponents.size > 0) {
+            // Lazy components still need components and processors. Clearing is postponed until they are all built.
+            return;
+        }
+        clearContext(context);
+    }
+
+    private void clearContext(final Context context) {
         context.clear(); // Removing all components from context (if not disabled)
         if (clearProcessors) {
             destroyInitializer(); // Clearing meta-data. Processors are no longer available.
         }
     }
 
+    /** @return true if the context was already fully initiated. Processors might use this method to detect components
+     *         created lazily after the initiation - see {@link Component#lazy()}. */
+    public boolean isInitiated() {
+        return initiated;
+    }
+
     /** Throws exception if user did not specify any scanners. */
     private void validateScanners() {
         if (scanners.size == 0) {
@@ -323,7 +434,12 @@ public class ContextInitializer {
      * processor. */
     private void invokeProcessorActionsBeforeInitiation() {
         for (final AnnotationProcessor<?> processor : processors) {
-            processor.doBeforeScanning(this);
+            beginProfiling(processor.getClass().getName());
+            try {
+                processor.doBeforeScanning(this);
+            } finally {
+                endProfiling();
+            }
         }
     }
 
@@ -333,19 +449,102 @@ public class ContextInitializer {
      * @param destroyer used to register destruction callbacks. */
     private void invokeProcessorActionsAfterInitiation(final Context context, final ContextDestroyer destroyer) {
         for (final AnnotationProcessor<?> processor : processors) {
-            processor.doAfterScanning(this, context, destroyer);
+            beginProfiling(processor.getClass().getName());
+            try {
+                processor.doAfterScanning(this, context, destroyer);
+            } finally {
+                endProfiling();
+            }
+        }
+    }
+
+    /** Asks each scanner once for classes annotated with any of the meta and regular annotations. Results are kept in
+     * {@link #scannedComponents} and split into meta and regular components in memory. */
+    private void scanComponents() {
+        addAll(scannedAnnotationsUnion, scannedMetaAnnotations);
+        addAll(scannedAnnotationsUnion, scannedAnnotations);
+        scanComponents(scannedAnnotationsUnion, 0);
+    }
+
+    /** @param annotations will be searched for.
+     * @param bitOffset added to annotation bit indexes. Index of the first annotation in
+     *            {@link #scannedAnnotationsUnion}. */
+    private void scanComponents(final Array<Class<? extends Annotation>> annotations, final int bitOffset) {
+        for (final Entry<Class<?>, ClassScanner> scannerData : scanners) {
+            final ObjectMap<Class<?>, Bits> classes = findClassesAnnotatedWithAny(scannerData.value, scannerData.key,
+                    annotations);
+            for (final Entry<Class<?>, Bits> scannedClass : classes) {
+                Bits classAnnotations = scannedComponents.get(scannedClass.key);
+                if (classAnnotations == null) {
+                    classAnnotations = new Bits();
+                    scannedComponents.put(scannedClass.key, classAnnotations);
+                }
+                for (int bit = scannedClass.value.nextSetBit(0); bit >= 0; bit = scannedClass.value
+                        .nextSetBit(bit + 1)) {
+                    classAnnotations.set(bit + bitOffset);
+                }
+            }
+        }
+    }
+
+    /** @param scanner will scan for the annotated classes.
+     * @param root scanning root.
+     * @param annotations will be searched for.
+     * @return classes mapped to annotations bits. See {@link SinglePassClassScanner}. */
+    private static ObjectMap<Class<?>, Bits> findClassesAnnotatedWithAny(final ClassScanner scanner,
+            final Class<?> root, final Array<Class<? extends Annotation>> annotations) {
+        if (scanner instanceof SinglePassClassScanner) {
+            return ((SinglePassClassScanner) scanner).findClassesAnnotatedWithAny(root, annotations);
+        }
+        // Regular scanner: checking annotations of the found classes with reflection.
+        final ObjectMap<Class<?>, Bits> classes = GdxMaps.newOrderedMap();
+        for (final Class<?> scannedClass : scanner.findClassesAnnotatedWith(root, annotations)) {
+            final Bits classAnnotations = new Bits();
+            for (int index = 0; index < annotations.size; index++) {
+                if (ClassReflection.isAnnotationPresent(scannedClass, annotations.get(index))) {
+                    classAnnotations.set(index);
+                }
+            }
+            classes.put(scannedClass, classAnnotations);
+        }
+        return classes;
+    }
+
+    /** @param annotations will be extracted from scanned components.
+     * @return classes annotated with any of the passed annotations. Annotations have to be already scanned for. */
+    private Array<Class<?>> getScannedComponents(final Array<Class<? extends Annotation>> annotations) {
+        final Bits mask = new Bits();
+        for (final Class<? extends Annotation> annotation : annotations) {
+            mask.set(scannedAnnotationsUnion.indexOf(annotation, true));
+        }
+        final Array<Class<?>> componentTypes = GdxArrays.newArray();
+        for (final Entry<Class<?>, Bits> scannedClass : scannedComponents) {
+            if (scannedClass.value.intersects(mask)) {
+                componentTypes.add(scannedClass.key);
+            }
+        }
+        return componentTypes;
+    }
+
+    private static void addAll(final Array<Class<? extends Annotation>> union,
+            final Array<Class<? extends Annotation>> annotations) {
+        for (final Class<? extends Annotation> annotation : annotations) {
+            if (!union.contains(annotation, true)) {
+                union.add(annotation);
+            }
         }
     }
 
     /** @param context will contain instances of scanned annotation procesors.
      * @param contextDestroyer used to register destruction callbacks. */
     private void initiateMetaComponents(final Context context, final ContextDestroyer contextDestroyer) {
-        final Array<Class<?>> metaComponentTypes = GdxArrays.newArray();
-        for (final Entry<Class<?>, ClassScanner> scannerData : scanners) {
-            metaComponentTypes
-                    .addAll(scannerData.value.findClassesAnnotatedWith(scannerData.key, scannedMetaAnnotations));
+        beginProfiling("scanning");
+        try {
+            scanComponents();
+        } finally {
+            endProfiling();
         }
-        final Array<Object> metaComponents = createComponents(metaComponentTypes, context);
+        final Array<Object> metaComponents = createComponents(getScannedComponents(scannedMetaAnnotations), context);
         metaComponents.addAll(manuallyAddedProcessors);
         manuallyAddedProcessors.clear();
         initiateComponents(metaComponents, context, contextDestroyer);
@@ -355,15 +554,33 @@ public class ContextInitializer {
      *            longer expected to be needed.
      * @param contextDestroyer used to register destruction callbacks. */
     private void initiateRegularComponents(final Context context, final ContextDestroyer contextDestroyer) {
-        final Array<Class<?>> componentTypes = GdxArrays.newArray();
-        for (final Entry<Class<?>, ClassScanner> scannerData : scanners) {
-            componentTypes.addAll(scannerData.value.findClassesAnnotatedWith(scannerData.key, scannedAnnotations));
+        // Processors might have registered additional annotations: these have to be scanned for separately.
+        final Array<Class<? extends Annotation>> missingAnnotations = GdxArrays.newArray();
+        for (final Class<? extends Annotation> annotation : scannedAnnotations) {
+            if (!scannedAnnotationsUnion.contains(annotation, true)) {
+                missingAnnotations.add(annotation);
+            }
         }
+        if (missingAnnotations.size > 0) {
+            beginProfiling("scanning");
+            try {
+                final int bitOffset = scannedAnnotationsUnion.size;
+                scannedAnnotationsUnion.addAll(missingAnnotations);
+                scanComponents(missingAnnotations, bitOffset);
+            } finally {
+                endProfiling();
+            }
+        }
+        final Array<Class<?>> componentTypes = getScannedComponents(scannedAnnotations);
+        registerLazyComponents(componentTypes, context, contextDestroyer);
         final Array<Object> components = createComponents(componentTypes, context);
         // Manually added components are already mapped. Now they will be initiated:
         components.addAll(manuallyAddedComponents);
         manuallyAddedComponents.clear();
         initiateComponents(components, context, contextDestroyer);
+        // Scan results are no longer needed:
+        scannedComponents.clear();
+        scannedAnnotationsUnion.clear();
         // Scanners no longer needed, all components found:
         if (clearProcessors) {
             scanners.clear();
@@ -373,51 +590,66 @@ public class ContextInitializer {
     /** Clears meta-data collections. */
     private void destroyInitializer() {
         GdxMaps.clearAll(fieldProcessors, methodProcessors, typeProcessors);
-        GdxArrays.clearAll(scannedMetaAnnotations, scannedAnnotations, processors, delayedConstructions,
-                manuallyAddedComponents, manuallyAddedProcessors);
+        GdxArrays.clearAll(scannedMetaAnnotations, scannedAnnotations, processors, manuallyAddedComponents,
+                manuallyAddedProcessors);
     }
 
     /* COMPONENTS CREATIONS. Constructor management, resolving dependencies. */
 
-    /** @param types classes of components to initiate.
+    /** @param types classes of components to initiate. Constructor dependencies of the components are resolved up
+     *            front and the components are constructed in topological order.
      * @param context will contain components mapped by their classes tree.
      * @return an array containing all created components. */
     private Array<Object> createComponents(final Array<Class<?>> types, final Context context) {
-        final Array<Object> components = GdxArrays.newArray();
+        beginProfiling("construction");
+        try {
+            return createSortedComponents(types, context);
+        } finally {
+            endProfiling();
+        }
+    }
+
+    /** @param types classes of components to construct in topological order of their constructor dependencies.
+     * @param context will contain components mapped by their classes tree.
+     * @return an array containing all created components. */
+    private Array<Object> createSortedComponents(final Array<Class<?>> types, final Context context) {
+        final Array<ConstructionNode> nodes = GdxArrays.newArray(types.size);
         for (final Class<?> type : types) {
-            final Constructor[] constructors = ClassReflection.getConstructors(type);
-            if (constructors == null || constructors.length == 0) {
-                throw new ContextInitiationException(
-                        type + " has no available public constructors. Unable to create component.");
-            }
-            final Constructor constructor  = constructors.length == 1 ?
-                    // Single constructor - trying to invoke it:
-                    constructors[0] :
-                    // Multiple constructors - trying to find a suitable one:
-                    findSuitableConstructor(constructors);
-            final Object component = processConstructor(constructor, context);
-            if (component != null) {
-                components.add(component);
-            } else {
-                delayedConstructions.add(constructor);
-            }
-        }
-        int initiationIterations = 0;
-        while (GdxArrays.isNotEmpty(delayedConstructions)) {
-            validateIterationsAmount(initiationIterations);
-            processDelayedConstructions(context, components);
-            initiationIterations++;
+            nodes.add(new ConstructionNode(getConstructor(type), nodes.size));
+        }
+        resolveConstructorDependencies(nodes, context);
+        final Array<Object> components = GdxArrays.newArray(nodes.size);
+        deferredLazyComponents = GdxArrays.newArray();
+        Array<ConstructionNode> level = getIndependentNodes(nodes);
+        int constructed = 0;
+        while (level.size > 0) {
+            constructComponents(level, context, components);
+            constructed += level.size;
+            level = getNextLevel(level);
         }
+        if (constructed < nodes.size) {
+            throw new ContextInitiationException("Circular constructor dependency detected: " + findCycle(nodes)
+                    + ". Unable to create components.");
+        }
+        // Lazy components created by constructors are initiated along with the eager components:
+        components.addAll(deferredLazyComponents);
+        deferredLazyComponents = null;
         return components;
     }
 
-    /** @param initiationIterations if greater than {@link #maxInitiationIterations}, throws an an exception. */
-    private void validateIterationsAmount(final int initiationIterations) {
-        if (initiationIterations >= maxInitiationIterations) {
-            throw new ContextInitiationException("Context could not have been built after " + initiationIterations
-                    + " iterations. Some constructor dependencies are missing (not annotated, not available in the context) or some components have circular dependencies. Unable to invoke constructors: "
-                    + GdxArrays.newArray(delayedConstructions));
+    /** @param type class of the component.
+     * @return constructor that should be used to create the component. */
+    private static Constructor getConstructor(final Class<?> type) {
+        final Constructor[] constructors = ClassReflection.getConstructors(type);
+        if (constructors == null || constructors.length == 0) {
+            throw new ContextInitiationException(
+                    type + " has no available public constructors. Unable to create component.");
         }
+        return constructors.length == 1 ?
+                // Single constructor - trying to invoke it:
+                constructors[0] :
+                // Multiple constructors - trying to find a suitable one:
+                findSuitableConstructor(constructors);
     }
 
     /** @param constructors an array of at least 2 constructors.
@@ -436,38 +668,128 @@ public class ContextInitializer {
         return constructor;
     }
 
-    /** @param constructor if all its parameter types are available in context, will be invoked and the instance will be
-     *            added to context.
-     * @param context will be used to retrieve constructor parameters.
-     * @return an instance of the component or null if it cannot be constructed yet. */
-    private Object processConstructor(final Constructor constructor, final Context context) {
-        Object component;
-        if (constructor.getParameterTypes().length == 0) {
-            // Passing any empty object array avoid unnecessary array allocation.
-            component = invokeConstructor(constructor, Strings.EMPTY_ARRAY);
+    /** Builds the dependency graph. Constructor parameters available in the context or through providers are not
+     * included in the graph.
+     *
+     * @param nodes contain constructors of components that will be created.
+     * @param context contains already created components and providers.
+     * @throws ContextInitiationException if a constructor parameter cannot be resolved. */
+    private static void resolveConstructorDependencies(final Array<ConstructionNode> nodes, final Context context) {
+        // Mapping nodes by their class tree, just like the context will map the created components:
+        final ObjectMap<Class<?>, Array<ConstructionNode>> nodesByTypes = LazyObjectMap.newMapOfArrays();
+        for (final ConstructionNode node : nodes) {
+            Class<?> componentClass = node.constructor.getDeclaringClass();
+            while (componentClass != null && !componentClass.equals(Object.class)) {
+                nodesByTypes.get(componentClass).add(node);
+                componentClass = componentClass.getSuperclass();
+            }
+        }
+        for (final ConstructionNode node : nodes) {
+            for (final Class<?> parameterType : node.constructor.getParameterTypes()) {
+                if (context.isPresent(parameterType) || context.isProviderPresentFor(parameterType)) {
+                    continue;
+                }
+                final Array<ConstructionNode> dependencies = nodesByTypes.get(parameterType);
+                if (dependencies.size == 0) {
+                    throw new ContextInitiationException("Unable to invoke constructor: " + node.constructor
+                            + " of " + node.constructor.getDeclaringClass() + ". Constructor dependency of type: "
+                            + parameterType
+                            + " is not available in the context, has no provider and is not a scanned component.");
+                }
+                for (final ConstructionNode dependency : dependencies) {
+                    node.addDependency(dependency);
+                }
+            }
+        }
+    }
+
+    /** @param nodes all nodes of the graph.
+     * @return nodes with no unresolved dependencies, in their original order. */
+    private static Array<ConstructionNode> getIndependentNodes(final Array<ConstructionNode> nodes) {
+        final Array<ConstructionNode> independentNodes = GdxArrays.newArray();
+        for (final ConstructionNode node : nodes) {
+            if (node.unresolvedDependencies == 0) {
+                independentNodes.add(node);
+            }
+        }
+        return independentNodes;
+    }
+
+    /** @param level contains nodes of already constructed components.
+     * @return nodes which dependencies were all constructed, sorted by their original order. */
+    private static Array<ConstructionNode> getNextLevel(final Array<ConstructionNode> level) {
+        final Array<ConstructionNode> nextLevel = GdxArrays.newArray();
+        for (final ConstructionNode node : level) {
+            for (final ConstructionNode dependent : node.dependents) {
+                if (--dependent.unresolvedDependencies == 0) {
+                    nextLevel.add(dependent);
+                }
+            }
+        }
+        nextLevel.sort();
+        return nextLevel;
+    }
+
+    /** @param level contains independent nodes with already constructed dependencies. Their constructors will be
+     *            invoked - in parallel, if {@link #constructionExecutor} is set.
+     * @param context used to get constructor parameters. Will contain the created components.
+     * @param components will contain created components. */
+    private void constructComponents(final Array<ConstructionNode> level, final Context context,
+            final Array<Object> components) {
+        // Parameters are extracted on the current thread, as context is not thread-safe:
+        for (final ConstructionNode node : level) {
+            node.parameters = MethodInvocation.getParametersFromContext(node.constructor.getParameterTypes(),
+                    context);
+        }
+        if (constructionExecutor == null || level.size == 1) {
+            for (final ConstructionNode node : level) {
+                node.run();
+            }
         } else {
-            if (areContructorParametersAvailable(constructor, context)) {
-                final Object[] parameters = MethodInvocation.getParametersFromContext(constructor.getParameterTypes(),
-                        context);
-                component = invokeConstructor(constructor, parameters);
-            } else {
-                return null;
+            final Array<Runnable> tasks = GdxArrays.newArray(level.size);
+            for (final ConstructionNode node : level) {
+                tasks.add(node);
+            }
+            constructionExecutor.invokeAll(tasks);
+        }
+        for (final ConstructionNode node : level) {
+            context.map(node.component);
+            components.add(node.component);
+            if (profiler != null) {
+                // Constructors might have been invoked on other threads, so their times are recorded afterwards:
+                profiler.record(node.constructor.getDeclaringClass().getName(), node.constructionTime);
             }
         }
-        context.map(component);
-        return component;
     }
 
-    /** @param constructor its parameters will be validated.
-     * @param context contains components.
-     * @return true if all constructor parameters can be injected. */
-    private static boolean areContructorParametersAvailable(final Constructor constructor, final Context context) {
-        for (final Class<?> parameterType : constructor.getParameterTypes()) {
-            if (!context.isPresent(parameterType) && !context.isProviderPresentFor(parameterType)) {
-                return false;
+    /** @param nodes all nodes of the graph. At least one has to be a part of a cycle or depend on a cycle.
+     * @return exact path of the circular dependency. */
+    private static String findCycle(final Array<ConstructionNode> nodes) {
+        ConstructionNode current = null;
+        for (final ConstructionNode node : nodes) {
+            if (node.unresolvedDependencies > 0) {
+                current = node;
+                break;
             }
         }
-        return true;
+        // Each unconstructed component has at least one unconstructed dependency, so following them leads to a cycle.
+        final Array<ConstructionNode> path = GdxArrays.newArray();
+        while (current != null && !path.contains(current, true)) {
+            path.add(current);
+            ConstructionNode next = null;
+            for (final ConstructionNode dependency : current.dependencies) {
+                if (dependency.unresolvedDependencies > 0) {
+                    next = dependency;
+                    break;
+                }
+            }
+            current = next;
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (int index = path.indexOf(current, true); index < path.size; index++) {
+            builder.append(path.get(index).constructor.getDeclaringClass().getName()).append(" -> ");
+        }
+        return builder.append(current == null ? "?" : current.constructor.getDeclaringClass().getName()).toString();
     }
 
     /** @param constructor will be invoked.
@@ -484,19 +806,150 @@ public class ContextInitializer {
         }
     }
 
-    /** @param context used to get constructor parameters.
-     * @param components will contain created components. */
-    private void processDelayedConstructions(final Context context, final Array<Object> components) {
-        final Array<Constructor> stillMissingConstructions = GdxArrays.newArray();
-        for (final Constructor constructor : delayedConstructions) {
-            final Object component = processConstructor(constructor, context);
-            if (component != null) {
-                components.add(component);
-            } else {
-                stillMissingConstructions.add(constructor);
+    /** Represents a component in the constructor dependency graph.
+     *
+     * @author MJ */
+    private static class ConstructionNode implements Runnable, Comparable<ConstructionNode> {
+        private final Constructor constructor;
+        /** Original index of the component. Used to keep the components order. */
+        private final int index;
+        private final Array<ConstructionNode> dependencies = GdxArrays.newArray();
+        private final Array<ConstructionNode> dependents = GdxArrays.newArray();
+        private int unresolvedDependencies;
+        private Object[] parameters;
+        private Object component;
+        /** Duration of the constructor invocation in nanoseconds. */
+        private long constructionTime;
+
+        ConstructionNode(final Constructor constructor, final int index) {
+            this.constructor = constructor;
+            this.index = index;
+        }
+
+        void addDependency(final ConstructionNode dependency) {
+            if (!dependencies.contains(dependency, true)) {
+                dependencies.add(dependency);
+                dependency.dependents.add(this);
+                unresolvedDependencies++;
             }
         }
-        delayedConstructions = stillMissingConstructions;
+
+        @Override
+        public void run() {
+            final long start = TimeUtils.nanoTime();
+            component = invokeConstructor(constructor, parameters);
+            constructionTime = TimeUtils.nanoTime() - start;
+            parameters = null;
+        }
+
+        @Override
+        public int compareTo(final ConstructionNode node) {
+            return index - node.index;
+        }
+    }
+
+    /* LAZY COMPONENTS. Created on the first request. */
+
+    /** @param componentTypes classes of scanned components. Lazy components will be removed and registered as
+     *            providers in the context.
+     * @param context will contain providers of lazy components.
+     * @param contextDestroyer used to register destruction callbacks of lazy components. */
+    private void registerLazyComponents(final Array<Class<?>> componentTypes, final Context context,
+            final ContextDestroyer contextDestroyer) {
+        for (int index = componentTypes.size - 1; index >= 0; index--) {
+            final Class<?> type = componentTypes.get(index);
+            if (!isLazy(type)) {
+                continue;
+            }
+            componentTypes.removeIndex(index);
+            final LazyComponentProvider provider = new LazyComponentProvider(type, context, contextDestroyer);
+            lazyComponents.add(provider);
+            context.addProvider(provider);
+            for (final Class<?> interfaceType : getComponentAnnotation(type).value()) {
+                context.addProvider(interfaceType, provider);
+            }
+        }
+    }
+
+    /** @param type class of a scanned component.
+     * @return true if the component should be created on the first request. */
+    private static boolean isLazy(final Class<?> type) {
+        final Component component = getComponentAnnotation(type);
+        return component != null && component.lazy();
+    }
+
+    private static Component getComponentAnnotation(final Class<?> type) {
+        final com.badlogic.gdx.utils.reflect.Annotation annotation = ClassReflection.getDeclaredAnnotation(type,
+                Component.class);
+        return annotation == null ? null : annotation.getAnnotation(Component.class);
+    }
+
+    /** Creates a lazy component on the first request. The component is constructed, mapped in the context and fully
+     * processed - including its initiation methods.
+     *
+     * @author MJ */
+    private class LazyComponentProvider implements DependencyProvider<Object> {
+        @SuppressWarnings("rawtypes") private final Class type;
+        private final Context context;
+        private final ContextDestroyer contextDestroyer;
+        private Object component;
+        private boolean creating;
+
+        LazyComponentProvider(final Class<?> type, final Context context, final ContextDestroyer contextDestroyer) {
+            this.type = type;
+            this.context = context;
+            this.contextDestroyer = contextDestroyer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Object> getDependencyType() {
+            return type;
+        }
+
+        @Override
+        public Object provide() {
+            if (component == null) {
+                if (creating) {
+                    throw new ContextInitiationException(
+                            "Circular dependency detected during creation of lazy component: " + type);
+                }
+                creating = true;
+                try {
+                    component = createComponent();
+                } finally {
+                    creating = false;
+                }
+            }
+            return component;
+        }
+
+        private Object createComponent() {
+            beginProfiling("lazy " + type.getName());
+            final Object instance;
+            try {
+                final Constructor constructor = getConstructor(type);
+                instance = invokeConstructor(constructor,
+                        MethodInvocation.getParametersFromContext(constructor.getParameterTypes(), context));
+                context.map(instance);
+                if (deferredLazyComponents != null) {
+                    // Eager components are still being constructed and might be required by the lazy component's
+                    // fields. Processing is postponed until all components are mapped.
+                    deferredLazyComponents.add(instance);
+                } else {
+                    processType(instance, context, contextDestroyer);
+                    processFields(instance, context, contextDestroyer);
+                    processMethods(instance, context, contextDestroyer);
+                }
+            } finally {
+                endProfiling();
+            }
+            lazyComponents.removeValue(this, true);
+            if (initiated && lazyComponents.size == 0) {
+                clearContext(context); // All lazy components are created: finishing postponed clearing.
+            }
+            return instance;
+        }
     }
 
     /* CONTEXT INITIATION. Processing types', methods' and fields' annotations. */
@@ -507,18 +960,48 @@ public class ContextInitializer {
     private void initiateComponents(final Array<Object> components, final Context context,
             final ContextDestroyer contextDestroyer) {
         // Class annotations are usually the most important. They can change the way component is mapped or processed.
-        for (final Object component : components) {
-            processType(component, context, contextDestroyer);
+        beginProfiling("type processing");
+        try {
+            for (final Object component : components) {
+                beginProfiling(component.getClass().getName());
+                try {
+                    processType(component, context, contextDestroyer);
+                } finally {
+                    endProfiling();
+                }
+            }
+        } finally {
+            endProfiling();
         }
         // Fields annotations might be used to inject component's dependencies and change the state of the component, so
         // they should be processed before methods - which might actually depend on the fields.
-        for (final Object component : components) {
-            processFields(component, context, contextDestroyer);
+        beginProfiling("field processing");
+        try {
+            for (final Object component : components) {
+                beginProfiling(component.getClass().getName());
+                try {
+                    processFields(component, context, contextDestroyer);
+                } finally {
+                    endProfiling();
+                }
+            }
+        } finally {
+            endProfiling();
         }
         // Methods are processed last, when the component is (almost) fully initiated and all method dependencies should
         // be present.
-        for (final Object component : components) {
-            processMethods(component, context, contextDestroyer);
+        beginProfiling("method processing");
+        try {
+            for (final Object component : components) {
+                beginProfiling(component.getClass().getName());
+                try {
+                    processMethods(component, context, contextDestroyer);
+                } finally {
+                    endProfiling();
+                }
+            }
+        } finally {
+            endProfiling();
         }
     }
 
@@ -529,11 +1012,8 @@ public class ContextInitializer {
      * @param contextDestroyer will register destruction callbacks. */
     @SuppressWarnings({ "rawtypes", "unchecked" }) // Using correct types, but wildcards fail to see that.
     private void processType(final Object component, final Context context, final ContextDestroyer contextDestroyer) {
-        final com.badlogic.gdx.utils.reflect.Annotation[] annotations = getAnnotations(component.getClass());
-        if (annotations == null || annotations.length == 0) {
-            return;
-        }
-        for (final com.badlogic.gdx.utils.reflect.Annotation annotation : annotations) {
+        for (final com.badlogic.gdx.utils.reflect.Annotation annotation : InjectionPlan.of(component.getClass())
+                .getTypeAnnotations()) {
             if (typeProcessors.containsKey(annotation.getAnnotationType())) {
                 final Array<AnnotationProcessor<?>> typeProcessorsForAnnotation = typeProcessors
                         .get(annotation.getAnnotationType());
@@ -548,49 +1028,18 @@ public class ContextInitializer {
         }
     }
 
-    /** @param type will return an array of its annotations.
-     * @return array of annotations or null. GWT utility. */
-    private static com.badlogic.gdx.utils.reflect.Annotation[] getAnnotations(final Class<?> type) {
-        try {
-            return ClassReflection.getAnnotations(type);
-        } catch (final Exception exception) {
-            Exceptions.ignore(exception);
-            return null;
-        }
-    }
-
-    /** Scans class tree of component to process all its methods.
+    /** Processes annotated methods of the component's class tree. Annotated methods are cached by
+     * {@link InjectionPlan}.
      *
      * @param component all methods of its class tree will be processed.
      * @param context used to resolve dependencies.
      * @param contextDestroyer used to register destruction callbacks. */
-    private void processMethods(final Object component, final Context context,
-            final ContextDestroyer contextDestroyer) {
-        Class<?> componentClass = component.getClass();
-        while (componentClass != null && !componentClass.equals(Object.class)) {
-            final Method[] methods = ClassReflection.getDeclaredMethods(componentClass);
-            if (methods != null && methods.length > 0) {
-                processMethods(component, methods, context, contextDestroyer);
-            }
-            componentClass = componentClass.getSuperclass();
-        }
-    }
-
-    /** Does the actual processing of found methods.
-     *
-     * @param component owner of the methods.
-     * @param methods present in one of superclasses of the component.
-     * @param context used to resolve dependencies.
-     * @param contextDestroyer used to register destruction callbacks. */
     @SuppressWarnings({ "rawtypes", "unchecked" }) // Using correct types, but wildcards fail to see that.
-    private void processMethods(final Object component, final Method[] methods, final Context context,
+    private void processMethods(final Object component, final Context context,
             final ContextDestroyer contextDestroyer) {
-        for (final Method method : methods) {
-            final com.badlogic.gdx.utils.reflect.Annotation[] annotations = getAnnotations(method);
-            if (annotations == null || annotations.length == 0) {
-                continue;
-            }
-            for (final com.badlogic.gdx.utils.reflect.Annotation annotation : annotations) {
+        for (final AnnotatedMember<Method> annotatedMethod : InjectionPlan.of(component.getClass()).getMethods()) {
+            final Method method = annotatedMethod.getMember();
+            for (final com.badlogic.gdx.utils.reflect.Annotation annotation : annotatedMethod.getAnnotations()) {
                 if (methodProcessors.containsKey(annotation.getAnnotationType())) {
                     for (final AnnotationProcessor processor : methodProcessors.get(annotation.getAnnotationType())) {
                         processor.processMethod(method, annotation.getAnnotation(annotation.getAnnotationType()),
@@ -601,48 +1050,17 @@ public class ContextInitializer {
         }
     }
 
-    /** @param method will return an array of its annotations.
-     * @return array of annotations or null. GWT utility. */
-    private static com.badlogic.gdx.utils.reflect.Annotation[] getAnnotations(final Method method) {
-        try {
-            return method.getDeclaredAnnotations();
-        } catch (final Exception exception) {
-            Exceptions.ignore(exception);
-            return null;
-        }
-    }
-
-    /** Scans class tree of component to process all its fields.
+    /** Processes annotated fields of the component's class tree. Annotated fields are cached by
+     * {@link InjectionPlan}.
      *
      * @param component all fields of its class tree will be processed.
      * @param context used to resolve dependencies.
      * @param contextDestroyer used to register destruction callbacks. */
-    private void processFields(final Object component, final Context context, final ContextDestroyer contextDestroyer) {
-        Class<?> componentClass = component.getClass();
-        while (componentClass != null && !componentClass.equals(Object.class)) {
-            final Field[] fields = ClassReflection.getDeclaredFields(componentClass);
-            if (fields != null && fields.length > 0) {
-                processFields(component, fields, context, contextDestroyer);
-            }
-            componentClass = componentClass.getSuperclass();
-        }
-    }
-
-    /** Does the actual processing of found fields.
-     *
-     * @param component owner of the fields.
-     * @param fields present in one of superclasses of the component.
-     * @param context used to resolve dependencies.
-     * @param contextDestroyer used to register destruction callbacks. */
     @SuppressWarnings({ "rawtypes", "unchecked" }) // Using correct types, but wildcards fail to see that.
-    private void processFields(final Object component, final Field[] fields, final Context context,
-            final ContextDestroyer contextDestroyer) {
-        for (final Field field : fields) {
-            final com.badlogic.gdx.utils.reflect.Annotation[] annotations = getAnnotations(field);
-            if (annotations == null || annotations.length == 0) {
-                continue;
-            }
-            for (final com.badlogic.gdx.utils.reflect.Annotation annotation : annotations) {
+    private void processFields(final Object component, final Context context, final ContextDestroyer contextDestroyer) {
+        for (final AnnotatedMember<Field> annotatedField : InjectionPlan.of(component.getClass()).getFields()) {
+            final Field field = annotatedField.getMember();
+            for (final com.badlogic.gdx.utils.reflect.Annotation annotation : annotatedField.getAnnotations()) {
                 if (fieldProcessors.containsKey(annotation.getAnnotationType())) {
                     for (final AnnotationProcessor processor : fieldProcessors.get(annotation.getAnnotationType())) {
                         processor.processField(field, annotation.getAnnotation(annotation.getAnnotationType()),
@@ -652,15 +1070,4 @@ public class ContextInitializer {
             }
         }
     }
-
-    /** @param field will return an array of its annotations.
-     * @return array of annotations or null. GWT utility. */
-    private static com.badlogic.gdx.utils.reflect.Annotation[] getAnnotations(final Field field) {
-        try {
-            return field.getDeclaredAnnotations();
-        } catch (final Exception exception) {
-            Exceptions.ignore(exception);
-            return null;
-        }
-    }
 }
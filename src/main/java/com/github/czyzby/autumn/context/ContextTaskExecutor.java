@@ -0,0 +1,15 @@
+package com.github.czyzby.autumn.context;
+
+import com.badlogic.gdx.utils.Array;
+
+/** Allows {@link ContextInitializer} to invoke independent context initiation tasks in parallel. Tasks might be invoked
+ * outside of the rendering thread, so an executor should be set only if the tasks do not depend on the OpenGL context.
+ *
+ * @author MJ
+ * @see ContextInitializer#initiationExecutor(ContextTaskExecutor)
+ * @see ComponentConstructionExecutor */
+public interface ContextTaskExecutor {
+    /** @param tasks independent tasks. Each task should be invoked exactly once. This method should not return until
+     *            all tasks are finished. Exceptions thrown by the tasks should be rethrown. */
+    void invokeAll(Array<Runnable> tasks);
+}
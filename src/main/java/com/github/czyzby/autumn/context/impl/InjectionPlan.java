@@ -0,0 +1,146 @@
+package com.github.czyzby.autumn.context.impl;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.Annotation;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.github.czyzby.kiwi.util.common.Exceptions;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
+
+/** Immutable reflection data of a component class: its class annotations and all annotated fields and methods of its
+ * class tree, with their annotations. Computed once per class and cached, so initiating another context with the same
+ * component classes does not require to go through the class tree again. Annotations are paired with processors by the
+ * context initializer, as processors are not shared between contexts.
+ *
+ * @author MJ */
+public class InjectionPlan {
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
+    /** Key: class of the component; value: its cached injection plan. */
+    private static final ObjectMap<Class<?>, InjectionPlan> PLANS = GdxMaps.newObjectMap();
+
+    private final Annotation[] typeAnnotations;
+    private final Array<AnnotatedMember<Field>> fields = GdxArrays.newArray();
+    private final Array<AnnotatedMember<Method>> methods = GdxArrays.newArray();
+
+    private InjectionPlan(final Class<?> componentClass) {
+        typeAnnotations = getClassAnnotations(componentClass);
+        Class<?> currentClass = componentClass;
+        while (currentClass != null && !currentClass.equals(Object.class)) {
+            final Field[] declaredFields = ClassReflection.getDeclaredFields(currentClass);
+            if (declaredFields != null) {
+                for (final Field field : declaredFields) {
+                    final Annotation[] annotations = getFieldAnnotations(field);
+                    if (annotations.length > 0) {
+                        fields.add(new AnnotatedMember<Field>(field, annotations));
+                    }
+                }
+            }
+            final Method[] declaredMethods = ClassReflection.getDeclaredMethods(currentClass);
+            if (declaredMethods != null) {
+                for (final Method method : declaredMethods) {
+                    final Annotation[] annotations = getMethodAnnotations(method);
+                    if (annotations.length > 0) {
+                        methods.add(new AnnotatedMember<Method>(method, annotations));
+                    }
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+    }
+
+    /** @param componentClass class of a component.
+     * @return cached injection plan of the class. Created on the first call. */
+    public static InjectionPlan of(final Class<?> componentClass) {
+        synchronized (PLANS) {
+            InjectionPlan plan = PLANS.get(componentClass);
+            if (plan == null) {
+                plan = new InjectionPlan(componentClass);
+                PLANS.put(componentClass, plan);
+            }
+            return plan;
+        }
+    }
+
+    /** Clears injection plans cached for all component classes. */
+    public static void clearCache() {
+        synchronized (PLANS) {
+            PLANS.clear();
+        }
+    }
+
+    /** @return annotations of the component class. Might be empty. Should not be modified. */
+    public Annotation[] getTypeAnnotations() {
+        return typeAnnotations;
+    }
+
+    /** @return annotated fields of the component class tree. Should not be modified. */
+    public Array<AnnotatedMember<Field>> getFields() {
+        return fields;
+    }
+
+    /** @return annotated methods of the component class tree. Should not be modified. */
+    public Array<AnnotatedMember<Method>> getMethods() {
+        return methods;
+    }
+
+    /** @return array of annotations. Might be empty. GWT utility. */
+    private static Annotation[] getClassAnnotations(final Class<?> type) {
+        try {
+            return nonNull(ClassReflection.getAnnotations(type));
+        } catch (final Exception exception) {
+            Exceptions.ignore(exception);
+            return EMPTY_ANNOTATIONS;
+        }
+    }
+
+    /** @return array of annotations. Might be empty. GWT utility. */
+    private static Annotation[] getFieldAnnotations(final Field field) {
+        try {
+            return nonNull(field.getDeclaredAnnotations());
+        } catch (final Exception exception) {
+            Exceptions.ignore(exception);
+            return EMPTY_ANNOTATIONS;
+        }
+    }
+
+    /** @return array of annotations. Might be empty. GWT utility. */
+    private static Annotation[] getMethodAnnotations(final Method method) {
+        try {
+            return nonNull(method.getDeclaredAnnotations());
+        } catch (final Exception exception) {
+            Exceptions.ignore(exception);
+            return EMPTY_ANNOTATIONS;
+        }
+    }
+
+    private static Annotation[] nonNull(final Annotation[] annotations) {
+        return annotations == null ? EMPTY_ANNOTATIONS : annotations;
+    }
+
+    /** Contains a field or a method with its annotations.
+     *
+     * @author MJ
+     * @param <Member> type of the member. */
+    public static class AnnotatedMember<Member> {
+        private final Member member;
+        private final Annotation[] annotations;
+
+        AnnotatedMember(final Member member, final Annotation[] annotations) {
+            this.member = member;
+            this.annotations = annotations;
+        }
+
+        /** @return field or method. */
+        public Member getMember() {
+            return member;
+        }
+
+        /** @return annotations of the member. Never empty. Should not be modified. */
+        public Annotation[] getAnnotations() {
+            return annotations;
+        }
+    }
+}
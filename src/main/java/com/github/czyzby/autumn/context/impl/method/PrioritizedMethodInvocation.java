@@ -9,6 +9,7 @@ import com.github.czyzby.kiwi.util.common.Comparables;
  * @author MJ */
 public class PrioritizedMethodInvocation extends MethodInvocation implements Comparable<PrioritizedMethodInvocation> {
     private final int priority;
+    private final boolean concurrent;
 
     /** @param method will be eventually invoked.
      * @param methodOwner an instance of the object that contains the method.
@@ -16,8 +17,20 @@ public class PrioritizedMethodInvocation extends MethodInvocation implements Com
      * @param priority of the method invocation. */
     public PrioritizedMethodInvocation(final Method method, final Object methodOwner, final Object[] parameters,
             final int priority) {
+        this(method, methodOwner, parameters, priority, false);
+    }
+
+    /** @param method will be eventually invoked.
+     * @param methodOwner an instance of the object that contains the method.
+     * @param parameters will be used to invoke the method.
+     * @param priority of the method invocation.
+     * @param concurrent true if the method is thread-safe and can be invoked in parallel with other concurrent
+     *            methods of the same priority. */
+    public PrioritizedMethodInvocation(final Method method, final Object methodOwner, final Object[] parameters,
+            final int priority, final boolean concurrent) {
         super(method, methodOwner, parameters);
         this.priority = priority;
+        this.concurrent = concurrent;
     }
 
     /** @return priority of this method invocation. */
@@ -25,6 +38,11 @@ public class PrioritizedMethodInvocation extends MethodInvocation implements Com
         return priority;
     }
 
+    /** @return true if the method can be invoked in parallel with other concurrent methods of the same priority. */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     @Override
     public int compareTo(final PrioritizedMethodInvocation invocation) {
         // Methods with higher priority are executed first.
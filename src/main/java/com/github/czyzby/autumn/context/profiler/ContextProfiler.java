@@ -0,0 +1,109 @@
+package com.github.czyzby.autumn.context.profiler;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Opt-in instrumentation of context initiation. When passed to
+ * {@link com.github.czyzby.autumn.context.ContextInitializer#profiler(ContextProfiler)}, records wall time of each
+ * initiation phase (scanning, construction, type, field and method processing, processors' actions) and each component
+ * processed in these phases. Results are stored as a tree of {@link ProfilerEntry} objects and can be exported to JSON
+ * with {@link #toJson()} or to the folded stacks format (supported by most flame graph tools) with
+ * {@link #toFoldedStacks()}.
+ *
+ * <p>
+ * Profiler is not thread-safe: sections should be opened and closed on the thread that initiates the context.
+ *
+ * @author MJ */
+public class ContextProfiler {
+    /** Name of the root entry. */
+    public static final String ROOT = "context";
+
+    private final ProfilerEntry root = new ProfilerEntry(ROOT, null);
+    private ProfilerEntry current = root;
+
+    /** @param name name of the section. Will be added as a child of the currently open section. Has to be closed with
+     *            {@link #end()}. */
+    public void begin(final String name) {
+        current = current.addChild(name);
+        current.start = TimeUtils.nanoTime();
+    }
+
+    /** Closes the currently open section. */
+    public void end() {
+        if (current == root) {
+            throw new IllegalStateException("No open profiler sections.");
+        }
+        current.duration += TimeUtils.nanoTime() - current.start;
+        current = current.getParent();
+    }
+
+    /** @param name name of the section. Will be added as a child of the currently open section.
+     * @param durationNanos measured duration of the section in nanoseconds. Useful for sections measured on other
+     *            threads. */
+    public void record(final String name, final long durationNanos) {
+        current.addChild(name).duration = durationNanos;
+    }
+
+    /** @return root of the profiling results. Its duration is the sum of durations of all top-level sections. */
+    public ProfilerEntry getReport() {
+        long duration = 0L;
+        for (final ProfilerEntry entry : root.getChildren()) {
+            duration += entry.getDuration();
+        }
+        root.duration = duration;
+        return root;
+    }
+
+    /** Clears all results. */
+    public void reset() {
+        root.getChildren().clear();
+        root.duration = 0L;
+        current = root;
+    }
+
+    /** @return profiling results as a JSON object. Each entry has a "name", "durationNanos" and "children" array. */
+    public String toJson() {
+        final StringBuilder builder = new StringBuilder();
+        appendJson(getReport(), builder);
+        return builder.toString();
+    }
+
+    private static void appendJson(final ProfilerEntry entry, final StringBuilder builder) {
+        builder.append("{\"name\":\"");
+        final String name = entry.getName();
+        for (int index = 0, length = name.length(); index < length; index++) {
+            final char character = name.charAt(index);
+            if (character == '"' || character == '\\') {
+                builder.append('\\');
+            }
+            builder.append(character);
+        }
+        builder.append("\",\"durationNanos\":").append(entry.getDuration()).append(",\"children\":[");
+        for (int index = 0; index < entry.getChildren().size; index++) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            appendJson(entry.getChildren().get(index), builder);
+        }
+        builder.append("]}");
+    }
+
+    /** @return profiling results in the folded stacks format: each line contains semicolon-separated names of nested
+     *         sections and the self time of the last section in microseconds. Can be processed by flame graph
+     *         tools. */
+    public String toFoldedStacks() {
+        final StringBuilder builder = new StringBuilder();
+        appendFoldedStacks(getReport(), ROOT, builder);
+        return builder.toString();
+    }
+
+    private static void appendFoldedStacks(final ProfilerEntry entry, final String stack, final StringBuilder builder) {
+        long selfTime = entry.getDuration();
+        for (final ProfilerEntry child : entry.getChildren()) {
+            selfTime -= child.getDuration();
+            appendFoldedStacks(child, stack + ';' + child.getName().replace(';', '_').replace(' ', '_'), builder);
+        }
+        if (selfTime > 0L) {
+            builder.append(stack).append(' ').append(selfTime / 1000L).append('\n');
+        }
+    }
+}
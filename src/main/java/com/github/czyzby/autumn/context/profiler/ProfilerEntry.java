@@ -0,0 +1,68 @@
+package com.github.czyzby.autumn.context.profiler;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+
+/** A single profiled section of context initiation. Contains nested sections.
+ *
+ * @author MJ
+ * @see ContextProfiler */
+public class ProfilerEntry {
+    private final String name;
+    private final ProfilerEntry parent;
+    private final Array<ProfilerEntry> children = GdxArrays.newArray();
+    long start;
+    long duration;
+
+    ProfilerEntry(final String name, final ProfilerEntry parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    ProfilerEntry addChild(final String name) {
+        final ProfilerEntry child = new ProfilerEntry(name, this);
+        children.add(child);
+        return child;
+    }
+
+    /** @return name of the section: usually a phase, component class or method name. */
+    public String getName() {
+        return name;
+    }
+
+    /** @return parent section or null if this is the root. */
+    public ProfilerEntry getParent() {
+        return parent;
+    }
+
+    /** @return nested sections in the order of their execution. Should not be modified. */
+    public Array<ProfilerEntry> getChildren() {
+        return children;
+    }
+
+    /** @return wall time of the section in nanoseconds. */
+    public long getDuration() {
+        return duration;
+    }
+
+    /** @return wall time of the section in milliseconds. */
+    public float getDurationMillis() {
+        return duration / 1000000f;
+    }
+
+    /** @param name name of a nested section.
+     * @return first direct child with the selected name or null. */
+    public ProfilerEntry getChild(final String name) {
+        for (final ProfilerEntry child : children) {
+            if (child.name.equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getDurationMillis() + "ms";
+    }
+}
@@ -1,10 +1,14 @@
 package com.github.czyzby.autumn.fcs.scanner;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.github.czyzby.autumn.AutumnRoot;
 import com.github.czyzby.autumn.scanner.ClassScanner;
+import com.github.czyzby.autumn.scanner.SinglePassClassScanner;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
 import io.github.lukehutch.fastclasspathscanner.matchprocessor.ClassAnnotationMatchProcessor;
@@ -16,11 +20,12 @@ import java.lang.annotation.Annotation;
  * scanner for desktop libGDX applications using Autumn. If for some reason this scanner does not work for you, try
  * {@link com.github.czyzby.autumn.nongwt.scanner.FallbackDesktopClassScanner} (which is much slower, as it depends on
  * reflection) or {@link com.github.czyzby.autumn.scanner.FixedClassScanner} (which will force you to register class
- * pool to scan, sacrificing true component scanning).
+ * pool to scan, sacrificing true component scanning). To avoid class path scanning at runtime altogether, see
+ * {@link com.github.czyzby.autumn.nongwt.scanner.IndexedClassScanner}.
  *
  * @author MJ
  * @see FastClasspathScanner */
-public class DesktopClassScanner implements ClassScanner {
+public class DesktopClassScanner implements SinglePassClassScanner {
     @Override
     public Array<Class<?>> findClassesAnnotatedWith(final Class<?> root,
             final Iterable<Class<? extends Annotation>> annotations) {
@@ -38,4 +43,28 @@ public class DesktopClassScanner implements ClassScanner {
         scanner.scan();
         return GdxArrays.newArray(result);
     }
+
+    @Override
+    public ObjectMap<Class<?>, Bits> findClassesAnnotatedWithAny(final Class<?> root,
+            final Array<Class<? extends Annotation>> annotations) {
+        final ObjectMap<Class<?>, Bits> result = GdxMaps.newOrderedMap();
+        final FastClasspathScanner scanner = new FastClasspathScanner(root.getPackage().getName(),
+                AutumnRoot.class.getPackage().getName());
+        for (int index = 0; index < annotations.size; index++) {
+            final int annotationIndex = index;
+            scanner.matchClassesWithAnnotation(annotations.get(index), new ClassAnnotationMatchProcessor() {
+                @Override
+                public void processMatch(final Class<?> matchingClass) {
+                    Bits classAnnotations = result.get(matchingClass);
+                    if (classAnnotations == null) {
+                        classAnnotations = new Bits();
+                        result.put(matchingClass, classAnnotations);
+                    }
+                    classAnnotations.set(annotationIndex);
+                }
+            });
+        }
+        scanner.scan(); // All annotations are matched in a single class path traversal.
+        return result;
+    }
 }
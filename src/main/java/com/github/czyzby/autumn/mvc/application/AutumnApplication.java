@@ -5,6 +5,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 import com.github.czyzby.autumn.context.ContextDestroyer;
 import com.github.czyzby.autumn.context.ContextInitializer;
+import com.github.czyzby.autumn.context.profiler.ContextProfiler;
 import com.github.czyzby.autumn.mvc.component.asset.AssetService;
 import com.github.czyzby.autumn.mvc.component.i18n.LocaleService;
 import com.github.czyzby.autumn.mvc.component.i18n.processor.AvailableLocalesAnnotationProcessor;
@@ -37,6 +38,7 @@ public class AutumnApplication implements ApplicationListener {
     private ContextDestroyer contextDestroyer;
     private InterfaceService interfaceService;
     private boolean createMissingDependencies = true;
+    private ContextProfiler profiler;
 
     public AutumnApplication(final ClassScanner componentScanner, final Class<?> scanningRoot) {
         componentScanners = GdxArrays.newArray();
@@ -60,15 +62,38 @@ public class AutumnApplication implements ApplicationListener {
     private void initiateContext() {
         interfaceService = new InterfaceService();
         final ContextInitializer initializer = new ContextInitializer();
-        initializer.createMissingDependencies(createMissingDependencies);
-        registerDefaultComponentAnnotations(initializer);
-        addDefaultComponents(initializer);
-        for (final Pair<Class<?>, ClassScanner> componentScanner : componentScanners) {
-            initializer.scan(componentScanner.getFirst(), componentScanner.getSecond());
+        if (profiler != null) {
+            profiler.begin("setup");
+        }
+        try {
+            initializer.createMissingDependencies(createMissingDependencies).profiler(profiler);
+            registerDefaultComponentAnnotations(initializer);
+            addDefaultComponents(initializer);
+            for (final Pair<Class<?>, ClassScanner> componentScanner : componentScanners) {
+                initializer.scan(componentScanner.getFirst(), componentScanner.getSecond());
+            }
+        } finally {
+            if (profiler != null) {
+                profiler.end();
+            }
         }
         contextDestroyer = initializer.initiate();
     }
 
+    /** @param profiler if not null, will measure the duration of context setup and initiation. Results are available
+     *            after {@link #create()} is invoked. Can be set only before context initiation. Defaults to null.
+     * @return this, for chaining.
+     * @see ContextInitializer#profiler(ContextProfiler) */
+    public AutumnApplication setProfiler(final ContextProfiler profiler) {
+        this.profiler = profiler;
+        return this;
+    }
+
+    /** @return profiler measuring context initiation or null if profiling is disabled. */
+    public ContextProfiler getProfiler() {
+        return profiler;
+    }
+
     /** @param createMissingDependencies if true, classes not available in context (unannotated) and without valid
      *            providers will be created with no-arg constructor if requested for injection. Defaults to true.
      * @return this, for chaining. */
@@ -1,14 +1,18 @@
 
 package com.github.czyzby.autumn.mvc.component.asset;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectSet;
-import com.badlogic.gdx.utils.ObjectSet.ObjectSetIterator;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.github.czyzby.autumn.annotation.Destroy;
@@ -16,14 +20,19 @@ import com.github.czyzby.autumn.annotation.Inject;
 import com.github.czyzby.autumn.context.Context;
 import com.github.czyzby.autumn.context.ContextDestroyer;
 import com.github.czyzby.autumn.context.ContextInitializer;
+import com.github.czyzby.autumn.mvc.component.asset.dto.AssetManifest;
 import com.github.czyzby.autumn.mvc.component.asset.dto.injection.*;
 import com.github.czyzby.autumn.mvc.component.asset.dto.provider.ArrayAssetProvider;
 import com.github.czyzby.autumn.mvc.component.asset.dto.provider.AssetProvider;
 import com.github.czyzby.autumn.mvc.component.asset.dto.provider.ObjectMapAssetProvider;
 import com.github.czyzby.autumn.mvc.component.asset.dto.provider.ObjectSetAssetProvider;
+import com.github.czyzby.autumn.mvc.component.ui.controller.ViewController;
+import com.github.czyzby.autumn.mvc.component.ui.controller.ViewDialogController;
 import com.github.czyzby.autumn.mvc.config.AutumnActionPriority;
 import com.github.czyzby.autumn.mvc.config.AutumnMessage;
 import com.github.czyzby.autumn.mvc.stereotype.Asset;
+import com.github.czyzby.autumn.mvc.stereotype.View;
+import com.github.czyzby.autumn.mvc.stereotype.ViewDialog;
 import com.github.czyzby.autumn.processor.AbstractAnnotationProcessor;
 import com.github.czyzby.autumn.processor.event.MessageDispatcher;
 import com.github.czyzby.kiwi.util.gdx.asset.Disposables;
@@ -41,19 +50,82 @@ import com.github.czyzby.kiwi.util.gdx.reflection.Reflection;
  * implementation - it basically loads everything, waiting for a specific asset to get loaded). Note that some wrapped
  * methods provide additional utility and validations, so direct access to the managers is not advised.
  *
+ * <p>
+ * Assets injected into fields of {@link View} and {@link ViewDialog} components are reference-counted: they are
+ * retained when the view or dialog is created and released when it is destroyed. If estimated memory usage of the
+ * loaded assets exceeds the budget set with {@link #setMemoryBudget(long)}, least recently released assets with no
+ * references are unloaded. They are loaded and injected again when the view is recreated. Other assets are never
+ * unloaded automatically.
+ *
  * @author MJ */
 public class AssetService extends AbstractAnnotationProcessor<Asset> {
-    private final AssetManager assetManager = new AssetManager();
+    private final AssetManager assetManager = new ObservedAssetManager(this);
     /** There is no reliable way of keeping both eagerly and normally loaded assets together, while preserving a way to
      * both load assets by constant updating and load SOME assets at once. That's why this service uses two managers. */
-    private final AssetManager eagerAssetManager = new AssetManager();
+    private final AssetManager eagerAssetManager = new ObservedAssetManager(this);
 
-    private final ObjectSet<AssetInjection> assetInjections = GdxSets.newSet();
+    /** Injections waiting for their assets mapped by paths of the assets that are not loaded yet. */
+    private final ObjectMap<String, Array<PendingInjection>> pendingInjections = GdxMaps.newObjectMap();
+    /** Paths of awaited assets that were loaded since the last check of pending injections. */
+    private final Array<String> loadedAssetPaths = GdxArrays.newArray();
     private final ObjectSet<String> scheduledAssets = GdxSets.newSet();
+    /** Custom parameters of assets scheduled for loading by the regular manager. Reused if the assets are moved to the
+     * eager manager. */
+    private final ObjectMap<String, AssetLoaderParameters<?>> loadingParameters = GdxMaps.newObjectMap();
     private final Array<Runnable> onLoadActions = GdxArrays.newArray();
+    /** Assets of {@link Asset}-annotated fields mapped by component classes. */
+    private final ObjectMap<Class<?>, AssetManifest> manifests = GdxMaps.newObjectMap();
+    /** Reference-counted assets mapped by their paths. */
+    private final ObjectMap<String, TrackedAsset> trackedAssets = GdxMaps.newObjectMap();
+    /** Released tracked assets with no references, sorted from the least recently released. Candidates for eviction.
+     * Assets that were never retained are not included, so assets loaded or preloaded for a view that was not shown
+     * yet cannot be evicted. */
+    private final Array<TrackedAsset> unreferencedAssets = GdxArrays.newArray();
+    /** Finished injections mapped by paths of their assets that might be evicted. Scheduled again if their assets are
+     * evicted. */
+    private final ObjectMap<String, Array<AssetInjection>> finishedInjections = GdxMaps.newObjectMap();
+    /** Reused to collect paths of injected assets. */
+    private final ObjectSet<String> injectedAssetPaths = GdxSets.newSet();
+    private final ObjectMap<Class<?>, AssetSizeEstimator<?>> sizeEstimators = GdxMaps.newObjectMap();
+    private long memoryBudget = Long.MAX_VALUE;
+    private int evictedAssetsAmount;
 
     @Inject private MessageDispatcher messageDispatcher;
 
+    public AssetService() {
+        registerDefaultSizeEstimators();
+    }
+
+    private void registerDefaultSizeEstimators() {
+        registerSizeEstimator(Texture.class, new AssetSizeEstimator<Texture>() {
+            @Override
+            public long estimateSize(final String assetPath, final Texture texture) {
+                return estimateTextureSize(texture);
+            }
+        });
+        registerSizeEstimator(TextureAtlas.class, new AssetSizeEstimator<TextureAtlas>() {
+            @Override
+            public long estimateSize(final String assetPath, final TextureAtlas atlas) {
+                long size = 0L;
+                for (final Texture texture : atlas.getTextures()) {
+                    size += estimateTextureSize(texture);
+                }
+                return size;
+            }
+        });
+        registerSizeEstimator(Pixmap.class, new AssetSizeEstimator<Pixmap>() {
+            @Override
+            public long estimateSize(final String assetPath, final Pixmap pixmap) {
+                return pixmap.getPixels().capacity();
+            }
+        });
+    }
+
+    private static long estimateTextureSize(final Texture texture) {
+        // Assuming 4 bytes per pixel, as texture data format is not always available after uploading.
+        return (long) texture.getWidth() * texture.getHeight() * 4L;
+    }
+
     /** @param loader asset loader for the selected type. Will be registered in all managed {@link AssetManager}
      *            instances.
      * @param assetClass class of the loaded asset.
@@ -95,11 +167,14 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
             final AssetLoaderParameters<Type> loadingParameters) {
         if (isAssetNotScheduled(assetPath)) {
             assetManager.load(assetPath, assetClass, loadingParameters);
+            if (loadingParameters != null) {
+                this.loadingParameters.put(assetPath, loadingParameters);
+            }
         }
     }
 
     private boolean isAssetNotScheduled(final String assetPath) {
-        return !isLoaded(assetPath) && !scheduledAssets.contains(assetPath);
+        return !isLoaded(assetPath) && !assetManager.contains(assetPath) && !scheduledAssets.contains(assetPath);
     }
 
     /** @param assetPath internal path to the asset.
@@ -112,6 +187,7 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
      *
      * @param assetPath internal path to the asset. */
     public void unload(final String assetPath) {
+        loadingParameters.remove(assetPath);
         if (assetManager.isLoaded(assetPath) || scheduledAssets.contains(assetPath)) {
             assetManager.unload(assetPath);
         } else if (eagerAssetManager.isLoaded(assetPath)) {
@@ -119,6 +195,15 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
         }
     }
 
+    /** Schedules loading of all assets in the manifest that were not scheduled already.
+     *
+     * @param manifest contains paths and classes of assets. */
+    public void load(final AssetManifest manifest) {
+        for (int index = 0, size = manifest.getSize(); index < size; index++) {
+            load(manifest.getPath(index), manifest.getType(index));
+        }
+    }
+
     /** Immediately loads all scheduled assets. */
     public void finishLoading() {
         assetManager.finishLoading();
@@ -159,25 +244,164 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
         if (!eagerAssetManager.isLoaded(assetPath)) {
             eagerAssetManager.load(assetPath, assetClass, loadingParameters);
             eagerAssetManager.finishLoadingAsset(assetPath);
+            injectLoadedAssets();
         }
         return eagerAssetManager.get(assetPath, assetClass);
     }
 
-    private void injectRequestedAssets() {
-        for (final ObjectSetIterator<AssetInjection> iterator = assetInjections.iterator(); iterator.hasNext();) {
-            final AssetInjection assetInjection = iterator.next();
-            if (assetInjection.inject(this)) {
-                assetInjection.removeScheduledAssets(scheduledAssets);
-                iterator.remove();
+    /** Immediately loads assets in the selected manifest using the eager manager. Unlike {@link #finishLoading()},
+     * this method does not wait for all scheduled assets. Assets already scheduled with {@link #load(String, Class)}
+     * that are not loaded yet are removed from the regular manager's queue and loaded eagerly with the same
+     * parameters, so they are not loaded twice and the manifest does not wait for the assets queued before them.
+     *
+     * @param manifest contains paths and classes of assets. */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void finishLoading(final AssetManifest manifest) {
+        for (int index = 0, size = manifest.getSize(); index < size; index++) {
+            final String assetPath = manifest.getPath(index);
+            if (isLoaded(assetPath)) {
+                continue;
+            }
+            AssetLoaderParameters parameters = null;
+            if (assetManager.contains(assetPath)) {
+                // Finishing the asset in the regular manager would load all assets queued before it:
+                parameters = loadingParameters.remove(assetPath);
+                assetManager.unload(assetPath);
             }
+            finishLoading(assetPath, (Class) manifest.getType(index), parameters);
         }
+        injectLoadedAssets();
     }
 
-    /** Manually updates wrapped asset manager.
+    /** @param injection will be invoked as soon as all of its assets are loaded. If the assets are already loaded, it
+     *            is invoked immediately. */
+    private void scheduleInjection(final AssetInjection injection) {
+        final ObjectSet<String> assetPaths = GdxSets.newSet();
+        injection.fillScheduledAssets(assetPaths);
+        final PendingInjection pendingInjection = new PendingInjection(injection);
+        for (final String assetPath : assetPaths) {
+            if (!isLoaded(assetPath)) {
+                Array<PendingInjection> injections = pendingInjections.get(assetPath);
+                if (injections == null) {
+                    injections = GdxArrays.newArray();
+                    pendingInjections.put(assetPath, injections);
+                }
+                injections.add(pendingInjection);
+                pendingInjection.missingAssets++;
+            }
+        }
+        if (pendingInjection.missingAssets == 0) {
+            inject(injection);
+        }
+    }
+
+    /** Completes pending injections of the assets loaded since the last call. Managers report each loaded asset with
+     * {@link ObservedAssetManager#addAsset(String, Class, Object)}, so only the injections waiting for the loaded paths
+     * are checked. Injections are invoked as soon as their last asset is loaded. */
+    private void injectLoadedAssets() {
+        if (loadedAssetPaths.size == 0) {
+            return;
+        }
+        Array<AssetInjection> failedInjections = null;
+        for (final String assetPath : loadedAssetPaths) {
+            final Array<PendingInjection> injections = pendingInjections.remove(assetPath);
+            if (injections == null) {
+                continue;
+            }
+            for (final PendingInjection pendingInjection : injections) {
+                if (--pendingInjection.missingAssets == 0 && !tryInject(pendingInjection.injection)) {
+                    if (failedInjections == null) {
+                        failedInjections = GdxArrays.newArray();
+                    }
+                    failedInjections.add(pendingInjection.injection);
+                }
+            }
+        }
+        loadedAssetPaths.clear();
+        if (failedInjections != null) {
+            // Assets were unloaded before the injections were completed. Waiting for the assets again:
+            for (final AssetInjection injection : failedInjections) {
+                scheduleInjection(injection);
+            }
+        }
+    }
+
+    /** @param assetPath path of an asset that was just loaded by one of the managers. */
+    private void onAssetLoaded(final String assetPath) {
+        if (pendingInjections.containsKey(assetPath)) {
+            loadedAssetPaths.add(assetPath);
+        }
+    }
+
+    private void inject(final AssetInjection injection) {
+        if (!tryInject(injection)) { // Waiting for the assets again.
+            scheduleInjection(injection);
+        }
+    }
+
+    /** @param injection its assets should be loaded.
+     * @return true if the assets were injected. False should not happen, unless the assets were unloaded manually. */
+    private boolean tryInject(final AssetInjection injection) {
+        if (injection.inject(this)) {
+            injection.removeScheduledAssets(scheduledAssets);
+            addFinishedInjection(injection);
+            return true;
+        }
+        return false;
+    }
+
+    /** @param injection was just completed. Will be kept if any of its assets might be evicted, so the assets can be
+     *            injected again after reloading. */
+    private void addFinishedInjection(final AssetInjection injection) {
+        injectedAssetPaths.clear();
+        injection.fillScheduledAssets(injectedAssetPaths);
+        for (final String assetPath : injectedAssetPaths) {
+            final TrackedAsset asset = trackedAssets.get(assetPath);
+            if (asset == null || asset.pinned) {
+                continue; // Never evicted.
+            }
+            Array<AssetInjection> injections = finishedInjections.get(assetPath);
+            if (injections == null) {
+                injections = GdxArrays.newArray();
+                finishedInjections.put(assetPath, injections);
+            }
+            injections.add(injection);
+        }
+    }
+
+    /** @param injection will no longer be kept under any of its asset paths. */
+    private void removeFinishedInjection(final AssetInjection injection) {
+        injectedAssetPaths.clear();
+        injection.fillScheduledAssets(injectedAssetPaths);
+        for (final String assetPath : injectedAssetPaths) {
+            final Array<AssetInjection> injections = finishedInjections.get(assetPath);
+            if (injections != null && injections.removeValue(injection, true) && injections.size == 0) {
+                finishedInjections.remove(assetPath);
+            }
+        }
+    }
+
+    /** Manually updates wrapped asset manager. Injects assets that finished loading.
      *
      * @return true if all scheduled assets are loaded. */
     public boolean update() {
         final boolean isLoaded = assetManager.update();
+        injectLoadedAssets();
+        if (isLoaded) {
+            doOnLoadingFinish();
+        }
+        return isLoaded;
+    }
+
+    /** Manually updates wrapped asset manager, blocking the thread for at least the selected amount of time (unless
+     * all assets are loaded). Useful for loading assets in the background with a per-frame time budget.
+     *
+     * @param millis amount of time the manager should try to load assets for.
+     * @return true if all scheduled assets are loaded.
+     * @see AssetManager#update(int) */
+    public boolean update(final int millis) {
+        final boolean isLoaded = assetManager.update(millis);
+        injectLoadedAssets();
         if (isLoaded) {
             doOnLoadingFinish();
         }
@@ -185,11 +409,152 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
     }
 
     private void doOnLoadingFinish() {
-        injectRequestedAssets();
+        injectLoadedAssets();
         invokeOnLoadActions();
+        evictUnreferencedAssets();
         messageDispatcher.postMessage(AutumnMessage.ASSETS_LOADED);
     }
 
+    /** @param manifest its reference-counted assets will be marked as used and will not be unloaded until released.
+     *            Assets that were already unloaded due to the memory budget are loaded and injected again. Assets
+     *            that are not reference-counted are ignored.
+     * @see #release(AssetManifest) */
+    public void retain(final AssetManifest manifest) {
+        if (retainAssets(manifest)) {
+            // Evicted assets are expected to be available when the view is recreated:
+            finishLoading(manifest);
+        }
+    }
+
+    /** @param manifest its reference-counted assets will be marked as used, so they are not unloaded before the view
+     *            that needs them is shown. Unlike {@link #retain(AssetManifest)}, this method does not wait for the
+     *            assets: missing assets are only scheduled for loading. Should be paired with
+     *            {@link #release(AssetManifest)}. */
+    public void preload(final AssetManifest manifest) {
+        retainAssets(manifest);
+        load(manifest);
+    }
+
+    /** @param manifest its reference-counted assets will be retained.
+     * @return true if any of the assets was evicted and has to be loaded again. */
+    private boolean retainAssets(final AssetManifest manifest) {
+        boolean reload = false;
+        for (int index = 0, size = manifest.getSize(); index < size; index++) {
+            final TrackedAsset asset = trackedAssets.get(manifest.getPath(index));
+            if (asset != null) {
+                retain(asset);
+                if (asset.evicted) {
+                    asset.evicted = false;
+                    reload = true;
+                }
+            }
+        }
+        return reload;
+    }
+
+    private void retain(final TrackedAsset asset) {
+        if (asset.references++ == 0) {
+            unreferencedAssets.removeValue(asset, true);
+        }
+    }
+
+    /** @param manifest its reference-counted assets will be marked as no longer used by one of their owners. Assets
+     *            with no references might be unloaded if the memory budget is exceeded.
+     * @see #retain(AssetManifest)
+     * @see #setMemoryBudget(long) */
+    public void release(final AssetManifest manifest) {
+        for (int index = 0, size = manifest.getSize(); index < size; index++) {
+            final TrackedAsset asset = trackedAssets.get(manifest.getPath(index));
+            if (asset != null && asset.references > 0 && --asset.references == 0) {
+                unreferencedAssets.add(asset);
+            }
+        }
+        evictUnreferencedAssets();
+    }
+
+    /** @param memoryBudget amount of bytes that reference-counted assets can use. If exceeded, least recently released
+     *            assets with no references are unloaded. Defaults to {@link Long#MAX_VALUE}: assets are never unloaded
+     *            automatically.
+     * @see #registerSizeEstimator(Class, AssetSizeEstimator) */
+    public void setMemoryBudget(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        evictUnreferencedAssets();
+    }
+
+    /** @return amount of bytes that reference-counted assets can use. */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /** @param assetClass class of the handled assets.
+     * @param estimator will be used to estimate memory usage of loaded assets of the selected class. Assets with no
+     *            registered estimators are estimated by their file size. Textures, texture atlases and pixmaps are
+     *            supported by default.
+     * @param <Type> type of handled assets. */
+    public <Type> void registerSizeEstimator(final Class<Type> assetClass,
+            final AssetSizeEstimator<? super Type> estimator) {
+        sizeEstimators.put(assetClass, estimator);
+    }
+
+    /** @return estimated amount of bytes used by loaded reference-counted assets. */
+    public long getEstimatedMemoryUsage() {
+        long memoryUsage = 0L;
+        for (final TrackedAsset asset : trackedAssets.values()) {
+            memoryUsage += getEstimatedSize(asset);
+        }
+        return memoryUsage;
+    }
+
+    /** @return amount of assets unloaded due to the memory budget. */
+    public int getEvictedAssetsAmount() {
+        return evictedAssetsAmount;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private long getEstimatedSize(final TrackedAsset asset) {
+        if (!isLoaded(asset.path)) {
+            return 0L;
+        } else if (asset.size < 0L) {
+            final AssetSizeEstimator estimator = sizeEstimators.get(asset.type);
+            asset.size = estimator == null ? Gdx.files.internal(asset.path).length()
+                    : estimator.estimateSize(asset.path, get(asset.path, asset.type));
+        }
+        return asset.size;
+    }
+
+    /** Unloads least recently released assets with no references until the memory budget is met. */
+    private void evictUnreferencedAssets() {
+        if (memoryBudget == Long.MAX_VALUE || unreferencedAssets.size == 0) {
+            return;
+        }
+        long memoryUsage = getEstimatedMemoryUsage();
+        for (int index = 0; index < unreferencedAssets.size && memoryUsage > memoryBudget;) {
+            final TrackedAsset asset = unreferencedAssets.get(index);
+            if (isLoaded(asset.path)) {
+                memoryUsage -= getEstimatedSize(asset);
+                unreferencedAssets.removeIndex(index);
+                evict(asset);
+            } else { // Not loaded yet: cannot be evicted.
+                index++;
+            }
+        }
+    }
+
+    private void evict(final TrackedAsset asset) {
+        unload(asset.path);
+        asset.size = -1L;
+        asset.evicted = true;
+        evictedAssetsAmount++;
+        // Injections of the asset are scheduled again, so the asset will be injected after reloading:
+        final Array<AssetInjection> injections = finishedInjections.remove(asset.path);
+        if (injections != null) {
+            for (final AssetInjection injection : injections) {
+                removeFinishedInjection(injection); // Removing the injection from its other asset paths.
+                scheduleInjection(injection);
+            }
+        }
+    }
+
     /** @return progress of asset loading. Does not include eagerly loaded assets. */
     public float getLoadingProgress() {
         return assetManager.getProgress();
@@ -223,6 +588,13 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
         return eagerAssetManager.get(assetPath, assetClass);
     }
 
+    /** @param componentClass class of a component with {@link Asset}-annotated fields.
+     * @return manifest of assets injected into the component's fields or null if the component has no annotated
+     *         fields. */
+    public AssetManifest getAssetManifest(final Class<?> componentClass) {
+        return manifests.get(componentClass);
+    }
+
     @Destroy(priority = AutumnActionPriority.MIN_PRIORITY)
     private void destroy() {
         Disposables.disposeOf(assetManager, eagerAssetManager);
@@ -242,6 +614,8 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
     public void processField(final Field field, final Asset annotation, final Object component, final Context context,
             final ContextInitializer initializer, final ContextDestroyer contextDestroyer) {
         validateAssetData(component, field, annotation);
+        addToManifest(component, field, annotation);
+        trackAssets(component, field, annotation);
         if (field.getType().equals(Lazy.class)) {
             handleLazyAssetInjection(component, field, annotation);
         } else if (field.getType().equals(Array.class)) {
@@ -267,6 +641,59 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
         }
     }
 
+    private void addToManifest(final Object component, final Field field, final Asset assetData) {
+        if (field.getType().equals(Lazy.class)) {
+            return; // Lazy assets are loaded on demand: views should not wait for them.
+        }
+        AssetManifest manifest = manifests.get(component.getClass());
+        if (manifest == null) {
+            manifest = new AssetManifest();
+            manifests.put(component.getClass(), manifest);
+        }
+        final Class<?> assetType = getAssetType(field, assetData);
+        for (final String assetPath : assetData.value()) {
+            manifest.add(assetPath, assetType);
+        }
+    }
+
+    /** @return class of the assets injected into the field. */
+    private static Class<?> getAssetType(final Field field, final Asset assetData) {
+        final Class<?> fieldType = field.getType();
+        final boolean isWrapped = fieldType.equals(Array.class) || fieldType.equals(ObjectSet.class)
+                || fieldType.equals(ObjectMap.class);
+        return isWrapped ? assetData.type() : fieldType;
+    }
+
+    /** Registers reference-counted assets. Assets of views and dialogs managed by annotated controllers are released
+     * when their views are destroyed. Other components and lazy wrappers keep a permanent reference. Assets become
+     * candidates for eviction only after they are released. */
+    private void trackAssets(final Object component, final Field field, final Asset assetData) {
+        final boolean isPinned = field.getType().equals(Lazy.class) || !isManagedByController(component);
+        for (final String assetPath : assetData.value()) {
+            TrackedAsset asset = trackedAssets.get(assetPath);
+            if (asset == null) {
+                asset = new TrackedAsset(assetPath, getAssetType(field, assetData));
+                trackedAssets.put(assetPath, asset);
+            }
+            if (isPinned && !asset.pinned) {
+                asset.pinned = true;
+                retain(asset);
+                // Injections of pinned assets do not have to be kept:
+                finishedInjections.remove(assetPath);
+            }
+        }
+    }
+
+    /** @return true if the component is wrapped by a controller that retains and releases its assets. */
+    private static boolean isManagedByController(final Object component) {
+        final Class<?> componentClass = component.getClass();
+        if (ClassReflection.isAnnotationPresent(componentClass, View.class)) {
+            return !(component instanceof ViewController);
+        }
+        return ClassReflection.isAnnotationPresent(componentClass, ViewDialog.class)
+                && !(component instanceof ViewDialogController);
+    }
+
     private void handleLazyAssetInjection(final Object component, final Field field, final Asset assetData) {
         if (Annotations.isNotVoid(assetData.lazyCollection())) {
             handleLazyAssetCollectionInjection(component, field, assetData);
@@ -331,85 +758,49 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
             } catch (final ReflectionException exception) {
                 throw new GdxRuntimeException("Unable to inject asset loaded on demand.", exception);
             }
+            // Kept in case the asset is unloaded and has to be injected again:
+            addFinishedInjection(new StandardAssetInjection(field, assetPath, component));
         } else {
             load(assetPath, field.getType());
             // Scheduled to be loaded, delayed injection.
-            assetInjections.add(new StandardAssetInjection(field, assetPath, component));
+            scheduleInjection(new StandardAssetInjection(field, assetPath, component));
         }
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     private void handleArrayInjection(final Object component, final Field field, final Asset assetData) {
-        if (assetData.loadOnDemand()) {
-            try {
-                Array assets = (Array) Reflection.getFieldValue(field, component);
-                if (assets == null) {
-                    assets = GdxArrays.newArray();
-                }
-                for (final String assetPath : assetData.value()) {
-                    assets.add(finishLoading(assetPath, assetData.type()));
-                }
-                Reflection.setFieldValue(field, component, assets);
-            } catch (final ReflectionException exception) {
-                throw new GdxRuntimeException("Unable to inject array of assets into: " + component, exception);
-            }
-        } else {
-            for (final String assetPath : assetData.value()) {
-                load(assetPath, assetData.type());
-            }
-            // Scheduled to be loaded, delayed injection.
-            assetInjections.add(new ArrayAssetInjection(assetData.value(), assetData.type(), field, component));
-        }
+        final AssetInjection injection = new ArrayAssetInjection(assetData.value(), assetData.type(), field,
+                component);
+        handleCollectionInjection(assetData, injection);
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     private void handleSetInjection(final Object component, final Field field, final Asset assetData) {
-        if (assetData.loadOnDemand()) {
-            try {
-                ObjectSet assets = (ObjectSet) Reflection.getFieldValue(field, component);
-                if (assets == null) {
-                    assets = GdxSets.newSet();
-                }
-                for (final String assetPath : assetData.value()) {
-                    assets.add(finishLoading(assetPath, assetData.type()));
-                }
-                Reflection.setFieldValue(field, component, assets);
-            } catch (final ReflectionException exception) {
-                throw new GdxRuntimeException("Unable to inject set of assets into: " + component, exception);
-            }
-        } else {
-            for (final String assetPath : assetData.value()) {
-                load(assetPath, assetData.type());
-            }
-            // Scheduled to be loaded, delayed injection.
-            assetInjections.add(new ObjectSetAssetInjection(assetData.value(), assetData.type(), field, component));
-        }
+        final AssetInjection injection = new ObjectSetAssetInjection(assetData.value(), assetData.type(), field,
+                component);
+        handleCollectionInjection(assetData, injection);
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     private void handleMapInjection(final Object component, final Field field, final Asset assetData) {
+        final AssetInjection injection = new ObjectMapAssetInjection(assetData.value(), assetData.keys(),
+                assetData.type(), field, component);
+        handleCollectionInjection(assetData, injection);
+    }
+
+    /** @param assetData annotation of the field.
+     * @param injection injects assets into the collection. Invoked immediately if the assets are loaded on demand. */
+    private void handleCollectionInjection(final Asset assetData, final AssetInjection injection) {
         if (assetData.loadOnDemand()) {
-            final String[] assetPaths = assetData.value();
-            final String[] assetKeys = assetData.keys().length == 0 ? assetData.value() : assetData.keys();
-            try {
-                ObjectMap assets = (ObjectMap) Reflection.getFieldValue(field, component);
-                if (assets == null) {
-                    assets = GdxMaps.newObjectMap();
-                }
-                for (int assetIndex = 0; assetIndex < assetPaths.length; assetIndex++) {
-                    assets.put(assetKeys[assetIndex], finishLoading(assetPaths[assetIndex], assetData.type()));
-                }
-                Reflection.setFieldValue(field, component, assets);
-            } catch (final ReflectionException exception) {
-                throw new GdxRuntimeException("Unable to inject array of assets into: " + component, exception);
+            for (final String assetPath : assetData.value()) {
+                finishLoading(assetPath, assetData.type());
             }
+            injection.inject(this);
+            // Kept in case the assets are unloaded and have to be injected again:
+            addFinishedInjection(injection);
         } else {
             for (final String assetPath : assetData.value()) {
                 load(assetPath, assetData.type());
             }
             // Scheduled to be loaded, delayed injection.
-            assetInjections.add(new ObjectMapAssetInjection(assetData.value(), assetData.keys(), assetData.type(),
-                    field, component));
+            scheduleInjection(injection);
         }
     }
 
@@ -418,4 +809,55 @@ public class AssetService extends AbstractAnnotationProcessor<Asset> {
     public void addOnLoadAction(final Runnable action) {
         onLoadActions.add(action);
     }
+
+    /** Injection waiting for its assets.
+     *
+     * @author MJ */
+    private static class PendingInjection {
+        private final AssetInjection injection;
+        /** Amount of assets that are not loaded yet. */
+        private int missingAssets;
+
+        PendingInjection(final AssetInjection injection) {
+            this.injection = injection;
+        }
+    }
+
+    /** Notifies the service about each loaded asset, allowing to complete pending injections by asset paths.
+     *
+     * @author MJ */
+    private static class ObservedAssetManager extends AssetManager {
+        private final AssetService assetService;
+
+        ObservedAssetManager(final AssetService assetService) {
+            this.assetService = assetService;
+        }
+
+        @Override
+        protected <T> void addAsset(final String fileName, final Class<T> type, final T asset) {
+            super.addAsset(fileName, type, asset);
+            assetService.loadingParameters.remove(fileName);
+            assetService.onAssetLoaded(fileName);
+        }
+    }
+
+    /** Reference-counted asset.
+     *
+     * @author MJ */
+    private static class TrackedAsset {
+        private final String path;
+        private final Class<?> type;
+        private int references;
+        /** Estimated size in bytes. Negative if not estimated yet. */
+        private long size = -1L;
+        /** True if the asset was unloaded due to the memory budget. */
+        private boolean evicted;
+        /** True if the asset is used by a component that is never released. Pinned assets are never evicted. */
+        private boolean pinned;
+
+        TrackedAsset(final String path, final Class<?> type) {
+            this.path = path;
+            this.type = type;
+        }
+    }
 }
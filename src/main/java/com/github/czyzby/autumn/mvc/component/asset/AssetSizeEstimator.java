@@ -0,0 +1,15 @@
+package com.github.czyzby.autumn.mvc.component.asset;
+
+/** Estimates memory used by loaded assets of a specific type. Used by {@link AssetService} to keep the assets within
+ * the memory budget.
+ *
+ * @author MJ
+ * @param <Type> type of handled assets.
+ * @see AssetService#registerSizeEstimator(Class, AssetSizeEstimator)
+ * @see AssetService#setMemoryBudget(long) */
+public interface AssetSizeEstimator<Type> {
+    /** @param assetPath internal path to the asset.
+     * @param asset fully loaded asset.
+     * @return estimated amount of bytes used by the asset. */
+    long estimateSize(String assetPath, Type asset);
+}
@@ -0,0 +1,68 @@
+package com.github.czyzby.autumn.mvc.component.asset.dto;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.autumn.mvc.component.asset.AssetService;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+
+/** Contains paths and types of assets required by a single component. Manifests are collected by
+ * {@link AssetService} from {@link com.github.czyzby.autumn.mvc.stereotype.Asset}-annotated fields and allow to load
+ * the assets of a view before it is shown. Fields wrapped with {@link com.github.czyzby.kiwi.util.gdx.asset.lazy.Lazy}
+ * are not included, as their assets are loaded on demand.
+ *
+ * @author MJ
+ * @see AssetService#getAssetManifest(Class) */
+public class AssetManifest {
+    private final Array<String> paths = GdxArrays.newArray(String.class);
+    private final Array<Class<?>> types = GdxArrays.newArray();
+
+    /** @param assetPath internal path to the asset. Ignored if the asset is already in the manifest.
+     * @param assetType class of the asset. */
+    public void add(final String assetPath, final Class<?> assetType) {
+        if (!paths.contains(assetPath, false)) {
+            paths.add(assetPath);
+            types.add(assetType);
+        }
+    }
+
+    /** @param manifest its assets will be added to this manifest. Can be null. */
+    public void addAll(final AssetManifest manifest) {
+        if (manifest != null) {
+            for (int index = 0; index < manifest.paths.size; index++) {
+                add(manifest.paths.get(index), manifest.types.get(index));
+            }
+        }
+    }
+
+    /** @return amount of assets in the manifest. */
+    public int getSize() {
+        return paths.size;
+    }
+
+    /** @return true if there are no assets in the manifest. */
+    public boolean isEmpty() {
+        return paths.size == 0;
+    }
+
+    /** @param index index of the asset.
+     * @return internal path to the asset. */
+    public String getPath(final int index) {
+        return paths.get(index);
+    }
+
+    /** @param index index of the asset.
+     * @return class of the asset. */
+    public Class<?> getType(final int index) {
+        return types.get(index);
+    }
+
+    /** @param assetService manages the assets.
+     * @return true if all assets in the manifest are fully loaded. */
+    public boolean isLoaded(final AssetService assetService) {
+        for (final String path : paths) {
+            if (!assetService.isLoaded(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -17,6 +17,8 @@ public class ArrayAssetInjection implements AssetInjection {
     private final Class<?> assetType;
     private final Field field;
     private final Object component;
+    /** Assets injected by the last {@link #inject(AssetService)} call. Removed from the collection on reinjection. */
+    private final Array<Object> injectedAssets = GdxArrays.newArray();
 
     public ArrayAssetInjection(final String[] assetPaths, final Class<?> assetType, final Field field,
             final Object component) {
@@ -44,8 +46,13 @@ public class ArrayAssetInjection implements AssetInjection {
             if (array == null) {
                 array = GdxArrays.newArray();
             }
+            // Assets might be reinjected after they were unloaded and loaded again:
+            array.removeAll(injectedAssets, true);
+            injectedAssets.clear();
             for (final String assetPath : assetPaths) {
-                array.add(assetService.get(assetPath, assetType));
+                final Object asset = assetService.get(assetPath, assetType);
+                array.add(asset);
+                injectedAssets.add(asset);
             }
             Reflection.setFieldValue(field, component, array);
         } catch (final ReflectionException exception) {
@@ -1,10 +1,12 @@
 package com.github.czyzby.autumn.mvc.component.asset.dto.injection;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.github.czyzby.autumn.mvc.component.asset.AssetService;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 import com.github.czyzby.kiwi.util.gdx.reflection.Reflection;
 
@@ -16,6 +18,8 @@ public class ObjectSetAssetInjection implements AssetInjection {
     private final Class<?> assetType;
     private final Field field;
     private final Object component;
+    /** Assets injected by the last {@link #inject(AssetService)} call. Removed from the collection on reinjection. */
+    private final Array<Object> injectedAssets = GdxArrays.newArray();
 
     public ObjectSetAssetInjection(final String[] assetPaths, final Class<?> assetType, final Field field,
             final Object component) {
@@ -43,8 +47,15 @@ public class ObjectSetAssetInjection implements AssetInjection {
             if (set == null) {
                 set = GdxSets.newSet();
             }
+            // Assets might be reinjected after they were unloaded and loaded again:
+            for (final Object injectedAsset : injectedAssets) {
+                set.remove(injectedAsset);
+            }
+            injectedAssets.clear();
             for (final String assetPath : assetPaths) {
-                set.add(assetService.get(assetPath, assetType));
+                final Object asset = assetService.get(assetPath, assetType);
+                set.add(asset);
+                injectedAssets.add(asset);
             }
             Reflection.setFieldValue(field, component, set);
         } catch (final ReflectionException exception) {
@@ -100,8 +100,9 @@ public class LocaleService extends AbstractAnnotationProcessor<I18nLocale> {
      * bundle reload, use
      * {@link InterfaceService#setActionOnBundlesReload(Runnable)}.
      *
-     * @param doOnLocaleChange if not null, will be executed each time locale is changed. Defaults to reloading the
-     *            screens with {@link InterfaceService#reload()} method.
+     * @param doOnLocaleChange if not null, will be executed each time locale is changed. Defaults to updating the
+     *            localized texts of the screens with {@link InterfaceService#relocalize()} method. Set to
+     *            {@link InterfaceService#reload()} if the screens should be fully rebuilt.
      * @see InterfaceService#setActionOnBundlesReload(Runnable) */
     public void setActionOnLocaleChange(final Runnable doOnLocaleChange) {
         this.doOnLocaleChange = doOnLocaleChange;
@@ -223,7 +224,7 @@ public class LocaleService extends AbstractAnnotationProcessor<I18nLocale> {
             }
             InterfaceService interfaceService = localeService.interfaceService;
             if (interfaceService.getCurrentController() != null) {
-                interfaceService.reload();
+                interfaceService.relocalize();
             }
         }
     }
@@ -6,23 +6,33 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.I18NBundle;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.Timer;
+import com.badlogic.gdx.utils.Timer.Task;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.github.czyzby.autumn.annotation.Destroy;
 import com.github.czyzby.autumn.annotation.Initiate;
 import com.github.czyzby.autumn.annotation.Inject;
 import com.github.czyzby.autumn.mvc.component.asset.AssetService;
+import com.github.czyzby.autumn.mvc.component.asset.dto.AssetManifest;
 import com.github.czyzby.autumn.mvc.component.i18n.LocaleService;
 import com.github.czyzby.autumn.mvc.component.sfx.MusicService;
 import com.github.czyzby.autumn.mvc.component.ui.action.*;
 import com.github.czyzby.autumn.mvc.component.ui.controller.*;
+import com.github.czyzby.autumn.mvc.component.ui.controller.impl.AnnotatedViewController;
 import com.github.czyzby.autumn.mvc.component.ui.controller.impl.AnnotatedViewDialogController;
 import com.github.czyzby.autumn.mvc.component.ui.controller.impl.StandardViewRenderer;
 import com.github.czyzby.autumn.mvc.component.ui.controller.impl.StandardViewResizer;
@@ -76,6 +86,17 @@ public class InterfaceService {
      * {@link #setShowingActionProvider(ActionProvider)}. Retrieved each time a screen is shown or hidden using default
      * actions. */
     public static float DEFAULT_FADING_TIME = 0.25f;
+    /** Default amount of milliseconds spent each frame on loading assets of the views that are likely to be shown next.
+     * Can be modified statically before context initiation or changed with {@link #setPreloadingTimeBudget(int)}. */
+    public static int DEFAULT_PRELOADING_TIME_BUDGET = 4;
+    /** Default interval in seconds between forced frames when the views are rendered on demand. Allows widgets that
+     * animate without actions (like particle effects or custom widgets) to be updated. If 0 or lower, there is no
+     * heartbeat. Can be modified statically before context initiation or changed with
+     * {@link #setRenderingHeartbeat(float)}. */
+    public static float DEFAULT_RENDERING_HEARTBEAT = 0.5f;
+    /** Expected frame rate of the application. When the views are rendered on demand, it is used to estimate the
+     * amount of skipped frames and to limit the time passed to the first frame after a period of inactivity. */
+    public static int DEFAULT_FRAME_RATE = 60;
     /** Upon initiation and each time locale is changed, it is parsed to string (separating values with -) and assigned
      * as a LML view argument which can be referenced with ${thisVariableValue} in templates. Changing this variable
      * (ideally - before building first screen) allows to choose argument's name. */
@@ -92,6 +113,24 @@ public class InterfaceService {
     private ViewController currentController;
     private Locale lastLocale;
     private boolean isControllerHiding;
+    private int preloadingTimeBudget = DEFAULT_PRELOADING_TIME_BUDGET;
+    private boolean isPreloading;
+    /** Manifests of the views likely to be shown next. Retained until another view is shown. */
+    private final Array<AssetManifest> preloadedManifests = GdxArrays.newArray();
+    private int viewTransitionsAmount;
+    private int stalledViewTransitionsAmount;
+    private long stallTime;
+    private boolean isRenderingOnDemand;
+    private boolean isIdle;
+    private float renderingHeartbeat = DEFAULT_RENDERING_HEARTBEAT;
+    private final Task heartbeatTask = new Task() {
+        @Override
+        public void run() {
+            requestRendering();
+        }
+    };
+    private long renderedFramesAmount;
+    private long skippedFramesAmount;
 
     private Runnable actionOnReload;
     private Runnable actionOnShow;
@@ -178,6 +217,7 @@ public class InterfaceService {
 
     @Initiate(priority = AutumnActionPriority.MIN_PRIORITY)
     private void initiateFirstScreen() {
+        validateNextViewIds();
         for (final ViewController controller : controllers.values()) {
             if (controller.isFirst()) {
                 show(controller);
@@ -363,10 +403,56 @@ public class InterfaceService {
         return showingActionProvider;
     }
 
+    /** Reloads i18n bundles if the locale was changed and updates the created views and dialogs in place: only the
+     * widget properties that were parsed from bundle lines are evaluated again. Views are not recreated, so the state
+     * of their widgets (scroll positions, user input, selections) is kept. Texts that were set manually or computed by
+     * actions are not updated - use {@link #reload()} if the views have to be fully rebuilt.
+     *
+     * <p>
+     * Only annotated controllers record which widget properties depend on the bundles. If any registered dialog
+     * controller or created view controller is not annotated, this method falls back to {@link #reload()}.
+     *
+     * @see com.github.czyzby.lml.parser.impl.LmlBundleBindings */
+    public void relocalize() {
+        if (!canRelocalize()) {
+            reload();
+            return;
+        }
+        validateLocale();
+        for (final ViewController controller : controllers.values()) {
+            if (controller.isCreated() && controller instanceof AnnotatedViewController) {
+                ((AnnotatedViewController) controller).relocalize(parser);
+            }
+        }
+        for (final ViewDialogController controller : dialogControllers.values()) {
+            if (controller instanceof AnnotatedViewDialogController
+                    && ((AnnotatedViewDialogController) controller).isInitiated()) {
+                ((AnnotatedViewDialogController) controller).relocalize(parser);
+            }
+        }
+        requestRendering();
+    }
+
+    /** @return true if all created views and registered dialogs can be re-localized in place. */
+    private boolean canRelocalize() {
+        for (final ViewController controller : controllers.values()) {
+            if (controller.isCreated() && !(controller instanceof AnnotatedViewController)) {
+                return false;
+            }
+        }
+        for (final ViewDialogController controller : dialogControllers.values()) {
+            if (!(controller instanceof AnnotatedViewDialogController)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /** Hides current view, destroys all screens and shows the recreated current view. Note that it won't recreate all
      * views that were previously initiated, as views are constructed on demand.
      *
-     * @see #initiateAllControllers() */
+     * @see #initiateAllControllers()
+     * @see #relocalize() */
     public void reload() {
         currentController
                 .hide(Actions.sequence(hidingActionProvider.provideAction(currentController, currentController),
@@ -459,13 +545,255 @@ public class InterfaceService {
         show(viewToShow);
     }
 
-    /** Renders the current view, if present.
+    /** @param preloadingTimeBudget amount of milliseconds spent each frame on loading assets of the views that are
+     *            likely to be shown after the current one - see
+     *            {@link com.github.czyzby.autumn.mvc.stereotype.View#next()}. Views' assets are also fully loaded
+     *            before they are shown. If 0 or lower, preloading is disabled and views do not wait for their assets.
+     * @see #DEFAULT_PRELOADING_TIME_BUDGET */
+    public void setPreloadingTimeBudget(final int preloadingTimeBudget) {
+        this.preloadingTimeBudget = preloadingTimeBudget;
+    }
+
+    /** @return amount of milliseconds spent each frame on loading assets of the views that are likely to be shown
+     *         next. */
+    public int getPreloadingTimeBudget() {
+        return preloadingTimeBudget;
+    }
+
+    /** @return true if assets of the next views are currently loaded in the background. */
+    public boolean isPreloading() {
+        return isPreloading;
+    }
+
+    /** @return amount of views shown since the application start or the last {@link #resetTransitionStatistics()}
+     *         call. */
+    public int getViewTransitionsAmount() {
+        return viewTransitionsAmount;
+    }
+
+    /** @return amount of views that had to wait for their assets before they were shown. If this value is high
+     *         compared to {@link #getViewTransitionsAmount()}, consider setting
+     *         {@link com.github.czyzby.autumn.mvc.stereotype.View#next()} or increasing the preloading time budget. */
+    public int getStalledViewTransitionsAmount() {
+        return stalledViewTransitionsAmount;
+    }
+
+    /** @return total time in milliseconds spent on waiting for views' assets. */
+    public float getStallTime() {
+        return stallTime / 1000000f;
+    }
+
+    /** Clears view transition statistics. */
+    public void resetTransitionStatistics() {
+        viewTransitionsAmount = 0;
+        stalledViewTransitionsAmount = 0;
+        stallTime = 0L;
+    }
+
+    /** @param controller manages a view.
+     * @return assets required by the view. Might be null. */
+    private AssetManifest getAssetManifest(final ViewController controller) {
+        if (controller instanceof AnnotatedViewController) {
+            return ((AnnotatedViewController) controller).getAssetManifest();
+        }
+        return assetService.getAssetManifest(controller.getClass());
+    }
+
+    /** @param controller its assets will be loaded before it is shown. */
+    private void finishLoadingAssets(final ViewController controller) {
+        viewTransitionsAmount++;
+        if (preloadingTimeBudget <= 0) {
+            return;
+        }
+        final AssetManifest manifest = getAssetManifest(controller);
+        if (manifest != null && !manifest.isLoaded(assetService)) {
+            stalledViewTransitionsAmount++;
+            final long start = TimeUtils.nanoTime();
+            assetService.finishLoading(manifest);
+            stallTime += TimeUtils.nanoTime() - start;
+        }
+    }
+
+    /** @param controller was just shown. Assets of views that are likely to be shown next will be scheduled for
+     *            loading and retained, so they are not unloaded due to the memory budget before the views are shown.
+     *            Assets preloaded for the previous view are released. */
+    private void preloadNextViews(final ViewController controller) {
+        final int previouslyPreloaded = preloadedManifests.size;
+        if (preloadingTimeBudget > 0 && controller instanceof AnnotatedViewController) {
+            for (final String viewId : ((AnnotatedViewController) controller).getNextViewIds()) {
+                final AssetManifest manifest = getAssetManifest(getNextController(controller, viewId));
+                if (manifest != null) {
+                    isPreloading |= !manifest.isLoaded(assetService);
+                    assetService.preload(manifest);
+                    preloadedManifests.add(manifest);
+                }
+            }
+        }
+        // Released after retaining the new manifests, so assets shared by the views are not unloaded in between:
+        for (int index = 0; index < previouslyPreloaded; index++) {
+            assetService.release(preloadedManifests.get(index));
+        }
+        if (previouslyPreloaded > 0) {
+            preloadedManifests.removeRange(0, previouslyPreloaded - 1);
+        }
+    }
+
+    /** Makes sure that views likely to be shown next are registered, so invalid IDs are reported when the application
+     * starts rather than when the view is shown. */
+    private void validateNextViewIds() {
+        for (final ViewController controller : controllers.values()) {
+            if (controller instanceof AnnotatedViewController) {
+                for (final String viewId : ((AnnotatedViewController) controller).getNextViewIds()) {
+                    getNextController(controller, viewId);
+                }
+            }
+        }
+    }
+
+    /** @param controller manages a view.
+     * @param viewId ID of a view likely to be shown after the view.
+     * @return controller of the next view.
+     * @throws GdxRuntimeException if the ID is unknown. */
+    private ViewController getNextController(final ViewController controller, final String viewId) {
+        final ViewController nextController = getControllerById(viewId);
+        if (nextController == null) {
+            throw new GdxRuntimeException(
+                    "Unknown next view ID: '" + viewId + "' of view: " + controller.getViewId() + ".");
+        }
+        return nextController;
+    }
+
+    private ViewController getControllerById(final String viewId) {
+        for (final ViewController controller : controllers.values()) {
+            if (viewId.equals(controller.getViewId())) {
+                return controller;
+            }
+        }
+        return null;
+    }
+
+    /** Renders the current view, if present. Loads assets of the next views within the preloading time budget.
      *
      * @param delta time passed since the last update. */
     public void render(final float delta) {
+        renderedFramesAmount++;
+        if (isPreloading) {
+            isPreloading = !assetService.update(preloadingTimeBudget);
+        }
         if (currentController != null) {
-            currentController.render(delta);
+            currentController.render(isRenderingOnDemand ? getOnDemandDelta(delta) : delta);
+        }
+        if (isRenderingOnDemand) {
+            isIdle = !isUpdateNeeded();
+            if (!isIdle) {
+                Gdx.graphics.requestRendering();
+            }
+        }
+    }
+
+    /** @param delta time passed since the last frame.
+     * @return delta that should be passed to the view. After a period of inactivity, delta is limited to a single
+     *         frame, so animations started by an input event are not skipped. */
+    private float getOnDemandDelta(final float delta) {
+        if (!isIdle || DEFAULT_FRAME_RATE <= 0) {
+            return delta;
+        }
+        final float frameTime = 1f / DEFAULT_FRAME_RATE;
+        if (delta > frameTime) {
+            skippedFramesAmount += (long) (delta / frameTime) - 1L;
+            return frameTime;
+        }
+        return delta;
+    }
+
+    /** @return true if the current view is still changing and the next frame should be rendered. */
+    private boolean isUpdateNeeded() {
+        if (isPreloading || isControllerHiding) {
+            return true;
         }
+        if (currentController == null || currentController.getStage() == null) {
+            return false;
+        }
+        final Stage stage = currentController.getStage();
+        return stage.getRoot().hasActions() || hasPendingUpdates(stage.getRoot());
+    }
+
+    /** @param group will have its children checked recursively.
+     * @return true if any actor has actions or was invalidated after the last layout. */
+    private static boolean hasPendingUpdates(final Group group) {
+        for (final Actor actor : group.getChildren()) {
+            if (actor.hasActions() || actor instanceof Widget && ((Widget) actor).needsLayout()
+                    || actor instanceof WidgetGroup && ((WidgetGroup) actor).needsLayout()) {
+                return true;
+            }
+            if (actor instanceof Group && hasPendingUpdates((Group) actor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @param renderingOnDemand if true, continuous rendering is turned off and the views are rendered only after
+     *            input events, when actors have running actions or were invalidated, when assets are preloaded, after
+     *            {@link #requestRendering()} calls and on each heartbeat - see {@link #setRenderingHeartbeat(float)}.
+     *            Idle views do not use CPU and GPU. Views that animate in their renderers without actions should
+     *            request rendering manually. Defaults to false. */
+    public void setRenderingOnDemand(final boolean renderingOnDemand) {
+        isRenderingOnDemand = renderingOnDemand;
+        isIdle = false;
+        Gdx.graphics.setContinuousRendering(!renderingOnDemand);
+        scheduleHeartbeat();
+        requestRendering();
+    }
+
+    /** @return true if the views are rendered only when they change.
+     * @see #setRenderingOnDemand(boolean) */
+    public boolean isRenderingOnDemand() {
+        return isRenderingOnDemand;
+    }
+
+    /** @param renderingHeartbeat interval in seconds between forced frames when the views are rendered on demand. If 0
+     *            or lower, frames are rendered only when the views change.
+     * @see #DEFAULT_RENDERING_HEARTBEAT */
+    public void setRenderingHeartbeat(final float renderingHeartbeat) {
+        this.renderingHeartbeat = renderingHeartbeat;
+        scheduleHeartbeat();
+    }
+
+    /** @return interval in seconds between forced frames when the views are rendered on demand. */
+    public float getRenderingHeartbeat() {
+        return renderingHeartbeat;
+    }
+
+    private void scheduleHeartbeat() {
+        heartbeatTask.cancel();
+        if (isRenderingOnDemand && renderingHeartbeat > 0f) {
+            Timer.schedule(heartbeatTask, renderingHeartbeat, renderingHeartbeat);
+        }
+    }
+
+    /** Forces rendering of the next frame. Has to be called after changing the view outside of input events and
+     * actions if the views are rendered on demand. */
+    public void requestRendering() {
+        Gdx.graphics.requestRendering();
+    }
+
+    /** @return amount of frames rendered since the application start or the last {@link #resetRenderingStatistics()}
+     *         call. */
+    public long getRenderedFramesAmount() {
+        return renderedFramesAmount;
+    }
+
+    /** @return estimated amount of frames that were not rendered, as the views were idle. Based on
+     *         {@link #DEFAULT_FRAME_RATE}. Always 0 if the views are not rendered on demand. */
+    public long getSkippedFramesAmount() {
+        return skippedFramesAmount;
+    }
+
+    /** Clears rendering statistics. */
+    public void resetRenderingStatistics() {
+        renderedFramesAmount = 0L;
+        skippedFramesAmount = 0L;
     }
 
     /** Resizes the current view, if present.
@@ -518,6 +846,7 @@ public class InterfaceService {
 
     @Destroy(priority = AutumnActionPriority.LOW_PRIORITY)
     private void dispose() {
+        heartbeatTask.cancel();
         destroyViews();
         destroyDialogs();
         controllers.clear();
@@ -632,10 +961,12 @@ public class InterfaceService {
             interfaceService.isControllerHiding = false;
             final ViewController previousController = interfaceService.currentController;
             interfaceService.currentController = controllerToShow;
+            interfaceService.finishLoadingAssets(controllerToShow);
             interfaceService.initiateView(controllerToShow);
             controllerToShow.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
             interfaceService.currentController.show(interfaceService.showingActionProvider
                     .provideAction(interfaceService.currentController, previousController));
+            interfaceService.preloadNextViews(controllerToShow);
             controllerToShow = null;
         }
     }
@@ -1,10 +1,16 @@
 package com.github.czyzby.autumn.mvc.component.ui.controller.impl;
 
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.github.czyzby.kiwi.util.gdx.reflection.Reflection;
+import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.AbstractLmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 
 /** Base class for controller wrappers of annotated objects.
  *
@@ -12,6 +18,7 @@ import com.github.czyzby.kiwi.util.gdx.reflection.Reflection;
 public abstract class AbstractAnnotatedController {
     protected final Object wrappedObject;
     private Field stageField;
+    private final LmlBundleBindings bundleBindings = new LmlBundleBindings();
 
     public AbstractAnnotatedController(final Object wrappedObject) {
         this.wrappedObject = wrappedObject;
@@ -35,6 +42,39 @@ public abstract class AbstractAnnotatedController {
         injectStage(null);
     }
 
+    /** @param parser will parse the template. If it supports bundle bindings, properties parsed from bundle lines will
+     *            be recorded, so the view can be re-localized without being recreated.
+     * @param template LML template of the view.
+     * @return actors parsed from the template.
+     * @see #relocalize(LmlParser) */
+    protected Array<Actor> parseView(final LmlParser parser, final FileHandle template) {
+        bundleBindings.clear();
+        if (!(parser instanceof AbstractLmlParser)) {
+            return parser.createView(wrappedObject, template);
+        }
+        final AbstractLmlParser lmlParser = (AbstractLmlParser) parser;
+        final LmlBundleBindings previousBindings = lmlParser.getBundleBindings();
+        lmlParser.setBundleBindings(bundleBindings);
+        try {
+            return lmlParser.createView(wrappedObject, template);
+        } finally {
+            lmlParser.setBundleBindings(previousBindings);
+        }
+    }
+
+    /** Removes bundle bindings of the destroyed view, releasing its actors. */
+    protected void clearBundleBindings() {
+        bundleBindings.clear();
+    }
+
+    /** Updates properties of the view that were parsed from bundle lines. Widgets are not recreated, so their state is
+     * kept.
+     *
+     * @param parser contains the current bundles. */
+    public void relocalize(final LmlParser parser) {
+        bundleBindings.relocalize(parser);
+    }
+
     /** Allows to specify a field holding reference to current managed {@link Stage}.
      *
      * @param field will have current stage injected upon created and null upon stage destruction. */
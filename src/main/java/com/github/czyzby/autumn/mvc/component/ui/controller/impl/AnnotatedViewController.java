@@ -7,6 +7,7 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
 import com.github.czyzby.autumn.mvc.component.asset.AssetService;
+import com.github.czyzby.autumn.mvc.component.asset.dto.AssetManifest;
 import com.github.czyzby.autumn.mvc.component.ui.InterfaceService;
 import com.github.czyzby.autumn.mvc.component.ui.controller.*;
 import com.github.czyzby.autumn.mvc.component.ui.dto.ThemesAssignmentAction;
@@ -27,6 +28,9 @@ public class AnnotatedViewController extends AbstractAnnotatedController impleme
     private final Array<Music> themes = GdxArrays.newArray();
     private final View viewData;
     private final String id;
+    private final AssetService assetService;
+    private AssetManifest assetManifest;
+    private boolean areAssetsRetained;
 
     private Stage stage;
     private int currentThemeIndex;
@@ -42,6 +46,7 @@ public class AnnotatedViewController extends AbstractAnnotatedController impleme
     public AnnotatedViewController(final View viewData, final Object wrappedObject, final AssetService assetService) {
         super(wrappedObject);
         this.viewData = viewData;
+        this.assetService = assetService;
 
         id = Strings.isWhitespace(viewData.id()) ? wrappedObject.getClass().getSimpleName() : viewData.id();
 
@@ -66,9 +71,10 @@ public class AnnotatedViewController extends AbstractAnnotatedController impleme
     @Override
     public void createView(final InterfaceService interfaceService) {
         initiate();
+        retainAssets();
         stage = new Stage(interfaceService.getViewportProvider().provide(), interfaceService.getBatch());
         injectStage(stage);
-        final Array<Actor> actors = interfaceService.getParser().createView(wrappedObject,
+        final Array<Actor> actors = parseView(interfaceService.getParser(),
                 Gdx.files.getFileHandle(viewData.value(), viewData.fileType()));
         LmlUtilities.appendActorsToStage(stage, actors);
         if (viewInitializer != null) {
@@ -79,6 +85,23 @@ public class AnnotatedViewController extends AbstractAnnotatedController impleme
         }
     }
 
+    /** Marks assets injected into the view component as used, reloading them if they were unloaded. */
+    private void retainAssets() {
+        final AssetManifest componentAssets = assetService.getAssetManifest(wrappedObject.getClass());
+        if (componentAssets != null && !areAssetsRetained) {
+            areAssetsRetained = true;
+            assetService.retain(componentAssets);
+        }
+    }
+
+    /** Marks assets injected into the view component as no longer used by the view. */
+    private void releaseAssets() {
+        if (areAssetsRetained) {
+            areAssetsRetained = false;
+            assetService.release(assetService.getAssetManifest(wrappedObject.getClass()));
+        }
+    }
+
     private ViewRenderer createRenderer() {
         if (ViewRenderer.class.equals(viewData.renderer())) {
             if (wrappedObject instanceof ViewRenderer) {
@@ -220,6 +243,27 @@ public class AnnotatedViewController extends AbstractAnnotatedController impleme
         }
         stage = null;
         clearStage();
+        clearBundleBindings();
+        releaseAssets();
+    }
+
+    /** @return IDs of views likely to be shown after this view.
+     * @see View#next() */
+    public String[] getNextViewIds() {
+        return viewData.next();
+    }
+
+    /** @return assets injected into the fields of the view component and its music themes. Assets are collected once,
+     *         after the first call. */
+    public AssetManifest getAssetManifest() {
+        if (assetManifest == null) {
+            assetManifest = new AssetManifest();
+            assetManifest.addAll(assetService.getAssetManifest(wrappedObject.getClass()));
+            for (final String theme : viewData.themes()) {
+                assetManifest.add(theme, Music.class);
+            }
+        }
+        return assetManifest;
     }
 
     @Override
@@ -6,6 +6,8 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
+import com.github.czyzby.autumn.mvc.component.asset.AssetService;
+import com.github.czyzby.autumn.mvc.component.asset.dto.AssetManifest;
 import com.github.czyzby.autumn.mvc.component.ui.InterfaceService;
 import com.github.czyzby.autumn.mvc.component.ui.controller.ViewDialogController;
 import com.github.czyzby.autumn.mvc.component.ui.controller.ViewDialogShower;
@@ -25,14 +27,27 @@ public class AnnotatedViewDialogController extends AbstractAnnotatedController i
     private final ViewDialogShower shower;
     private final ActionContainer actionContainer;
     private final String id;
+    private final AssetService assetService;
 
     private Window dialog;
+    private boolean areAssetsRetained;
 
     public AnnotatedViewDialogController(final ViewDialog dialogData, final Object wrappedObject,
             final InterfaceService interfaceService) {
+        this(dialogData, wrappedObject, interfaceService, null);
+    }
+
+    /** @param dialogData annotation of the dialog component.
+     * @param wrappedObject dialog component.
+     * @param interfaceService manages views.
+     * @param assetService if not null, assets injected into the dialog component will be retained while the dialog
+     *            instance exists. */
+    public AnnotatedViewDialogController(final ViewDialog dialogData, final Object wrappedObject,
+            final InterfaceService interfaceService, final AssetService assetService) {
         super(wrappedObject);
         this.dialogData = dialogData;
         this.interfaceService = interfaceService;
+        this.assetService = assetService;
 
         shower = wrappedObject instanceof ViewDialogShower ? (ViewDialogShower) wrappedObject : null;
         actionContainer = wrappedObject instanceof ActionContainer ? (ActionContainer) wrappedObject : null;
@@ -82,11 +97,12 @@ public class AnnotatedViewDialogController extends AbstractAnnotatedController i
 
     /** Creates instance of the managed dialog actor. */
     public void prepareDialogInstance() {
+        retainAssets();
         final LmlParser parser = interfaceService.getParser();
         if (actionContainer != null) {
             parser.getData().addActionContainer(getId(), actionContainer);
         }
-        dialog = (Window) parser.createView(wrappedObject, Gdx.files.internal(dialogData.value())).first();
+        dialog = (Window) parseView(parser, Gdx.files.internal(dialogData.value())).first();
         if (actionContainer != null) {
             parser.getData().removeActionContainer(getId());
         }
@@ -106,6 +122,28 @@ public class AnnotatedViewDialogController extends AbstractAnnotatedController i
             }
             dialog = null;
         }
+        clearBundleBindings();
+        releaseAssets();
+    }
+
+    /** Marks assets injected into the dialog component as used, reloading them if they were unloaded. */
+    private void retainAssets() {
+        if (assetService == null || areAssetsRetained) {
+            return;
+        }
+        final AssetManifest componentAssets = assetService.getAssetManifest(wrappedObject.getClass());
+        if (componentAssets != null) {
+            areAssetsRetained = true;
+            assetService.retain(componentAssets);
+        }
+    }
+
+    /** Marks assets injected into the dialog component as no longer used by the dialog. */
+    private void releaseAssets() {
+        if (areAssetsRetained) {
+            areAssetsRetained = false;
+            assetService.release(assetService.getAssetManifest(wrappedObject.getClass()));
+        }
     }
 
     @Override
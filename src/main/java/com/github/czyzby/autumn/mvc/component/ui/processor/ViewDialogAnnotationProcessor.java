@@ -4,6 +4,7 @@ import com.github.czyzby.autumn.annotation.Inject;
 import com.github.czyzby.autumn.context.Context;
 import com.github.czyzby.autumn.context.ContextDestroyer;
 import com.github.czyzby.autumn.context.ContextInitializer;
+import com.github.czyzby.autumn.mvc.component.asset.AssetService;
 import com.github.czyzby.autumn.mvc.component.ui.InterfaceService;
 import com.github.czyzby.autumn.mvc.component.ui.controller.ViewDialogController;
 import com.github.czyzby.autumn.mvc.component.ui.controller.impl.AnnotatedViewDialogController;
@@ -15,6 +16,7 @@ import com.github.czyzby.autumn.processor.AbstractAnnotationProcessor;
  * @author MJ */
 public class ViewDialogAnnotationProcessor extends AbstractAnnotationProcessor<ViewDialog> {
     @Inject private InterfaceService interfaceService;
+    @Inject private AssetService assetService;
 
     @Override
     public Class<ViewDialog> getSupportedAnnotationType() {
@@ -33,7 +35,7 @@ public class ViewDialogAnnotationProcessor extends AbstractAnnotationProcessor<V
             interfaceService.registerDialogController(type, (ViewDialogController) component);
         } else {
             interfaceService.registerDialogController(type,
-                    new AnnotatedViewDialogController(annotation, component, interfaceService));
+                    new AnnotatedViewDialogController(annotation, component, interfaceService, assetService));
         }
     }
 }
@@ -69,6 +69,14 @@ public @interface View {
      *         transitions from within views. */
     String id() default "default";
 
+    /** @return IDs of views that are likely to be shown after this one. As soon as this view is shown, assets of these
+     *         views (see {@link com.github.czyzby.autumn.mvc.component.asset.AssetService#getAssetManifest(Class)})
+     *         are loaded in the background by the
+     *         {@link com.github.czyzby.autumn.mvc.component.ui.InterfaceService}, so showing them does not have to wait
+     *         for their assets. Each ID has to match a registered view - IDs are validated before the first view is
+     *         shown. Defaults to an empty array. */
+    String[] next() default {};
+
     /** @return list of paths to music files played while the screen is shown. By default, themes are chosen at random;
      *         if there are multiple themes, there is no possibility of one theme played twice in a row. Ordering can be
      *         changed with {@link View#themeOrdering()}. When view is changed to another, current theme: a) slowly
@@ -0,0 +1,31 @@
+package com.github.czyzby.autumn.nongwt.context;
+
+import com.github.czyzby.autumn.context.ComponentConstructionExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+/** Invokes component constructors using an {@link ExecutorService}. Not available on GWT.
+ *
+ * @author MJ */
+public class ConcurrentComponentConstructionExecutor extends ConcurrentContextTaskExecutor
+        implements ComponentConstructionExecutor {
+    /** Creates a new executor using the common fork-join pool. */
+    public ConcurrentComponentConstructionExecutor() {
+        super();
+    }
+
+    /** @param executor will invoke the constructors. Is not shut down by this object. */
+    public ConcurrentComponentConstructionExecutor(final ExecutorService executor) {
+        super(executor);
+    }
+
+    @Override
+    protected String getFailureMessage() {
+        return "Unable to construct component.";
+    }
+
+    @Override
+    protected String getInterruptionMessage() {
+        return "Interrupted during components construction.";
+    }
+}
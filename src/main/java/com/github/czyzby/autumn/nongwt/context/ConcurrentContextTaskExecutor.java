@@ -0,0 +1,81 @@
+package com.github.czyzby.autumn.nongwt.context;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.autumn.context.ContextTaskExecutor;
+import com.github.czyzby.autumn.context.error.ContextInitiationException;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/** Invokes context initiation tasks using an {@link ExecutorService}. Not available on GWT.
+ *
+ * @author MJ */
+public class ConcurrentContextTaskExecutor implements ContextTaskExecutor {
+    private final ExecutorService executor;
+
+    /** Creates a new executor using the common fork-join pool. */
+    public ConcurrentContextTaskExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /** @param executor will invoke the tasks. Is not shut down by this object. */
+    public ConcurrentContextTaskExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Waits for all tasks, even if some of them fail, so no task is still running when this method returns. The first
+     * encountered failure is rethrown afterwards. */
+    @Override
+    public void invokeAll(final Array<Runnable> tasks) {
+        final Array<Future<?>> results = GdxArrays.newArray(tasks.size);
+        for (final Runnable task : tasks) {
+            results.add(executor.submit(task));
+        }
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (final Future<?> result : results) {
+            while (true) {
+                try {
+                    result.get();
+                    break;
+                } catch (final ExecutionException exception) {
+                    if (failure == null) {
+                        failure = exception.getCause();
+                    }
+                    break;
+                } catch (final InterruptedException exception) {
+                    // Tasks cannot be abandoned: waiting for the result again and restoring the flag afterwards.
+                    if (!interrupted) {
+                        interrupted = true;
+                        if (failure == null) {
+                            failure = exception;
+                        }
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof InterruptedException) {
+            throw new ContextInitiationException(getInterruptionMessage(), failure);
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new ContextInitiationException(getFailureMessage(), failure);
+        }
+    }
+
+    /** @return message of the exception thrown when a task throws a checked exception. */
+    protected String getFailureMessage() {
+        return "Unable to execute context initiation task.";
+    }
+
+    /** @return message of the exception thrown when the thread is interrupted while waiting for the tasks. */
+    protected String getInterruptionMessage() {
+        return "Interrupted during context initiation.";
+    }
+}
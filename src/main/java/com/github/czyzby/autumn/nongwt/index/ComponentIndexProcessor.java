@@ -0,0 +1,129 @@
+package com.github.czyzby.autumn.nongwt.index;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/** Compile-time annotation processor that writes a component index: a resource mapping each annotated class to the
+ * binary names of its class-level annotations. The index is consumed by
+ * {@link com.github.czyzby.autumn.nongwt.scanner.IndexedClassScanner}, which does not have to walk the class path at
+ * runtime. Meta-annotations are not resolved - the scanner matches annotations exactly, just like the other Autumn
+ * scanners.
+ *
+ * <p>
+ * Note that the index contains only classes processed by the compiler during the current compilation: incremental
+ * compilation might produce an incomplete index, so a full rebuild is advised before packaging. Classes that are not
+ * compiled by javac (for example, Kotlin sources not processed by kapt) will not be indexed.
+ *
+ * <p>
+ * The processor is not registered as a service, so it is not picked up automatically by compilers that have this
+ * library on their class path. It has to be enabled explicitly in the project that should be indexed - for example,
+ * with javac's {@code -processor} option, or by adding a module containing the processor and its service registration
+ * to the {@code annotationProcessor} (or {@code kapt}) Gradle configuration.
+ *
+ * @author MJ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+    /** Path to the component index resource. */
+    public static final String INDEX_FILE = "META-INF/autumn/components.idx";
+    /** Separates class name from its annotations. */
+    public static final char CLASS_SEPARATOR = '=';
+    /** Separates annotation names. */
+    public static final char ANNOTATION_SEPARATOR = ',';
+    /** Lines starting with this character are ignored. */
+    public static final char COMMENT_MARKER = '#';
+
+    /** Binary class names mapped to binary names of their annotations. Sorted to keep the index reproducible. */
+    private final Map<String, Set<String>> components = new TreeMap<String, Set<String>>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+        if (roundEnvironment.processingOver()) {
+            writeIndex();
+        } else {
+            for (final Element element : roundEnvironment.getRootElements()) {
+                processElement(element);
+            }
+        }
+        return false; // Annotations are not claimed - other processors might still handle them.
+    }
+
+    private void processElement(final Element element) {
+        if (isType(element)) {
+            final Elements elements = processingEnv.getElementUtils();
+            if (!element.getAnnotationMirrors().isEmpty()) {
+                final Set<String> annotationNames = new TreeSet<String>();
+                for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                    annotationNames.add(elements
+                            .getBinaryName((TypeElement) annotation.getAnnotationType().asElement()).toString());
+                }
+                components.put(elements.getBinaryName((TypeElement) element).toString(), annotationNames);
+            }
+        }
+        for (final Element enclosedElement : element.getEnclosedElements()) {
+            if (isType(enclosedElement)) { // Nested classes.
+                processElement(enclosedElement);
+            }
+        }
+    }
+
+    private static boolean isType(final Element element) {
+        final ElementKind kind = element.getKind();
+        return kind == ElementKind.CLASS || kind == ElementKind.INTERFACE || kind == ElementKind.ENUM
+                || kind == ElementKind.ANNOTATION_TYPE;
+    }
+
+    private void writeIndex() {
+        if (components.isEmpty()) {
+            return;
+        }
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_FILE);
+            final Writer writer = index.openWriter();
+            try {
+                writer.write(COMMENT_MARKER + " Generated by " + getClass().getName() + ". Do not edit.\n");
+                for (final Entry<String, Set<String>> component : components.entrySet()) {
+                    writer.write(component.getKey());
+                    writer.write(CLASS_SEPARATOR);
+                    boolean first = true;
+                    for (final String annotation : component.getValue()) {
+                        if (!first) {
+                            writer.write(ANNOTATION_SEPARATOR);
+                        }
+                        writer.write(annotation);
+                        first = false;
+                    }
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException exception) {
+            processingEnv.getMessager().printMessage(Kind.WARNING,
+                    "Unable to write Autumn component index: " + exception.getMessage());
+        }
+    }
+}
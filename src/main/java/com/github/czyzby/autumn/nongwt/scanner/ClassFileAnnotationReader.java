@@ -0,0 +1,207 @@
+package com.github.czyzby.autumn.nongwt.scanner;
+
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Reads class-level annotations straight from the class file, without loading the class. Parses the constant pool and
+ * skips fields and methods until class attributes are reached; only runtime-visible annotations are checked, as other
+ * annotations would not be available through reflection anyway. Instances are stateless and thread-safe.
+ *
+ * @author MJ */
+public class ClassFileAnnotationReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String ANNOTATIONS_ATTRIBUTE = "RuntimeVisibleAnnotations";
+    private static final int BUFFER_SIZE = 4096;
+
+    /* Constant pool tags. */
+    private static final int UTF8 = 1, INTEGER = 3, FLOAT = 4, LONG = 5, DOUBLE = 6, CLASS = 7, STRING = 8,
+            FIELD_REF = 9, METHOD_REF = 10, INTERFACE_METHOD_REF = 11, NAME_AND_TYPE = 12, METHOD_HANDLE = 15,
+            METHOD_TYPE = 16, DYNAMIC = 17, INVOKE_DYNAMIC = 18, MODULE = 19, PACKAGE = 20;
+
+    /** @param annotation will be converted.
+     * @return type descriptor of the annotation, as stored in class files. For example,
+     *         "Lcom/github/czyzby/autumn/annotation/Component;". */
+    public static String toDescriptor(final Class<?> annotation) {
+        return 'L' + annotation.getName().replace('.', '/') + ';';
+    }
+
+    /** @param input will be fully read. Not closed.
+     * @return content of the stream.
+     * @throws IOException if unable to read the stream. */
+    public static byte[] readFully(final InputStream input) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = 0;
+        for (int read = input.read(buffer); read >= 0; read = input.read(buffer, length, buffer.length - length)) {
+            length += read;
+            if (length == buffer.length) {
+                final byte[] resized = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, resized, 0, length);
+                buffer = resized;
+            }
+        }
+        if (length == buffer.length) {
+            return buffer;
+        }
+        final byte[] content = new byte[length];
+        System.arraycopy(buffer, 0, content, 0, length);
+        return content;
+    }
+
+    /** @param classFile content of a class file.
+     * @param annotationDescriptors type descriptors of annotations. See {@link #toDescriptor(Class)}.
+     * @return true if the class is annotated with any of the annotations.
+     * @throws IOException if the class file is invalid. */
+    public boolean isAnnotatedWithAny(final byte[] classFile, final ObjectSet<String> annotationDescriptors)
+            throws IOException {
+        if (readInt(classFile, 0) != MAGIC) {
+            throw new IOException("Not a class file.");
+        }
+        // Magic (4 bytes), minor and major version (2 + 2 bytes).
+        final int constantPoolSize = readUnsignedShort(classFile, 8);
+        final int[] offsets = new int[constantPoolSize]; // Offsets of constant pool entries, after their tags.
+        int position = 10;
+        for (int index = 1; index < constantPoolSize; index++) {
+            final int tag = classFile[position++];
+            offsets[index] = position;
+            switch (tag) {
+                case UTF8:
+                    position += 2 + readUnsignedShort(classFile, position);
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    position += 4;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    position += 8;
+                    index++; // Long and double entries take two slots.
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    position += 2;
+                    break;
+                case METHOD_HANDLE:
+                    position += 3;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+        // Access flags, this class, super class (2 + 2 + 2 bytes).
+        position += 6;
+        position += 2 + readUnsignedShort(classFile, position) * 2; // Interfaces.
+        position = skipMembers(classFile, position); // Fields.
+        position = skipMembers(classFile, position); // Methods.
+        final int attributesCount = readUnsignedShort(classFile, position);
+        position += 2;
+        for (int attributeIndex = 0; attributeIndex < attributesCount; attributeIndex++) {
+            final int nameIndex = readUnsignedShort(classFile, position);
+            final int length = readInt(classFile, position + 2);
+            position += 6;
+            if (ANNOTATIONS_ATTRIBUTE.equals(readUtf(classFile, offsets[nameIndex]))) {
+                return containsAny(classFile, position, offsets, annotationDescriptors);
+            }
+            position += length;
+        }
+        return false;
+    }
+
+    private static boolean containsAny(final byte[] classFile, int position, final int[] offsets,
+            final ObjectSet<String> annotationDescriptors) throws IOException {
+        final int annotationsCount = readUnsignedShort(classFile, position);
+        position += 2;
+        for (int annotationIndex = 0; annotationIndex < annotationsCount; annotationIndex++) {
+            final int typeIndex = readUnsignedShort(classFile, position);
+            if (annotationDescriptors.contains(readUtf(classFile, offsets[typeIndex]))) {
+                return true;
+            }
+            position = skipAnnotation(classFile, position);
+        }
+        return false;
+    }
+
+    /** @return position after the fields or methods table. */
+    private static int skipMembers(final byte[] classFile, int position) {
+        final int membersCount = readUnsignedShort(classFile, position);
+        position += 2;
+        for (int memberIndex = 0; memberIndex < membersCount; memberIndex++) {
+            // Access flags, name and descriptor (2 + 2 + 2 bytes).
+            position += 6;
+            final int attributesCount = readUnsignedShort(classFile, position);
+            position += 2;
+            for (int attributeIndex = 0; attributeIndex < attributesCount; attributeIndex++) {
+                position += 6 + readInt(classFile, position + 2);
+            }
+        }
+        return position;
+    }
+
+    /** @return position after the annotation structure. */
+    private static int skipAnnotation(final byte[] classFile, int position) throws IOException {
+        final int pairsCount = readUnsignedShort(classFile, position + 2);
+        position += 4;
+        for (int pairIndex = 0; pairIndex < pairsCount; pairIndex++) {
+            position = skipElementValue(classFile, position + 2);
+        }
+        return position;
+    }
+
+    /** @return position after the element value structure. */
+    private static int skipElementValue(final byte[] classFile, int position) throws IOException {
+        final char tag = (char) classFile[position++];
+        switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+            case 'c':
+                return position + 2;
+            case 'e':
+                return position + 4;
+            case '@':
+                return skipAnnotation(classFile, position);
+            case '[':
+                final int valuesCount = readUnsignedShort(classFile, position);
+                position += 2;
+                for (int valueIndex = 0; valueIndex < valuesCount; valueIndex++) {
+                    position = skipElementValue(classFile, position);
+                }
+                return position;
+            default:
+                throw new IOException("Unknown annotation element tag: " + tag);
+        }
+    }
+
+    private static String readUtf(final byte[] classFile, final int offset) throws IOException {
+        // Class files use modified UTF-8 - the same encoding as DataInput.
+        return new DataInputStream(
+                new ByteArrayInputStream(classFile, offset, 2 + readUnsignedShort(classFile, offset))).readUTF();
+    }
+
+    private static int readUnsignedShort(final byte[] classFile, final int offset) {
+        return (classFile[offset] & 0xFF) << 8 | classFile[offset + 1] & 0xFF;
+    }
+
+    private static int readInt(final byte[] classFile, final int offset) {
+        return (classFile[offset] & 0xFF) << 24 | (classFile[offset + 1] & 0xFF) << 16
+                | (classFile[offset + 2] & 0xFF) << 8 | classFile[offset + 3] & 0xFF;
+    }
+}
@@ -2,28 +2,34 @@ package com.github.czyzby.autumn.nongwt.scanner;
 
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
-import com.badlogic.gdx.utils.reflect.ClassReflection;
-import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.github.czyzby.autumn.scanner.ClassScanner;
 import com.github.czyzby.kiwi.util.common.Exceptions;
 import com.github.czyzby.kiwi.util.common.Strings;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
-import com.github.czyzby.kiwi.util.tuple.immutable.Pair;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Enumeration;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 /** Tries to scan class path resources if running from binaries (IDE), or .jar files otherwise. Has no external
  * dependencies. Will not work on GWT (is not available there) or mobile platforms.
  *
+ * <p>
+ * Annotations are read straight from the class files with {@link ClassFileAnnotationReader}, so only the matching
+ * classes are loaded (and statically initialized). Directory trees and jar entries are processed in parallel using a
+ * {@link ForkJoinPool}; classes themselves are loaded on the scanning thread.
+ *
  * @author MJ */
 public class FallbackDesktopClassScanner implements ClassScanner {
     private static final char DOT_SEPARATOR = '.';
@@ -31,6 +37,21 @@ public class FallbackDesktopClassScanner implements ClassScanner {
 
     private static final String CLASS_FILE_EXTENSION = ".class";
     private static final String JAR_FILE_EXTENSION = ".jar";
+    /** Jar entries are split into chunks of this size before being processed in parallel. */
+    private static final int JAR_ENTRIES_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+    private final ClassFileAnnotationReader reader = new ClassFileAnnotationReader();
+
+    /** Creates a new scanner using the common fork-join pool. */
+    public FallbackDesktopClassScanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /** @param pool will be used to process class files in parallel. */
+    public FallbackDesktopClassScanner(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     @Override
     public Array<Class<?>> findClassesAnnotatedWith(final Class<?> root,
@@ -39,44 +60,37 @@ public class FallbackDesktopClassScanner implements ClassScanner {
         final String classPathRoot = getClassPathRoot(mainPackageName);
         final ClassLoader classLoader = root.getClassLoader() == null ? ClassLoader.getSystemClassLoader()
                 : root.getClassLoader();
+        final ObjectSet<String> annotationDescriptors = GdxSets.newSet();
+        for (final Class<? extends Annotation> annotation : annotations) {
+            annotationDescriptors.add(ClassFileAnnotationReader.toDescriptor(annotation));
+        }
         try {
             final Enumeration<URL> resources = classLoader.getResources(classPathRoot);
-            final Queue<Pair<File, Integer>> filesWithDepthsToProcess = new LinkedList<Pair<File, Integer>>();
+            final Array<File> directories = GdxArrays.newArray();
             while (resources.hasMoreElements()) {
                 try {
-                    filesWithDepthsToProcess.add(Pair.of(toFile(resources.nextElement()), 0));
+                    directories.add(toFile(resources.nextElement()));
                 } catch (final Exception uriSyntaxException) {
                     Exceptions.ignore(uriSyntaxException); // Will throw an exception for non-hierarchical files.
                 }
             }
-            if (filesWithDepthsToProcess.isEmpty()) {
-                return extractFromJar(annotations, classPathRoot, classLoader);
+            final Array<String> classNames;
+            if (directories.size == 0) {
+                classNames = extractFromJar(annotationDescriptors, classPathRoot);
+            } else {
+                classNames = extractFromBinaries(annotationDescriptors, mainPackageName, directories);
             }
-
-            return extractFromBinaries(annotations, mainPackageName, filesWithDepthsToProcess);
+            return loadClasses(classNames, classLoader);
         } catch (final Throwable exception) {
             throw new GdxRuntimeException("Unable to scan classpath.", exception);
         }
     }
 
-    private static Array<Class<?>> extractFromBinaries(final Iterable<Class<? extends Annotation>> annotations,
-            final String mainPackageName, final Queue<Pair<File, Integer>> filesWithDepthsToProcess)
-                    throws ReflectionException {
-        final Array<Class<?>> result = GdxArrays.newArray();
-        while (!filesWithDepthsToProcess.isEmpty()) {
-            final Pair<File, Integer> classPathFileWithDepth = filesWithDepthsToProcess.poll();
-            final File classPathFile = classPathFileWithDepth.getFirst();
-            final int depth = classPathFileWithDepth.getSecond();
-            if (classPathFile.isDirectory()) {
-                addAllChildren(filesWithDepthsToProcess, classPathFile, depth);
-            } else {
-                final String className = getBinaryClassName(mainPackageName, classPathFile, depth);
-                if (!isFromPackage(mainPackageName, className)) {
-                    continue;
-                }
-                final Class<?> classToProcess = ClassReflection.forName(className);
-                processClass(annotations, result, classToProcess);
-            }
+    private Array<String> extractFromBinaries(final ObjectSet<String> annotationDescriptors,
+            final String mainPackageName, final Array<File> directories) {
+        final Array<String> result = GdxArrays.newArray(String.class);
+        for (final File directory : directories) {
+            result.addAll(pool.invoke(new DirectoryScanningTask(directory, mainPackageName, annotationDescriptors)));
         }
         return result;
     }
@@ -89,42 +103,28 @@ public class FallbackDesktopClassScanner implements ClassScanner {
         return new File(url.toURI()).getAbsoluteFile();
     }
 
-    private static void addAllChildren(final Queue<Pair<File, Integer>> rootFiles, final File classPathFile,
-            int depth) {
-        depth++;
-        for (final File file : classPathFile.listFiles()) {
-            if (file.isDirectory() || file.getName().endsWith(CLASS_FILE_EXTENSION)) {
-                rootFiles.add(Pair.of(file, depth));
-            }
-        }
-    }
-
-    private static String getBinaryClassName(final String mainPackageName, final File classPathFile, final int depth) {
-        final String[] classFolders = classPathFile.getPath().split(File.separator);
-        final StringBuilder builder = new StringBuilder(mainPackageName);
-        for (int folderIndex = classFolders.length - depth; folderIndex < classFolders.length - 1; folderIndex++) {
-            builder.append(DOT_SEPARATOR).append(classFolders[folderIndex]);
-        }
-        final String classFileName = classFolders[classFolders.length - 1];
-        builder.append(DOT_SEPARATOR)
-                .append(classFileName.substring(0, classFileName.length() - CLASS_FILE_EXTENSION.length()));
-        return builder.toString();
-    }
-
     private static String getClassPathRoot(final String mainPackageName) {
         return mainPackageName.replace(DOT_SEPARATOR, FILE_SEPARATOR);
     }
 
-    private static Array<Class<?>> extractFromJar(final Iterable<Class<? extends Annotation>> annotations,
-            final String classPathRoot, final ClassLoader classLoader)
-                    throws URISyntaxException, IOException, ReflectionException {
+    private Array<String> extractFromJar(final ObjectSet<String> annotationDescriptors, final String classPathRoot)
+            throws URISyntaxException, IOException {
         final Array<JarFile> filesToProcess = getJarFilesToProcess();
-        final Array<Class<?>> result = GdxArrays.newArray();
+        final Array<String> result = GdxArrays.newArray(String.class);
         for (final JarFile jarFile : filesToProcess) {
-            final Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                final JarEntry entry = entries.nextElement();
-                processEntry(annotations, classPathRoot, result, entry);
+            try {
+                final Array<JarEntry> entries = GdxArrays.newArray(JarEntry.class);
+                final Enumeration<JarEntry> jarEntries = jarFile.entries();
+                while (jarEntries.hasMoreElements()) {
+                    final JarEntry entry = jarEntries.nextElement();
+                    if (isClassFromPackage(classPathRoot, entry)) {
+                        entries.add(entry);
+                    }
+                }
+                result.addAll(pool
+                        .invoke(new JarScanningTask(jarFile, entries, 0, entries.size, annotationDescriptors)));
+            } finally {
+                jarFile.close();
             }
         }
         return result;
@@ -141,30 +141,159 @@ public class FallbackDesktopClassScanner implements ClassScanner {
         return filesToProcess;
     }
 
-    private static void processEntry(final Iterable<Class<? extends Annotation>> annotations,
-            final String classPathRoot, final Array<Class<?>> result, final JarEntry entry) throws ReflectionException {
-        if (!entry.isDirectory()) {
-            final String entryName = entry.getName();
-            if (isFromPackage(classPathRoot, entryName) && entryName.endsWith(CLASS_FILE_EXTENSION)) {
-                final String className = jarEntryToClassName(entryName);
-                final Class<?> classToProcess = ClassReflection.forName(className);
-                processClass(annotations, result, classToProcess);
-            }
+    private static boolean isClassFromPackage(final String classPathRoot, final JarEntry entry) {
+        if (entry.isDirectory()) {
+            return false;
         }
+        final String entryName = entry.getName();
+        return isFromPackage(classPathRoot, entryName) && entryName.endsWith(CLASS_FILE_EXTENSION);
     }
 
-    private static void processClass(final Iterable<Class<? extends Annotation>> annotations,
-            final Array<Class<?>> result, final Class<?> classToProcess) {
-        for (final Class<? extends Annotation> annotation : annotations) {
-            if (ClassReflection.isAnnotationPresent(classToProcess, annotation)) {
-                result.add(classToProcess);
-                return;
+    private static String jarEntryToClassName(final String entryName) {
+        return entryName.substring(0, entryName.length() - CLASS_FILE_EXTENSION.length()).replace(FILE_SEPARATOR,
+                DOT_SEPARATOR);
+    }
+
+    /** @param classNames names of annotated classes found by the scanning tasks.
+     * @param classLoader will be used to load the classes.
+     * @return loaded classes. Loaded on the current thread, as static initializers of the components might depend on
+     *         it.
+     * @throws ClassNotFoundException if unable to load a class. */
+    private static Array<Class<?>> loadClasses(final Array<String> classNames, final ClassLoader classLoader)
+            throws ClassNotFoundException {
+        final Array<Class<?>> result = GdxArrays.newArray(classNames.size);
+        for (final String className : classNames) {
+            result.add(Class.forName(className, true, classLoader));
+        }
+        return result;
+    }
+
+    /** @param classFile content of the class file.
+     * @param name name of the class file. Used for error messages.
+     * @param annotationDescriptors descriptors of the annotations.
+     * @return true if the class is annotated with any of the annotations. */
+    private boolean isAnnotated(final byte[] classFile, final String name,
+            final ObjectSet<String> annotationDescriptors) {
+        try {
+            return reader.isAnnotatedWithAny(classFile, annotationDescriptors);
+        } catch (final Exception exception) {
+            throw new GdxRuntimeException("Unable to read class file: " + name, exception);
+        }
+    }
+
+    /** Scans a directory with class files. Forks a new task for each subdirectory.
+     *
+     * @author MJ */
+    private class DirectoryScanningTask extends RecursiveTask<Array<String>> {
+        private static final long serialVersionUID = 1L;
+        private final File directory;
+        private final String packageName;
+        private final ObjectSet<String> annotationDescriptors;
+
+        DirectoryScanningTask(final File directory, final String packageName,
+                final ObjectSet<String> annotationDescriptors) {
+            this.directory = directory;
+            this.packageName = packageName;
+            this.annotationDescriptors = annotationDescriptors;
+        }
+
+        @Override
+        protected Array<String> compute() {
+            final Array<String> result = GdxArrays.newArray(String.class);
+            final Array<DirectoryScanningTask> subtasks = GdxArrays.newArray();
+            final File[] files = directory.listFiles();
+            if (files == null) {
+                return result;
+            }
+            for (final File file : files) {
+                final String fileName = file.getName();
+                if (file.isDirectory()) {
+                    final DirectoryScanningTask subtask = new DirectoryScanningTask(file,
+                            packageName + DOT_SEPARATOR + fileName, annotationDescriptors);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else if (fileName.endsWith(CLASS_FILE_EXTENSION) && !Strings.contains(fileName, '-')) {
+                    // Skipping package-info and module-info.
+                    processClassFile(file, fileName, result);
+                }
+            }
+            for (final DirectoryScanningTask subtask : subtasks) {
+                result.addAll(subtask.join());
+            }
+            return result;
+        }
+
+        private void processClassFile(final File file, final String fileName, final Array<String> result) {
+            final byte[] classFile;
+            try {
+                final InputStream input = new FileInputStream(file);
+                try {
+                    classFile = ClassFileAnnotationReader.readFully(input);
+                } finally {
+                    input.close();
+                }
+            } catch (final IOException exception) {
+                throw new GdxRuntimeException("Unable to read class file: " + file, exception);
+            }
+            if (isAnnotated(classFile, file.getPath(), annotationDescriptors)) {
+                result.add(packageName + DOT_SEPARATOR
+                        + fileName.substring(0, fileName.length() - CLASS_FILE_EXTENSION.length()));
             }
         }
     }
 
-    private static String jarEntryToClassName(final String entryName) {
-        return entryName.substring(0, entryName.length() - CLASS_FILE_EXTENSION.length()).replace(FILE_SEPARATOR,
-                DOT_SEPARATOR);
+    /** Scans a range of jar entries. Splits the range if it is too big.
+     *
+     * @author MJ */
+    private class JarScanningTask extends RecursiveTask<Array<String>> {
+        private static final long serialVersionUID = 1L;
+        private final JarFile jarFile;
+        private final Array<JarEntry> entries;
+        private final int start, end;
+        private final ObjectSet<String> annotationDescriptors;
+
+        JarScanningTask(final JarFile jarFile, final Array<JarEntry> entries, final int start, final int end,
+                final ObjectSet<String> annotationDescriptors) {
+            this.jarFile = jarFile;
+            this.entries = entries;
+            this.start = start;
+            this.end = end;
+            this.annotationDescriptors = annotationDescriptors;
+        }
+
+        @Override
+        protected Array<String> compute() {
+            if (end - start > JAR_ENTRIES_PER_TASK) {
+                final int middle = (start + end) >>> 1;
+                final JarScanningTask left = new JarScanningTask(jarFile, entries, start, middle,
+                        annotationDescriptors);
+                left.fork();
+                final Array<String> result = new JarScanningTask(jarFile, entries, middle, end, annotationDescriptors)
+                        .compute();
+                result.addAll(left.join());
+                return result;
+            }
+            final Array<String> result = GdxArrays.newArray(String.class);
+            for (int index = start; index < end; index++) {
+                final JarEntry entry = entries.get(index);
+                if (isAnnotated(readEntry(entry), entry.getName(), annotationDescriptors)) {
+                    result.add(jarEntryToClassName(entry.getName()));
+                }
+            }
+            return result;
+        }
+
+        private byte[] readEntry(final JarEntry entry) {
+            try {
+                final InputStream input = jarFile.getInputStream(entry);
+                try {
+                    return ClassFileAnnotationReader.readFully(input);
+                } finally {
+                    input.close();
+                }
+            } catch (final IOException exception) {
+                throw new GdxRuntimeException("Unable to read jar entry: " + entry.getName(), exception);
+            }
+        }
     }
 }
@@ -0,0 +1,197 @@
+package com.github.czyzby.autumn.nongwt.scanner;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectMap.Entry;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.github.czyzby.autumn.AutumnRoot;
+import com.github.czyzby.autumn.nongwt.index.ComponentIndexProcessor;
+import com.github.czyzby.autumn.scanner.ClassScanner;
+import com.github.czyzby.autumn.scanner.SinglePassClassScanner;
+import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Enumeration;
+
+/** Uses the component index generated at compile time by {@link ComponentIndexProcessor} instead of scanning the class
+ * path. Index files are read once per scanner instance, so consecutive scans (for example, meta-components and regular
+ * components scanning performed by the context initializer) do not have to read the resources again. Scanning time
+ * depends on the amount of indexed components rather than the size of the class path.
+ *
+ * <p>
+ * If no index is available on the class path, scanning is delegated to the fallback scanner. Note that the index
+ * covers only the classes compiled with {@link ComponentIndexProcessor} - if some components are compiled without the
+ * processor (for example, Kotlin classes without kapt), use a regular class scanner instead.
+ *
+ * @author MJ */
+public class IndexedClassScanner implements SinglePassClassScanner {
+    private final ClassScanner fallbackScanner;
+    /** Binary names of indexed classes mapped to binary names of their annotations. Loaded lazily. */
+    private ObjectMap<String, String[]> index;
+
+    /** Creates a new scanner that uses {@link FallbackDesktopClassScanner} if the index is missing. */
+    public IndexedClassScanner() {
+        this(new FallbackDesktopClassScanner());
+    }
+
+    /** @param fallbackScanner will be used if the component index is not available. */
+    public IndexedClassScanner(final ClassScanner fallbackScanner) {
+        this.fallbackScanner = fallbackScanner;
+    }
+
+    @Override
+    public Array<Class<?>> findClassesAnnotatedWith(final Class<?> root,
+            final Iterable<Class<? extends Annotation>> annotations) {
+        final ClassLoader classLoader = root.getClassLoader() == null ? ClassLoader.getSystemClassLoader()
+                : root.getClassLoader();
+        final ObjectMap<String, String[]> index = getIndex(classLoader);
+        if (index.size == 0) {
+            return fallbackScanner.findClassesAnnotatedWith(root, annotations);
+        }
+        final ObjectSet<String> annotationNames = GdxSets.newSet();
+        for (final Class<? extends Annotation> annotation : annotations) {
+            annotationNames.add(annotation.getName());
+        }
+        final String rootPackage = getPackageName(root);
+        final String autumnPackage = AutumnRoot.class.getPackage().getName();
+        final Array<Class<?>> result = GdxArrays.newArray();
+        for (final Entry<String, String[]> component : index) {
+            if ((isInPackage(component.key, rootPackage) || isInPackage(component.key, autumnPackage))
+                    && isAnnotatedWithAny(component.value, annotationNames)) {
+                result.add(loadClass(component.key, classLoader));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ObjectMap<Class<?>, Bits> findClassesAnnotatedWithAny(final Class<?> root,
+            final Array<Class<? extends Annotation>> annotations) {
+        final ClassLoader classLoader = root.getClassLoader() == null ? ClassLoader.getSystemClassLoader()
+                : root.getClassLoader();
+        final ObjectMap<String, String[]> index = getIndex(classLoader);
+        final ObjectMap<Class<?>, Bits> result = GdxMaps.newOrderedMap();
+        if (index.size == 0) {
+            if (fallbackScanner instanceof SinglePassClassScanner) {
+                return ((SinglePassClassScanner) fallbackScanner).findClassesAnnotatedWithAny(root, annotations);
+            }
+            for (final Class<?> scannedClass : fallbackScanner.findClassesAnnotatedWith(root, annotations)) {
+                final Bits classAnnotations = new Bits();
+                for (int annotationIndex = 0; annotationIndex < annotations.size; annotationIndex++) {
+                    if (ClassReflection.isAnnotationPresent(scannedClass, annotations.get(annotationIndex))) {
+                        classAnnotations.set(annotationIndex);
+                    }
+                }
+                result.put(scannedClass, classAnnotations);
+            }
+            return result;
+        }
+        final ObjectIntMap<String> annotationIndexes = new ObjectIntMap<String>();
+        for (int annotationIndex = 0; annotationIndex < annotations.size; annotationIndex++) {
+            annotationIndexes.put(annotations.get(annotationIndex).getName(), annotationIndex);
+        }
+        final String rootPackage = getPackageName(root);
+        final String autumnPackage = AutumnRoot.class.getPackage().getName();
+        for (final Entry<String, String[]> component : index) {
+            if (!isInPackage(component.key, rootPackage) && !isInPackage(component.key, autumnPackage)) {
+                continue;
+            }
+            Bits classAnnotations = null;
+            for (final String annotation : component.value) {
+                final int annotationIndex = annotationIndexes.get(annotation, -1);
+                if (annotationIndex >= 0) {
+                    if (classAnnotations == null) {
+                        classAnnotations = new Bits();
+                    }
+                    classAnnotations.set(annotationIndex);
+                }
+            }
+            if (classAnnotations != null) {
+                result.put(loadClass(component.key, classLoader), classAnnotations);
+            }
+        }
+        return result;
+    }
+
+    /** @param classLoader will be used to find the index resources.
+     * @return component index. Loaded once. */
+    protected ObjectMap<String, String[]> getIndex(final ClassLoader classLoader) {
+        if (index == null) {
+            index = GdxMaps.newObjectMap();
+            try {
+                final Enumeration<URL> resources = classLoader.getResources(ComponentIndexProcessor.INDEX_FILE);
+                while (resources.hasMoreElements()) {
+                    readIndex(resources.nextElement(), index);
+                }
+            } catch (final IOException exception) {
+                throw new GdxRuntimeException("Unable to read component index.", exception);
+            }
+        }
+        return index;
+    }
+
+    private static void readIndex(final URL resource, final ObjectMap<String, String[]> index) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.trim();
+                if (Strings.isEmpty(line) || line.charAt(0) == ComponentIndexProcessor.COMMENT_MARKER) {
+                    continue;
+                }
+                final int separatorIndex = line.indexOf(ComponentIndexProcessor.CLASS_SEPARATOR);
+                if (separatorIndex <= 0) {
+                    throw new GdxRuntimeException("Invalid component index entry in " + resource + ": " + line);
+                }
+                final String annotations = line.substring(separatorIndex + 1);
+                index.put(line.substring(0, separatorIndex),
+                        Strings.split(annotations, ComponentIndexProcessor.ANNOTATION_SEPARATOR));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /** @param root scanning root.
+     * @return name of the root's package. Empty string if the class is in the default package. */
+    private static String getPackageName(final Class<?> root) {
+        final Package rootPackage = root.getPackage();
+        return rootPackage == null ? Strings.EMPTY_STRING : rootPackage.getName();
+    }
+
+    private static boolean isInPackage(final String className, final String packageName) {
+        if (packageName.length() == 0) {
+            return true; // Default package: all classes are its descendants.
+        }
+        return className.startsWith(packageName) && className.length() > packageName.length()
+                && className.charAt(packageName.length()) == '.';
+    }
+
+    private static boolean isAnnotatedWithAny(final String[] classAnnotations, final ObjectSet<String> annotations) {
+        for (final String annotation : classAnnotations) {
+            if (annotations.contains(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> loadClass(final String className, final ClassLoader classLoader) {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (final ClassNotFoundException exception) {
+            throw new GdxRuntimeException("Indexed component class is unavailable: " + className
+                    + ". Component index might be outdated - rebuild the project.", exception);
+        }
+    }
+}
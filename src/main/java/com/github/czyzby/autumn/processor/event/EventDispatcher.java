@@ -1,8 +1,10 @@
 package com.github.czyzby.autumn.processor.event;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.github.czyzby.autumn.annotation.OnEvent;
 import com.github.czyzby.autumn.context.Context;
@@ -11,6 +13,9 @@ import com.github.czyzby.autumn.context.ContextInitializer;
 import com.github.czyzby.autumn.context.error.ContextInitiationException;
 import com.github.czyzby.autumn.processor.AbstractAnnotationProcessor;
 import com.github.czyzby.autumn.processor.event.impl.ReflectionEventListener;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 import com.github.czyzby.kiwi.util.gdx.collection.lazy.LazyObjectMap;
 
 import java.util.Iterator;
@@ -19,10 +24,35 @@ import java.util.Iterator;
  * processor is not injected into any component, it will mostly likely get garbage-collected after context initiation,
  * even if there are methods or components annotated with {@link OnEvent}.
  *
+ * <p>
+ * Dispatcher is thread-safe: events can be posted from any thread. Listeners of each event class are resolved once and
+ * cached as immutable arrays, which are replaced (rather than modified) when listeners change, so listeners are
+ * invoked without holding any locks. Events handled by main thread listeners are queued and delivered in a single
+ * batch on the next frame - at most one runnable is posted per frame, regardless of the amount of events.
+ *
  * @author MJ */
 public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
-    private final ObjectMap<Class<?>, ObjectSet<EventListener<?>>> listeners = LazyObjectMap.newMapOfSets();
-    private final ObjectMap<Class<?>, ObjectSet<EventListener<?>>> mainThreadListeners = LazyObjectMap.newMapOfSets();
+    private static final ListenerRegistration[] NO_LISTENERS = new ListenerRegistration[0];
+
+    /** Registered listeners mapped by the event types. Used as the lock for listeners modification. */
+    private final ObjectMap<Class<?>, Array<ListenerRegistration>> registrations = LazyObjectMap.newMapOfArrays();
+    /** Immutable arrays of listeners of each posted event class. Cleared when listeners change. */
+    private final ObjectMap<Class<?>, ListenerRegistration[]> dispatchCache = GdxMaps.newObjectMap();
+    private boolean dispatchingToSupertypes;
+
+    /* Main thread queue. Double-buffered: events are added to one pair of arrays while the other one is delivered. */
+    private final Object queueLock = new Object();
+    private Array<Object> queuedEvents = GdxArrays.newArray();
+    private Array<ListenerRegistration[]> queuedListeners = GdxArrays.newArray();
+    private Array<Object> deliveredEvents = GdxArrays.newArray();
+    private Array<ListenerRegistration[]> deliveredListeners = GdxArrays.newArray();
+    private boolean deliveryScheduled;
+    private final Runnable deliveryTask = new Runnable() {
+        @Override
+        public void run() {
+            deliverQueuedEvents();
+        }
+    };
 
     @Override
     public Class<OnEvent> getSupportedAnnotationType() {
@@ -57,6 +87,23 @@ public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
         }
     }
 
+    /** @param dispatchingToSupertypes if true, posted events will also invoke listeners registered to handle any of
+     *            the event's superclasses or interfaces. If false, only listeners registered to the exact class of the
+     *            event are invoked. Defaults to false. */
+    public void setDispatchingToSupertypes(final boolean dispatchingToSupertypes) {
+        synchronized (registrations) {
+            this.dispatchingToSupertypes = dispatchingToSupertypes;
+            dispatchCache.clear();
+        }
+    }
+
+    /** @return true if posted events also invoke listeners of the event's superclasses and interfaces. */
+    public boolean isDispatchingToSupertypes() {
+        synchronized (registrations) {
+            return dispatchingToSupertypes;
+        }
+    }
+
     /**
      * @param listener   will be registered.
      * @param annotation contains listener's data.
@@ -76,14 +123,19 @@ public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
     /**
      * @param listener will be registered.
      * @param eventType type of handled events.
-     * @param forceMainThread if true, listener will be invoked only on main libGDX thread with
-     * Gdx.app.postRunnable(Runnable). Otherwise the listener is invoked as soon as the event is posted.
+     * @param forceMainThread if true, listener will be invoked only on main libGDX thread, during the next frame.
+     * Otherwise the listener is invoked as soon as the event is posted.
      */
     public void addListener(final EventListener<?> listener, final Class<?> eventType, final boolean forceMainThread) {
-        if (forceMainThread) {
-            mainThreadListeners.get(eventType).add(listener);
-        } else {
-            listeners.get(eventType).add(listener);
+        synchronized (registrations) {
+            final Array<ListenerRegistration> listeners = registrations.get(eventType);
+            for (final ListenerRegistration registration : listeners) {
+                if (registration.listener == listener && registration.mainThread == forceMainThread) {
+                    return; // Already registered.
+                }
+            }
+            listeners.add(new ListenerRegistration(listener, eventType, forceMainThread));
+            dispatchCache.clear();
         }
     }
 
@@ -92,41 +144,181 @@ public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
      * @param eventType type of the event that the listener is registered to handle.
      */
     public void removeListener(final EventListener<?> listener, final Class<?> eventType) {
-        listeners.get(eventType).remove(listener);
-        mainThreadListeners.get(eventType).remove(listener);
+        synchronized (registrations) {
+            final Array<ListenerRegistration> listeners = registrations.get(eventType);
+            for (int index = listeners.size - 1; index >= 0; index--) {
+                if (listeners.get(index).listener == listener) {
+                    listeners.removeIndex(index).removed = true;
+                }
+            }
+            dispatchCache.clear();
+        }
+    }
+
+    /** @param registration will be removed, if still registered. */
+    private void removeListener(final ListenerRegistration registration) {
+        synchronized (registrations) {
+            if (registrations.get(registration.eventType).removeValue(registration, true)) {
+                registration.removed = true;
+                dispatchCache.clear();
+            }
+        }
     }
 
     /**
      * @param eventType all listeners registered to handle this type will be removed.
      */
     public void removeListenersForType(final Class<?> eventType) {
-        listeners.remove(eventType);
-        mainThreadListeners.remove(eventType);
+        synchronized (registrations) {
+            markAsRemoved(registrations.remove(eventType));
+            dispatchCache.clear();
+        }
     }
 
     /**
      * Removes all registered listeners. Use with care.
      */
     public void clearListeners() {
-        listeners.clear();
-        mainThreadListeners.clear();
+        synchronized (registrations) {
+            for (final Array<ListenerRegistration> listeners : registrations.values()) {
+                markAsRemoved(listeners);
+            }
+            registrations.clear();
+            dispatchCache.clear();
+        }
     }
 
-    /** @param event will be posted and invoke all listeners registered to its exact class. Nulls are ignored. */
+    /** @param listeners will no longer be invoked, even if they are still present in cached arrays. Might be null. */
+    private static void markAsRemoved(final Array<ListenerRegistration> listeners) {
+        if (listeners != null) {
+            for (final ListenerRegistration registration : listeners) {
+                registration.removed = true;
+            }
+        }
+    }
+
+    /** @param event will be posted and invoke all listeners registered to its class - and, optionally, its supertypes.
+     *            Nulls are ignored. Can be called from any thread.
+     * @see #setDispatchingToSupertypes(boolean) */
     public void postEvent(final Object event) {
         if (event == null) {
             return;
         }
-        if (listeners.containsKey(event.getClass())) {
-            invokeEventListeners(event, listeners.get(event.getClass()));
+        final ListenerRegistration[] listeners = getListeners(event.getClass());
+        boolean hasMainThreadListeners = false;
+        for (final ListenerRegistration registration : listeners) {
+            if (registration.mainThread) {
+                hasMainThreadListeners = true;
+            } else {
+                invokeListener(event, registration);
+            }
+        }
+        if (hasMainThreadListeners) {
+            queueEvent(event, listeners);
         }
-        if (mainThreadListeners.containsKey(event.getClass())) {
-            Gdx.app.postRunnable(new EventRunnable(event, mainThreadListeners.get(event.getClass())));
+    }
+
+    /** @param eventType class of the posted event.
+     * @return cached array with all listeners that should handle the event. Should not be modified. */
+    private ListenerRegistration[] getListeners(final Class<?> eventType) {
+        synchronized (registrations) {
+            ListenerRegistration[] listeners = dispatchCache.get(eventType);
+            if (listeners == null) {
+                listeners = resolveListeners(eventType);
+                dispatchCache.put(eventType, listeners);
+            }
+            return listeners;
+        }
+    }
+
+    private ListenerRegistration[] resolveListeners(final Class<?> eventType) {
+        if (!dispatchingToSupertypes) {
+            final Array<ListenerRegistration> listeners = registrations.get(eventType);
+            return listeners.size == 0 ? NO_LISTENERS : listeners.toArray(ListenerRegistration.class);
+        }
+        final Array<ListenerRegistration> listeners = GdxArrays.newArray(ListenerRegistration.class);
+        final ObjectSet<Class<?>> processedTypes = GdxSets.newSet();
+        Class<?> type = eventType;
+        while (type != null) {
+            addListeners(type, listeners, processedTypes);
+            type = type.getSuperclass();
+        }
+        return listeners.size == 0 ? NO_LISTENERS : listeners.toArray();
+    }
+
+    /** @param type its listeners and listeners of its interfaces will be added.
+     * @param listeners will contain registered listeners.
+     * @param processedTypes prevents from adding listeners of the same interface multiple times. */
+    private void addListeners(final Class<?> type, final Array<ListenerRegistration> listeners,
+            final ObjectSet<Class<?>> processedTypes) {
+        if (!processedTypes.add(type)) {
+            return;
+        }
+        if (registrations.containsKey(type)) {
+            listeners.addAll(registrations.get(type));
+        }
+        for (final Class<?> interfaceType : ClassReflection.getInterfaces(type)) {
+            addListeners(interfaceType, listeners, processedTypes);
         }
     }
 
     /** @param event was just posted.
-     * @param listeners will be invoked. */
+     * @param registration its listener will be invoked and removed if it returns false. */
+    @SuppressWarnings({ "rawtypes", "unchecked" }) // Types are always correct.
+    private void invokeListener(final Object event, final ListenerRegistration registration) {
+        if (registration.removed) { // Removed after the listeners array was resolved.
+            return;
+        }
+        if (!((EventListener) registration.listener).processEvent(event)) {
+            removeListener(registration);
+        }
+    }
+
+    /** @param event will be delivered to main thread listeners during the next frame.
+     * @param listeners resolved listeners of the event. */
+    private void queueEvent(final Object event, final ListenerRegistration[] listeners) {
+        synchronized (queueLock) {
+            queuedEvents.add(event);
+            queuedListeners.add(listeners);
+            if (deliveryScheduled) {
+                return;
+            }
+            deliveryScheduled = true;
+        }
+        Gdx.app.postRunnable(deliveryTask);
+    }
+
+    /** Invokes main thread listeners of all queued events. */
+    private void deliverQueuedEvents() {
+        final Array<Object> events;
+        final Array<ListenerRegistration[]> listeners;
+        synchronized (queueLock) {
+            events = queuedEvents;
+            listeners = queuedListeners;
+            queuedEvents = deliveredEvents;
+            queuedListeners = deliveredListeners;
+            deliveredEvents = events;
+            deliveredListeners = listeners;
+            deliveryScheduled = false;
+        }
+        // Events posted by the listeners will be queued in the other buffers and delivered during the next frame.
+        for (int index = 0; index < events.size; index++) {
+            final Object event = events.get(index);
+            for (final ListenerRegistration registration : listeners.get(index)) {
+                if (registration.mainThread) {
+                    invokeListener(event, registration);
+                }
+            }
+        }
+        events.clear();
+        listeners.clear();
+    }
+
+    /** @param event was just posted.
+     * @param listeners will be invoked. Listeners that return false are removed from the set.
+     * @deprecated the dispatcher no longer stores listeners in sets, so this method is not used internally. Kept for
+     *             compatibility with extending classes. Use {@link #postEvent(Object)} instead. */
+    @Deprecated
     @SuppressWarnings({ "rawtypes", "unchecked" }) // Types are always correct.
     protected static void invokeEventListeners(final Object event, final ObjectSet<EventListener<?>> listeners) {
         for (final Iterator<EventListener<?>> iterator = listeners.iterator(); iterator.hasNext();) {
@@ -139,7 +331,10 @@ public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
 
     /** Invokes listeners.
      *
-     * @author MJ */
+     * @author MJ
+     * @deprecated main thread events are now queued and delivered in batches by the dispatcher. This class is no longer
+     *             used internally and is kept for compatibility. */
+    @Deprecated
     public static class EventRunnable implements Runnable {
         private final Object event;
         private final ObjectSet<EventListener<?>> listeners;
@@ -154,4 +349,21 @@ public class EventDispatcher extends AbstractAnnotationProcessor<OnEvent> {
             invokeEventListeners(event, listeners);
         }
     }
+
+    /** Stores listener's data.
+     *
+     * @author MJ */
+    private static class ListenerRegistration {
+        private final EventListener<?> listener;
+        private final Class<?> eventType;
+        private final boolean mainThread;
+        /** Set when the listener is unregistered. Cached arrays might still contain the registration. */
+        private volatile boolean removed;
+
+        ListenerRegistration(final EventListener<?> listener, final Class<?> eventType, final boolean mainThread) {
+            this.listener = listener;
+            this.eventType = eventType;
+            this.mainThread = mainThread;
+        }
+    }
 }
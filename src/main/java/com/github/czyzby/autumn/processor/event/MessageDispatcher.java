@@ -1,7 +1,9 @@
 package com.github.czyzby.autumn.processor.event;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.github.czyzby.autumn.annotation.OnMessage;
@@ -11,18 +13,51 @@ import com.github.czyzby.autumn.context.ContextInitializer;
 import com.github.czyzby.autumn.context.error.ContextInitiationException;
 import com.github.czyzby.autumn.processor.AbstractAnnotationProcessor;
 import com.github.czyzby.autumn.processor.event.impl.ReflectionMessageListener;
-import com.github.czyzby.kiwi.util.gdx.collection.lazy.LazyObjectMap;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** Processes messages. Can be injected and used to invoke registered listeners with {@link #postMessage(String)}. If
  * this processor is not injected into any component, it will mostly likely get garbage-collected after context
  * initiation, even if there are methods or components annotated with {@link OnMessage}.
  *
+ * <p>
+ * Message contents are interned to integer topic IDs when the listeners are registered, so posting a message requires
+ * a single hash lookup. Main thread listeners are invoked in a single batch during the next frame. In the optional
+ * coalescing mode (see {@link #setCoalescing(boolean)}), all listeners are invoked in the next frame batch and
+ * duplicate messages posted within the same frame are delivered only once. Messages can be posted from any thread.
+ *
  * @author MJ */
 public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
-    private final ObjectMap<String, ObjectSet<MessageListener>> listeners = LazyObjectMap.newMapOfSets();
-    private final ObjectMap<String, ObjectSet<MessageListener>> mainThreadListeners = LazyObjectMap.newMapOfSets();
+    private static final int UNKNOWN_TOPIC = -1;
+
+    /** Guards topic IDs, topics and the message queue, as messages can be posted from any thread. */
+    private final Object lock = new Object();
+    /** Message contents mapped to their topic IDs. */
+    private final ObjectIntMap<String> topicIds = new ObjectIntMap<String>();
+    /** Topics indexed by their IDs. */
+    private final Array<Topic> topics = GdxArrays.newArray();
+    private volatile boolean coalescing;
+
+    /* Message queue, delivered on the main thread. Double-buffered: messages are added to one array while the other one
+     * is delivered. Coalesced messages are stored as topic IDs and delivered to all listeners; messages queued only for
+     * main thread listeners are stored as negative values: -ID - 1. */
+    private IntArray queuedTopics = new IntArray();
+    private IntArray deliveredTopics = new IntArray();
+    private boolean deliveryScheduled;
+    private final Runnable deliveryTask = new Runnable() {
+        @Override
+        public void run() {
+            deliverQueuedMessages();
+        }
+    };
+
+    /* Statistics. Updated from any thread that posts messages. */
+    private final AtomicLong postedMessages = new AtomicLong();
+    private final AtomicLong coalescedMessages = new AtomicLong();
+    private final AtomicLong deliveredMessages = new AtomicLong();
 
     @Override
     public Class<OnMessage> getSupportedAnnotationType() {
@@ -57,6 +92,19 @@ public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
         }
     }
 
+    /** @param coalescing if true, posted messages are queued and delivered to all listeners in a single batch during
+     *            the next frame on the main thread. Duplicate messages posted within the same frame are delivered
+     *            once. If false, listeners that do not force main thread are invoked as soon as the message is posted
+     *            and every posted message is delivered. Defaults to false. */
+    public void setCoalescing(final boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    /** @return true if duplicate messages within a frame are collapsed and delivered in a single batch. */
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
     /** @param listener will be registered.
      * @param annotation contains listener's data. */
     public void addListener(final MessageListener listener, final OnMessage annotation) {
@@ -73,15 +121,56 @@ public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
     /**
      * @param listener will be registered.
      * @param messageContent content of handled message. If the message is posted, listener will be invoked.
-     * @param forceMainThread if true, listener will be invoked only on main libGDX thread with
-     * Gdx.app.postRunnable(Runnable). Otherwise the listener is invoked as soon as the message is posted.
+     * @param forceMainThread if true, listener will be invoked only on main libGDX thread, during the next frame.
+     * Otherwise the listener is invoked as soon as the message is posted.
      */
     public void addListener(final MessageListener listener, final String messageContent,
             final boolean forceMainThread) {
+        final Topic topic = getTopic(messageContent);
         if (forceMainThread) {
-            mainThreadListeners.get(messageContent).add(listener);
+            topic.mainThreadListeners.add(listener);
         } else {
-            listeners.get(messageContent).add(listener);
+            topic.listeners.add(listener);
+        }
+    }
+
+    /** @param messageContent content of a message.
+     * @return topic of the message. Created and assigned an ID if the message was not registered yet. */
+    private Topic getTopic(final String messageContent) {
+        synchronized (lock) {
+            final int id = topicIds.get(messageContent, UNKNOWN_TOPIC);
+            if (id != UNKNOWN_TOPIC) {
+                return topics.get(id);
+            }
+            final Topic topic = new Topic(topics.size, messageContent);
+            topicIds.put(messageContent, topics.size);
+            topics.add(topic);
+            return topic;
+        }
+    }
+
+    /** @param messageContent content of a message.
+     * @return topic of the message or null if no listeners were ever registered to handle the message. */
+    private Topic findTopic(final String messageContent) {
+        synchronized (lock) {
+            final int id = topicIds.get(messageContent, UNKNOWN_TOPIC);
+            return id == UNKNOWN_TOPIC ? null : topics.get(id);
+        }
+    }
+
+    /** @param id ID of a registered topic.
+     * @return topic with the selected ID. */
+    private Topic getTopic(final int id) {
+        synchronized (lock) {
+            return topics.get(id);
+        }
+    }
+
+    /** @param messageContent content of a message.
+     * @return ID assigned to the message or -1 if no listeners were ever registered to handle the message. */
+    public int getTopicId(final String messageContent) {
+        synchronized (lock) {
+            return topicIds.get(messageContent, UNKNOWN_TOPIC);
         }
     }
 
@@ -90,39 +179,112 @@ public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
      * @param messageContent content of message that the listener is registered to handle.
      */
     public void removeListener(final MessageListener listener, final String messageContent) {
-        listeners.get(messageContent).remove(listener);
-        mainThreadListeners.get(messageContent).remove(listener);
+        final Topic topic = findTopic(messageContent);
+        if (topic != null) {
+            topic.listeners.remove(listener);
+            topic.mainThreadListeners.remove(listener);
+        }
     }
 
     /**
      * @param messageContent all listeners registered to handle this message will be removed.
      */
     public void removeListenersForMessage(final String messageContent) {
-        listeners.remove(messageContent);
-        mainThreadListeners.remove(messageContent);
+        final Topic topic = findTopic(messageContent);
+        if (topic != null) {
+            topic.clear();
+        }
     }
 
     /**
      * Removes all registered listeners. Use with care.
      */
     public void clearListeners() {
-        listeners.clear();
-        mainThreadListeners.clear();
+        synchronized (lock) {
+            for (final Topic topic : topics) {
+                topic.clear();
+            }
+        }
     }
 
-    /** @param message will be posted and invoke all listeners registered to its exact content. Nulls are ignored. */
+    /** @param message will be posted and invoke all listeners registered to its exact content. Nulls are ignored. Can
+     *            be called from any thread. */
     public void postMessage(final String message) {
         if (message == null) {
             return;
         }
-        if (listeners.containsKey(message)) {
-            invokeMessageListeners(listeners.get(message));
+        postedMessages.incrementAndGet();
+        final Topic topic = findTopic(message);
+        if (topic == null) {
+            return; // No listeners were ever registered.
         }
-        if (mainThreadListeners.containsKey(message)) {
-            Gdx.app.postRunnable(new MessageRunnable(mainThreadListeners.get(message)));
+        if (coalescing) {
+            queueMessage(topic, true);
+            return;
+        }
+        deliveredMessages.incrementAndGet();
+        if (topic.listeners.size > 0) {
+            invokeMessageListeners(topic.listeners);
+        }
+        if (topic.mainThreadListeners.size > 0) {
+            queueMessage(topic, false);
         }
     }
 
+    /** @param topic will be delivered on the main thread during the next frame.
+     * @param coalesce if true, the message will be delivered to all listeners, unless it is already queued. If false,
+     *            it will be delivered only to main thread listeners. */
+    private void queueMessage(final Topic topic, final boolean coalesce) {
+        synchronized (lock) {
+            if (coalesce) {
+                if (topic.queued) {
+                    coalescedMessages.incrementAndGet();
+                    return;
+                }
+                topic.queued = true;
+                queuedTopics.add(topic.id);
+            } else {
+                queuedTopics.add(-topic.id - 1);
+            }
+            if (deliveryScheduled) {
+                return;
+            }
+            deliveryScheduled = true;
+        }
+        Gdx.app.postRunnable(deliveryTask);
+    }
+
+    /** Invokes listeners of all queued messages. */
+    private void deliverQueuedMessages() {
+        final IntArray messages;
+        synchronized (lock) {
+            messages = queuedTopics;
+            queuedTopics = deliveredTopics;
+            deliveredTopics = messages;
+            deliveryScheduled = false;
+            for (int index = 0; index < messages.size; index++) {
+                if (messages.get(index) >= 0) {
+                    topics.get(messages.get(index)).queued = false;
+                }
+            }
+        }
+        // Messages posted by the listeners will be queued in the other buffer and delivered during the next frame.
+        for (int index = 0; index < messages.size; index++) {
+            final int id = messages.get(index);
+            final Topic topic = getTopic(id >= 0 ? id : -id - 1);
+            if (id >= 0) { // Coalesced message: delivering to all listeners.
+                deliveredMessages.incrementAndGet();
+                if (topic.listeners.size > 0) {
+                    invokeMessageListeners(topic.listeners);
+                }
+            }
+            if (topic.mainThreadListeners.size > 0) {
+                invokeMessageListeners(topic.mainThreadListeners);
+            }
+        }
+        messages.clear();
+    }
+
     /** @param listeners their message was just posted, so they will be invoked. */
     protected static void invokeMessageListeners(final ObjectSet<MessageListener> listeners) {
         for (final Iterator<MessageListener> iterator = listeners.iterator(); iterator.hasNext();) {
@@ -133,9 +295,35 @@ public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
         }
     }
 
+    /** @return total amount of posted messages, including messages with no listeners. */
+    public long getPostedMessagesAmount() {
+        return postedMessages.get();
+    }
+
+    /** @return amount of messages that were not delivered, as the same message was already queued in the current
+     *         frame. Always 0 if {@link #isCoalescing()} was never enabled. */
+    public long getCoalescedMessagesAmount() {
+        return coalescedMessages.get();
+    }
+
+    /** @return amount of messages delivered to their listeners. */
+    public long getDeliveredMessagesAmount() {
+        return deliveredMessages.get();
+    }
+
+    /** Resets messages statistics. */
+    public void resetStatistics() {
+        postedMessages.set(0L);
+        coalescedMessages.set(0L);
+        deliveredMessages.set(0L);
+    }
+
     /** Invokes listeners.
      *
-     * @author MJ */
+     * @author MJ
+     * @deprecated main thread messages are now queued and delivered in batches by the dispatcher. This class is no
+     *             longer used internally and is kept for compatibility. */
+    @Deprecated
     public static class MessageRunnable implements Runnable {
         private final ObjectSet<MessageListener> listeners;
 
@@ -148,4 +336,31 @@ public class MessageDispatcher extends AbstractAnnotationProcessor<OnMessage> {
             invokeMessageListeners(listeners);
         }
     }
+
+    /** Contains listeners of a single message.
+     *
+     * @author MJ */
+    private static class Topic {
+        private final int id;
+        private final String message;
+        private final ObjectSet<MessageListener> listeners = GdxSets.newSet();
+        private final ObjectSet<MessageListener> mainThreadListeners = GdxSets.newSet();
+        /** True if the topic is in the queue and should not be queued again in coalescing mode. */
+        private boolean queued;
+
+        Topic(final int id, final String message) {
+            this.id = id;
+            this.message = message;
+        }
+
+        void clear() {
+            listeners.clear();
+            mainThreadListeners.clear();
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
 }
@@ -1,17 +1,23 @@
 package com.github.czyzby.autumn.processor.impl;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.github.czyzby.autumn.annotation.Initiate;
 import com.github.czyzby.autumn.context.Context;
 import com.github.czyzby.autumn.context.ContextDestroyer;
 import com.github.czyzby.autumn.context.ContextInitializer;
+import com.github.czyzby.autumn.context.ContextTaskExecutor;
 import com.github.czyzby.autumn.context.impl.method.MethodInvocation;
 import com.github.czyzby.autumn.context.impl.method.PrioritizedMethodInvocation;
+import com.github.czyzby.autumn.context.profiler.ContextProfiler;
 import com.github.czyzby.autumn.processor.AbstractAnnotationProcessor;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 
-/** Invokes {@link Initiate}-annotated methods after the context is fully built.
+/** Invokes {@link Initiate}-annotated methods after the context is fully built. Methods of lazy components created
+ * after the context initiation are invoked immediately. If {@link ContextInitializer#getInitiationExecutor()} is set,
+ * methods marked as {@link Initiate#concurrent()} are invoked in parallel with other concurrent methods of the same
+ * priority; methods are still grouped into priority tiers, so each tier has to finish before the next one starts.
  *
  * @author MJ */
 public class InitiateAnnotationProcessor extends AbstractAnnotationProcessor<Initiate> {
@@ -30,17 +36,92 @@ public class InitiateAnnotationProcessor extends AbstractAnnotationProcessor<Ini
     @Override
     public void processMethod(final Method method, final Initiate annotation, final Object component,
             final Context context, final ContextInitializer initializer, final ContextDestroyer contextDestroyer) {
-        methods.add(new PrioritizedMethodInvocation(method, component,
-                MethodInvocation.getParametersFromContext(method.getParameterTypes(), context), annotation.priority()));
+        final PrioritizedMethodInvocation invocation = new PrioritizedMethodInvocation(method, component,
+                MethodInvocation.getParametersFromContext(method.getParameterTypes(), context), annotation.priority(),
+                annotation.concurrent());
+        if (initializer.isInitiated()) { // Lazy component created after initiation.
+            invocation.invoke();
+        } else {
+            methods.add(invocation);
+        }
     }
 
     @Override
     public void doAfterScanning(final ContextInitializer initializer, final Context context,
             final ContextDestroyer destroyer) {
         methods.sort();
-        for (final PrioritizedMethodInvocation method : methods) {
-            method.invoke();
+        final ContextTaskExecutor executor = initializer.getInitiationExecutor();
+        final ContextProfiler profiler = initializer.getProfiler();
+        final Array<ConcurrentInvocation> concurrentMethods = GdxArrays.newArray();
+        for (int index = 0; index < methods.size; index++) {
+            final PrioritizedMethodInvocation method = methods.get(index);
+            if (executor != null && method.isConcurrent()) {
+                concurrentMethods.add(new ConcurrentInvocation(method));
+            } else {
+                invoke(method, profiler);
+            }
+            final boolean lastInTier = index == methods.size - 1
+                    || methods.get(index + 1).getPriority() != method.getPriority();
+            if (lastInTier && concurrentMethods.size > 0) {
+                invokeConcurrently(concurrentMethods, executor, profiler);
+                concurrentMethods.clear();
+            }
         }
         methods.clear();
     }
+
+    private static void invoke(final PrioritizedMethodInvocation method, final ContextProfiler profiler) {
+        if (profiler == null) {
+            method.invoke();
+        } else {
+            profiler.begin(getName(method));
+            try {
+                method.invoke();
+            } finally {
+                profiler.end();
+            }
+        }
+    }
+
+    /** @param concurrentMethods will be invoked in parallel. This method returns after all of them are finished.
+     * @param executor invokes the methods.
+     * @param profiler optional. Will record durations of the methods. */
+    private static void invokeConcurrently(final Array<ConcurrentInvocation> concurrentMethods,
+            final ContextTaskExecutor executor, final ContextProfiler profiler) {
+        if (concurrentMethods.size == 1) {
+            invoke(concurrentMethods.first().method, profiler);
+            return;
+        }
+        executor.invokeAll(new Array<Runnable>(concurrentMethods));
+        if (profiler != null) {
+            // Methods were invoked on other threads, so their times are recorded afterwards:
+            for (final ConcurrentInvocation invocation : concurrentMethods) {
+                profiler.record(getName(invocation.method), invocation.duration);
+            }
+        }
+    }
+
+    /** @return name of the method used by the profiler. */
+    private static String getName(final PrioritizedMethodInvocation method) {
+        return method.getMethod().getDeclaringClass().getName() + '#' + method.getMethod().getName();
+    }
+
+    /** Wraps a concurrent method invocation. Measures its duration.
+     *
+     * @author MJ */
+    private static class ConcurrentInvocation implements Runnable {
+        private final PrioritizedMethodInvocation method;
+        private long duration;
+
+        ConcurrentInvocation(final PrioritizedMethodInvocation method) {
+            this.method = method;
+        }
+
+        @Override
+        public void run() {
+            final long start = TimeUtils.nanoTime();
+            method.invoke();
+            duration = TimeUtils.nanoTime() - start;
+        }
+    }
 }
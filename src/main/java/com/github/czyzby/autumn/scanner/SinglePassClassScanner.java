@@ -0,0 +1,25 @@
+package com.github.czyzby.autumn.scanner;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.lang.annotation.Annotation;
+
+/** Extension of {@link ClassScanner} that finds classes annotated with a whole set of annotations in a single scan and
+ * reports which of the annotations are present on each class. Used by
+ * {@link com.github.czyzby.autumn.context.ContextInitializer} to scan for both meta and regular components at once.
+ * Scanners that do not implement this interface are asked for the classes annotated with any of the annotations and
+ * the found classes are checked with reflection.
+ *
+ * @author MJ */
+public interface SinglePassClassScanner extends ClassScanner {
+    /** @param root class scanning root. Found classes have to share its package.
+     * @param annotations array of annotations to look for. Indexes of the annotations in this array are used as bit
+     *            indexes in the result.
+     * @return all classes in root's package annotated with at least one of the selected annotations, mapped to bits
+     *         representing their annotations: bit with index N is set if the class is annotated with the N-th
+     *         annotation. */
+    ObjectMap<Class<?>, Bits> findClassesAnnotatedWithAny(Class<?> root,
+            Array<Class<? extends Annotation>> annotations);
+}
@@ -0,0 +1,35 @@
+package com.github.czyzby.lml.nongwt.action;
+
+import java.lang.invoke.MethodHandle;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.github.czyzby.lml.parser.action.ActorConsumer;
+
+/** Invokes a method handle bound to the action container. The handle has to be adapted to (Object)Object type, so it
+ * can be invoked directly - without argument arrays or reflection API overhead. Unlike the reflection-based
+ * {@link com.github.czyzby.lml.parser.impl.action.MethodActorConsumer}, this consumer keeps no mutable state and is
+ * safe to invoke recursively or from multiple threads.
+ *
+ * @author MJ
+ * @see MethodHandleActorConsumerFactory */
+public class MethodHandleActorConsumer implements ActorConsumer<Object, Object> {
+    private final MethodHandle handle;
+    private final Object member;
+
+    /** @param handle bound to the action container, adapted to (Object)Object type.
+     * @param member wrapped method or field. Used for debugging purposes. */
+    public MethodHandleActorConsumer(final MethodHandle handle, final Object member) {
+        this.handle = handle;
+        this.member = member;
+    }
+
+    @Override
+    public Object consume(final Object actor) {
+        try {
+            return handle.invokeExact(actor);
+        } catch (final Throwable exception) {
+            throw new GdxRuntimeException("Unable to invoke action: " + member + " with argument: " + actor,
+                    exception);
+        }
+    }
+}
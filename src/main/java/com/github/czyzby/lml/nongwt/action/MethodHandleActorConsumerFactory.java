@@ -0,0 +1,74 @@
+package com.github.czyzby.lml.nongwt.action;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.github.czyzby.kiwi.util.common.Exceptions;
+import com.github.czyzby.lml.parser.action.ActorConsumer;
+import com.github.czyzby.lml.parser.impl.action.ReflectionActorConsumerFactory;
+
+/** Binds action container methods and fields into {@link MethodHandle}s. Invoking a consumer created by this factory
+ * costs about as much as a direct method call, as the handles are bound to their owners and adapted to a common type
+ * once - at creation. Requires java.lang.invoke API, so it can be used only on desktop (and other JVM) platforms. If a
+ * handle cannot be created for any reason (for example, due to security restrictions), the default reflection-based
+ * consumer is returned instead.
+ *
+ * <p>
+ * To use this factory, set {@link com.github.czyzby.lml.util.Lml#ACTOR_CONSUMER_FACTORY} before creating your LML
+ * parser in platform-specific launcher.
+ *
+ * @author MJ */
+public class MethodHandleActorConsumerFactory extends ReflectionActorConsumerFactory {
+    /** Common type of all created handles. */
+    private static final MethodType CONSUMER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @Override
+    public ActorConsumer<?, ?> createMethodConsumer(final Method method, final Object methodOwner) {
+        if (method == null || methodOwner == null) { // Let the default implementation throw.
+            return super.createMethodConsumer(method, methodOwner);
+        }
+        try {
+            final Class<?> declaringClass = method.getDeclaringClass(); // gdx Method returns a raw Class.
+            final java.lang.reflect.Method javaMethod = declaringClass.getDeclaredMethod(method.getName(),
+                    method.getParameterTypes());
+            javaMethod.setAccessible(true);
+            MethodHandle handle = lookup.unreflect(javaMethod);
+            if (!Modifier.isStatic(javaMethod.getModifiers())) {
+                handle = handle.bindTo(methodOwner);
+            }
+            if (javaMethod.getParameterTypes().length == 0) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return new MethodHandleActorConsumer(handle.asType(CONSUMER_TYPE), javaMethod);
+        } catch (final Exception exception) {
+            Exceptions.ignore(exception); // Method handles unavailable. Using reflection.
+            return super.createMethodConsumer(method, methodOwner);
+        }
+    }
+
+    @Override
+    public ActorConsumer<?, ?> createFieldConsumer(final Field field, final Object fieldOwner) {
+        if (field == null || fieldOwner == null) { // Let the default implementation throw.
+            return super.createFieldConsumer(field, fieldOwner);
+        }
+        try {
+            final Class<?> declaringClass = field.getDeclaringClass();
+            final java.lang.reflect.Field javaField = declaringClass.getDeclaredField(field.getName());
+            javaField.setAccessible(true);
+            MethodHandle handle = lookup.unreflectGetter(javaField);
+            if (!Modifier.isStatic(javaField.getModifiers())) {
+                handle = handle.bindTo(fieldOwner);
+            }
+            return new MethodHandleActorConsumer(
+                    MethodHandles.dropArguments(handle, 0, Object.class).asType(CONSUMER_TYPE), javaField);
+        } catch (final Exception exception) {
+            Exceptions.ignore(exception); // Method handles unavailable. Using reflection.
+            return super.createFieldConsumer(field, fieldOwner);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/** These classes are not included in GWT module, so they can safely use unsupported classes and methods.
+ *
+ * @author MJ */
+package com.github.czyzby.lml.nongwt;
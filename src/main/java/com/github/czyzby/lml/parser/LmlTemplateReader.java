@@ -6,7 +6,8 @@ import com.badlogic.gdx.files.FileHandle;
  * character.
  *
  * @author MJ
- * @see com.github.czyzby.lml.parser.impl.DefaultLmlTemplateReader */
+ * @see com.github.czyzby.lml.parser.impl.DefaultLmlTemplateReader
+ * @see com.github.czyzby.lml.parser.impl.BufferedLmlTemplateReader */
 public interface LmlTemplateReader {
     /** Registers template (or a part of it) to the reader. TemplateReader should work as a FIFO queue - if another
      * template is being currently parsed and one of append() methods is used, the previous template will be queued and
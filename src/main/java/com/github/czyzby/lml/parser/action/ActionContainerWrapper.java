@@ -5,8 +5,7 @@ import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.Method;
-import com.badlogic.gdx.utils.reflect.ReflectionException;
-import com.github.czyzby.kiwi.util.common.Exceptions;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
 import com.github.czyzby.kiwi.util.gdx.reflection.Reflection;
 import com.github.czyzby.lml.annotation.LmlAction;
 import com.github.czyzby.lml.util.Lml;
@@ -15,62 +14,45 @@ import com.github.czyzby.lml.util.collection.IgnoreCaseStringMap;
 /** Wraps around an {@link ActionContainer}, providing access to its methods and fields. Mostly for internal parsing
  * use.
  *
+ * <p>
+ * Reflection data is resolved once per action container class and shared by all wrappers of the same class: annotated
+ * methods and fields are mapped on the first wrapper creation, unannotated methods and fields are looked up on demand
+ * and cached - including missing ones, so repeated look-ups of actions that are not present in the container are
+ * cheap. Actor consumers created for the container's methods and fields are cached by each wrapper.
+ *
  * @author MJ */
 public class ActionContainerWrapper {
+    /** Key: class of action container; value: its cached reflection data. */
+    private static final ObjectMap<Class<?>, ActionContainerData> CONTAINERS_DATA = GdxMaps.newObjectMap();
+
     private final ActionContainer actionContainer;
-    private final ObjectMap<String, Method> annotatedMethods = new IgnoreCaseStringMap<Method>();
-    private final ObjectMap<String, Field> annotatedFields = new IgnoreCaseStringMap<Field>();
+    private final ActionContainerData containerData;
+    private final ObjectMap<Method, ActorConsumer<?, ?>> methodConsumers = GdxMaps.newObjectMap();
+    private final ObjectMap<Field, ActorConsumer<?, ?>> fieldConsumers = GdxMaps.newObjectMap();
 
     public ActionContainerWrapper(final ActionContainer actionContainer) {
         this.actionContainer = actionContainer;
-        mapAnnotatedMethods();
-    }
-
-    private void mapAnnotatedMethods() {
-        try {
-            Class<?> containerClass = actionContainer.getClass();
-            while (containerClass != null) {
-                mapClassMethods(containerClass);
-                mapClassFields(containerClass);
-                containerClass = containerClass.getSuperclass();
-            }
-        } catch (final Exception exception) {
-            throw new GdxRuntimeException("Unable to map ActionContainer methods.", exception);
-        }
+        containerData = getContainerData(actionContainer.getClass());
     }
 
-    private void mapClassMethods(final Class<?> containerClass) {
-        for (final Method method : ClassReflection.getDeclaredMethods(containerClass)) {
-            final LmlAction actionData = Reflection.getAnnotation(method, LmlAction.class);
-            if (actionData != null) {
-                final String[] ids = actionData.value();
-                if (ids.length > 0) {
-                    for (final String actionId : ids) {
-                        annotatedMethods.put(actionId, method);
-                    }
-                } else {
-                    annotatedMethods.put(method.getName(), method);
-                }
+    /** @param containerClass class of the action container.
+     * @return cached reflection data of the selected class. */
+    private static ActionContainerData getContainerData(final Class<?> containerClass) {
+        synchronized (CONTAINERS_DATA) {
+            ActionContainerData containerData = CONTAINERS_DATA.get(containerClass);
+            if (containerData == null) {
+                containerData = new ActionContainerData(containerClass);
+                CONTAINERS_DATA.put(containerClass, containerData);
             }
+            return containerData;
         }
     }
 
-    private void mapClassFields(final Class<?> containerClass) {
-        if (!Lml.EXTRACT_FIELDS_AS_METHODS) {
-            return;
-        }
-        for (final Field field : ClassReflection.getDeclaredFields(containerClass)) {
-            final LmlAction actionData = Reflection.getAnnotation(field, LmlAction.class);
-            if (actionData != null) {
-                final String[] ids = actionData.value();
-                if (ids.length > 0) {
-                    for (final String actionId : ids) {
-                        annotatedFields.put(actionId, field);
-                    }
-                } else {
-                    annotatedFields.put(field.getName(), field);
-                }
-            }
+    /** Clears reflection data cached for all action container classes. Wrappers created before calling this method
+     * will still use their previous data. */
+    public static void clearCache() {
+        synchronized (CONTAINERS_DATA) {
+            CONTAINERS_DATA.clear();
         }
     }
 
@@ -82,53 +64,182 @@ public class ActionContainerWrapper {
     /** @param methodId ID of the referenced method.
      * @return method referenced directly with the selected ID or null if none. */
     public Method getNamedMethod(final String methodId) {
-        return annotatedMethods.get(methodId);
+        return containerData.annotatedMethods.get(methodId);
     }
 
     /** @param fieldId ID of the referenced field.
      * @return field referenced directly with the selected ID or null if none. */
     public Field getNamedField(final String fieldId) {
-        return annotatedFields.get(fieldId);
+        return containerData.annotatedFields.get(fieldId);
     }
 
     /** @param methodName name of the possibly contained method.
      * @param parameterClass class of the expected parameter. Optional.
      * @return method with passed name and one or zero parameters. Might be null. */
     public Method getMethod(final String methodName, final Class<?> parameterClass) {
-        Class<?> containerClass = actionContainer.getClass();
-        while (containerClass != null) {
-            try {
-                // If this does not throw an exception, the method is found. Null check is not needed.
-                return getDeclaredMethod(containerClass, methodName, parameterClass);
-            } catch (final Exception exception) {
-                Exceptions.ignore(exception); // Expected. Method unavailable.
-            }
-            containerClass = containerClass.getSuperclass();
+        return containerData.getMethod(methodName, parameterClass);
+    }
+
+    /** @param fieldName name of the field.
+     * @return field with the selected name or null. */
+    public Field getField(final String fieldName) {
+        return containerData.getField(fieldName);
+    }
+
+    /** @param method one of the container's methods.
+     * @return cached actor consumer invoking the method on the wrapped container.
+     * @see Lml#ACTOR_CONSUMER_FACTORY */
+    public ActorConsumer<?, ?> getMethodConsumer(final Method method) {
+        ActorConsumer<?, ?> consumer = methodConsumers.get(method);
+        if (consumer == null) {
+            consumer = Lml.ACTOR_CONSUMER_FACTORY.createMethodConsumer(method, actionContainer);
+            methodConsumers.put(method, consumer);
         }
-        return null;
+        return consumer;
     }
 
-    private static Method getDeclaredMethod(final Class<?> containerClass, final String methodName,
-            final Class<?> parameterClass) throws ReflectionException {
-        if (parameterClass == null) {
-            return ClassReflection.getDeclaredMethod(containerClass, methodName);
+    /** @param field one of the container's fields.
+     * @return cached actor consumer returning the field value of the wrapped container. */
+    public ActorConsumer<?, ?> getFieldConsumer(final Field field) {
+        ActorConsumer<?, ?> consumer = fieldConsumers.get(field);
+        if (consumer == null) {
+            consumer = Lml.ACTOR_CONSUMER_FACTORY.createFieldConsumer(field, actionContainer);
+            fieldConsumers.put(field, consumer);
         }
-        return ClassReflection.getDeclaredMethod(containerClass, methodName, parameterClass);
+        return consumer;
     }
 
-    /** @param fieldName name of the field.
-     * @return field with the selected name or null. */
-    public Field getField(final String fieldName) {
-        Class<?> containerClass = actionContainer.getClass();
-        while (containerClass != null) {
+    /** Stores reflection data of a single action container class.
+     *
+     * @author MJ */
+    private static class ActionContainerData {
+        /** Used as key of no-arg methods. */
+        private static final Class<?> NO_PARAMETER = void.class;
+
+        private final Class<?> containerClass;
+        private final ObjectMap<String, Method> annotatedMethods = new IgnoreCaseStringMap<Method>();
+        private final ObjectMap<String, Field> annotatedFields = new IgnoreCaseStringMap<Field>();
+        /** Key: method name; value: map of methods (or nulls, if not found) by their parameter type. */
+        private final ObjectMap<String, ObjectMap<Class<?>, Method>> methods = GdxMaps.newObjectMap();
+        /** Key: field name; value: field or null if not found. */
+        private final ObjectMap<String, Field> fields = GdxMaps.newObjectMap();
+
+        ActionContainerData(final Class<?> containerClass) {
+            this.containerClass = containerClass;
+            mapAnnotatedMethods();
+        }
+
+        private void mapAnnotatedMethods() {
             try {
-                // If this does not throw an exception, the field is found. Null check is not needed.
-                return ClassReflection.getDeclaredField(actionContainer.getClass(), fieldName);
+                Class<?> handledClass = containerClass;
+                while (handledClass != null) {
+                    mapClassMethods(handledClass);
+                    mapClassFields(handledClass);
+                    handledClass = handledClass.getSuperclass();
+                }
             } catch (final Exception exception) {
-                Exceptions.ignore(exception); // Expected. Field unavailable.
+                throw new GdxRuntimeException("Unable to map ActionContainer methods.", exception);
+            }
+        }
+
+        private void mapClassMethods(final Class<?> handledClass) {
+            for (final Method method : ClassReflection.getDeclaredMethods(handledClass)) {
+                final LmlAction actionData = Reflection.getAnnotation(method, LmlAction.class);
+                if (actionData != null) {
+                    final String[] ids = actionData.value();
+                    if (ids.length > 0) {
+                        for (final String actionId : ids) {
+                            annotatedMethods.put(actionId, method);
+                        }
+                    } else {
+                        annotatedMethods.put(method.getName(), method);
+                    }
+                }
+            }
+        }
+
+        private void mapClassFields(final Class<?> handledClass) {
+            if (!Lml.EXTRACT_FIELDS_AS_METHODS) {
+                return;
+            }
+            for (final Field field : ClassReflection.getDeclaredFields(handledClass)) {
+                final LmlAction actionData = Reflection.getAnnotation(field, LmlAction.class);
+                if (actionData != null) {
+                    final String[] ids = actionData.value();
+                    if (ids.length > 0) {
+                        for (final String actionId : ids) {
+                            annotatedFields.put(actionId, field);
+                        }
+                    } else {
+                        annotatedFields.put(field.getName(), field);
+                    }
+                }
+            }
+        }
+
+        /** @return cached method or null if absent. */
+        synchronized Method getMethod(final String methodName, final Class<?> parameterClass) {
+            ObjectMap<Class<?>, Method> methodsByParameter = methods.get(methodName);
+            if (methodsByParameter == null) {
+                methodsByParameter = GdxMaps.newObjectMap();
+                methods.put(methodName, methodsByParameter);
+            }
+            final Class<?> parameterKey = parameterClass == null ? NO_PARAMETER : parameterClass;
+            Method method = methodsByParameter.get(parameterKey);
+            if (method == null && !methodsByParameter.containsKey(parameterKey)) {
+                method = findMethod(methodName, parameterClass);
+                methodsByParameter.put(parameterKey, method);
+            }
+            return method;
+        }
+
+        /** @return method with the selected name and parameter, declared by the container class or its superclasses.
+         *         Null if none found. */
+        private Method findMethod(final String methodName, final Class<?> parameterClass) {
+            Class<?> handledClass = containerClass;
+            while (handledClass != null) {
+                // Checking declared methods instead of catching reflection exceptions on each miss:
+                for (final Method method : ClassReflection.getDeclaredMethods(handledClass)) {
+                    if (method.getName().equals(methodName) && hasParameter(method, parameterClass)) {
+                        return method;
+                    }
+                }
+                handledClass = handledClass.getSuperclass();
+            }
+            return null;
+        }
+
+        private static boolean hasParameter(final Method method, final Class<?> parameterClass) {
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterClass == null) {
+                return parameterTypes == null || parameterTypes.length == 0;
+            }
+            return parameterTypes != null && parameterTypes.length == 1 && parameterTypes[0] == parameterClass;
+        }
+
+        /** @return cached field or null if absent. */
+        synchronized Field getField(final String fieldName) {
+            Field field = fields.get(fieldName);
+            if (field == null && !fields.containsKey(fieldName)) {
+                field = findField(fieldName);
+                fields.put(fieldName, field);
+            }
+            return field;
+        }
+
+        /** @return field with the selected name declared by the container class or its superclasses. Null if none
+         *         found. */
+        private Field findField(final String fieldName) {
+            Class<?> handledClass = containerClass;
+            while (handledClass != null) {
+                for (final Field field : ClassReflection.getDeclaredFields(handledClass)) {
+                    if (field.getName().equals(fieldName)) {
+                        return field;
+                    }
+                }
+                handledClass = handledClass.getSuperclass();
             }
-            containerClass = containerClass.getSuperclass();
+            return null;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
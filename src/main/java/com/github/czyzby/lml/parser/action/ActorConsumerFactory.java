@@ -0,0 +1,23 @@
+package com.github.czyzby.lml.parser.action;
+
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+
+/** Creates {@link ActorConsumer} instances wrapping around methods and fields of {@link ActionContainer}s. Allows to
+ * replace the default reflection-based invocation with a faster, platform-specific implementation. Created consumers
+ * are cached and shared by all actors and parsed actions referencing the same method or field, so they should be
+ * stateless: consumers might be invoked recursively.
+ *
+ * @author MJ
+ * @see com.github.czyzby.lml.util.Lml#ACTOR_CONSUMER_FACTORY */
+public interface ActorConsumerFactory {
+    /** @param method method of the action container. Has one or zero parameters.
+     * @param methodOwner instance of the action container.
+     * @return actor consumer invoking the method on each action usage. */
+    ActorConsumer<?, ?> createMethodConsumer(Method method, Object methodOwner);
+
+    /** @param field field of the action container.
+     * @param fieldOwner instance of the action container.
+     * @return actor consumer returning current field value on each action usage. */
+    ActorConsumer<?, ?> createFieldConsumer(Field field, Object fieldOwner);
+}
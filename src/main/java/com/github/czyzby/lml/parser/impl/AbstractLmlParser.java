@@ -21,8 +21,6 @@ import com.github.czyzby.lml.parser.*;
 import com.github.czyzby.lml.parser.action.ActionContainer;
 import com.github.czyzby.lml.parser.action.ActionContainerWrapper;
 import com.github.czyzby.lml.parser.action.ActorConsumer;
-import com.github.czyzby.lml.parser.impl.action.FieldActorConsumer;
-import com.github.czyzby.lml.parser.impl.action.MethodActorConsumer;
 import com.github.czyzby.lml.util.Lml;
 import com.github.czyzby.lml.util.LmlParsingException;
 import com.github.czyzby.lml.util.LmlUtilities;
@@ -46,6 +44,7 @@ public abstract class AbstractLmlParser implements LmlParser {
     // Settings:
     protected boolean strict;
     protected boolean nestedComments;
+    protected boolean compileTemplates;
     private int debugLines = 3;
 
     // Listeners:
@@ -54,6 +53,11 @@ public abstract class AbstractLmlParser implements LmlParser {
 
     // Cached parsing results:
     protected final ObjectMap<String, Actor> actorsByIds = createActorsByIdsMap();
+    private final ObjectMap<String, CompiledLmlTemplate> compiledTemplates = new ObjectMap<String, CompiledLmlTemplate>();
+
+    // Localization:
+    private LmlBundleBindings bundleBindings;
+    private int parsedBundleLinesAmount;
 
     /** @param data contains skin, actions, i18n bundles and other data needed to parse LML templates.
      * @param syntax determines syntax of LML templates.
@@ -79,6 +83,7 @@ public abstract class AbstractLmlParser implements LmlParser {
     @Override
     public void setStrict(final boolean strict) {
         this.strict = strict;
+        clearCompiledTemplates();
     }
 
     @Override
@@ -89,6 +94,32 @@ public abstract class AbstractLmlParser implements LmlParser {
     @Override
     public void setNestedComments(final boolean nestedComments) {
         this.nestedComments = nestedComments;
+        clearCompiledTemplates();
+    }
+
+    /** @param compileTemplates if true, template files parsed with {@link #parseTemplate(FileHandle)} will be read and
+     *            tokenized only once: they are converted to {@link CompiledLmlTemplate} instances and cached by their
+     *            path and modification time. Further parsing of the same unmodified file will build actors using the
+     *            cached template, resolving only arguments, bundle lines, actions and macros. Defaults to false.
+     * @see #clearCompiledTemplates() */
+    public void setCompileTemplates(final boolean compileTemplates) {
+        this.compileTemplates = compileTemplates;
+        if (!compileTemplates) {
+            clearCompiledTemplates();
+        }
+    }
+
+    /** @return true if template files are compiled and cached.
+     * @see #setCompileTemplates(boolean) */
+    public boolean isCompilingTemplates() {
+        return compileTemplates;
+    }
+
+    /** Removes all cached compiled templates. Since compiled templates store resolved tag providers, this method should
+     * be called after modifying tags or macros registered in the current {@link LmlSyntax}. Invoked automatically when
+     * syntax, strict or nested comments settings are changed. */
+    public void clearCompiledTemplates() {
+        compiledTemplates.clear();
     }
 
     @Override
@@ -114,6 +145,7 @@ public abstract class AbstractLmlParser implements LmlParser {
     @Override
     public void setSyntax(final LmlSyntax lmlSyntax) {
         syntax = lmlSyntax;
+        clearCompiledTemplates();
     }
 
     @Override
@@ -180,10 +212,46 @@ public abstract class AbstractLmlParser implements LmlParser {
 
     @Override
     public Array<Actor> parseTemplate(final FileHandle lmlTemplateFile) {
+        if (compileTemplates) {
+            return parseCompiledTemplate(getCompiledTemplate(lmlTemplateFile));
+        }
         templateReader.append(lmlTemplateFile);
         return parseTemplate();
     }
 
+    /** @param lmlTemplateFile will be compiled if not cached yet or modified since the last compiling.
+     * @return cached, compiled template. */
+    protected CompiledLmlTemplate getCompiledTemplate(final FileHandle lmlTemplateFile) {
+        final String path = lmlTemplateFile.type() + ":" + lmlTemplateFile.path();
+        final long lastModified = lmlTemplateFile.lastModified();
+        CompiledLmlTemplate template = compiledTemplates.get(path);
+        if (template == null || template.getLastModified() != lastModified) {
+            template = new LmlTemplateCompiler(syntax, strict, nestedComments)
+                    .compile(lmlTemplateFile.readString("UTF-8"), lmlTemplateFile.name(), lastModified);
+            compiledTemplates.put(path, template);
+        }
+        return template;
+    }
+
+    /** @param lmlTemplate will be read and tokenized.
+     * @param templateName name of the template for debugging purposes.
+     * @return compiled template, which can be parsed multiple times with {@link #parseCompiledTemplate}. Note that the
+     *         compiled template stores resolved tag providers, so it should be discarded when the syntax changes. */
+    public CompiledLmlTemplate compileTemplate(final String lmlTemplate, final String templateName) {
+        return new LmlTemplateCompiler(syntax, strict, nestedComments).compile(lmlTemplate, templateName, 0L);
+    }
+
+    /** Builds actors using a compiled template. By default, passes the original template source to the reader and
+     * parses it as usual; override to make use of the pre-lexed template data.
+     *
+     * @param template compiled LML template.
+     * @return parsed actors.
+     * @see #compileTemplate(String, String) */
+    public Array<Actor> parseCompiledTemplate(final CompiledLmlTemplate template) {
+        templateReader.append(template.getSource(), template.getName());
+        return parseTemplate();
+    }
+
     @Override
     public void parseStyleSheet(final FileHandle styleSheetFile) {
         parseStyleSheet(styleSheetFile.readString("UTF-8"));
@@ -555,6 +623,7 @@ public abstract class AbstractLmlParser implements LmlParser {
      * @param actor might be required to parse some of the bundle line arguments.
      * @return formatted bundle line. */
     protected String parseBundleLine(final String rawLmlData, final Object actor) {
+        parsedBundleLinesAmount++;
         String bundleKey = LmlUtilities.stripMarker(rawLmlData, syntax.getBundleLineMarker());
         final I18NBundle bundle;
         if (Strings.contains(rawLmlData, syntax.getIdSeparatorMarker())) {
@@ -659,14 +728,14 @@ public abstract class AbstractLmlParser implements LmlParser {
             method = findUnnamedMethod(actionContainer, actionId, forActor);
         }
         if (method != null) {
-            return new MethodActorConsumer(method, actionContainer.getActionContainer());
+            return actionContainer.getMethodConsumer(method);
         } else if (Lml.EXTRACT_FIELDS_AS_METHODS) {
             Field field = actionContainer.getNamedField(actionId);
             if (field == null && Lml.EXTRACT_UNANNOTATED_METHODS) {
                 field = actionContainer.getField(actionId);
             }
             if (field != null) {
-                return new FieldActorConsumer(field, actionContainer.getActionContainer());
+                return actionContainer.getFieldConsumer(field);
             }
         }
         return null;
@@ -820,6 +889,24 @@ public abstract class AbstractLmlParser implements LmlParser {
         return parseInt(rawData, forActor);
     }
 
+    /** @param bundleBindings if not null, widget properties parsed from bundle lines will be recorded in this table,
+     *            allowing to re-localize parsed widgets without recreating them. Null by default.
+     * @see LmlBundleBindings#relocalize(LmlParser) */
+    public void setBundleBindings(final LmlBundleBindings bundleBindings) {
+        this.bundleBindings = bundleBindings;
+    }
+
+    /** @return current binding table of properties parsed from bundle lines. Might be null. */
+    public LmlBundleBindings getBundleBindings() {
+        return bundleBindings;
+    }
+
+    /** @return total amount of bundle lines parsed by this parser. Compared before and after parsing a property to
+     *         check whether it depends on the current bundles. */
+    public int getParsedBundleLinesAmount() {
+        return parsedBundleLinesAmount;
+    }
+
     @Override
     public ObjectMap<String, Actor> getActorsMappedByIds() {
         return actorsByIds;
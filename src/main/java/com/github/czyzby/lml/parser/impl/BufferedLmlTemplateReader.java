@@ -0,0 +1,465 @@
+package com.github.czyzby.lml.parser.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.pooled.PooledList;
+import com.github.czyzby.lml.parser.LmlTemplateReader;
+
+/** Template reader that streams template files in fixed-size chunks rather than loading them into memory as a whole.
+ * Appended char sequences are still stored as they are. Keeps an amount of currently buffered characters, so most
+ * look-ups of additional characters do not have to iterate over queued template parts. Use this reader if you parse
+ * very large templates; for most applications, {@link DefaultLmlTemplateReader} will be more than enough.
+ *
+ * <p>
+ * Note that since files are not fully loaded, {@link #getCurrentSequence()} and {@link #getOriginalSequence()} return
+ * only the currently buffered parts of streamed templates - which will be reflected in error messages.
+ *
+ * @author MJ
+ * @see com.github.czyzby.lml.util.LmlParserBuilder#templateReader(LmlTemplateReader) */
+public class BufferedLmlTemplateReader implements LmlTemplateReader {
+    /** Default size of the buffer used to read template files. */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    protected final PooledList<TemplateEntry> entriesQueue = new PooledList<TemplateEntry>();
+    private final int chunkSize;
+    private final String charset;
+
+    /** First entry appended to the reader since the time it was empty. Used to determine current line number. */
+    protected TemplateEntry originalEntry;
+    protected TemplateEntry currentEntry;
+    /** Amount of characters buffered by the current and all queued entries. */
+    private int bufferedCharacters;
+    /** Amount of current and queued entries which might still read more characters. */
+    private int openStreams;
+
+    /** Creates a new reader with default chunk size, reading files with UTF-8 encoding. */
+    public BufferedLmlTemplateReader() {
+        this(DEFAULT_CHUNK_SIZE, "UTF-8");
+    }
+
+    /** @param chunkSize amount of characters read from template files at once.
+     * @param charset encoding of the template files. */
+    public BufferedLmlTemplateReader(final int chunkSize, final String charset) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size has to be positive.");
+        }
+        this.chunkSize = chunkSize;
+        this.charset = charset;
+    }
+
+    @Override
+    public void append(final char[] template) {
+        if (template != null && template.length > 0) {
+            appendEntry(new SequenceEntry(new String(template), null));
+        }
+    }
+
+    @Override
+    public void append(final String template) {
+        append((CharSequence) template);
+    }
+
+    @Override
+    public void append(final String template, final String templateName) {
+        append((CharSequence) template, templateName);
+    }
+
+    @Override
+    public void append(final CharSequence template) {
+        append(template, null);
+    }
+
+    @Override
+    public void append(final CharSequence template, final String templateName) {
+        if (Strings.isNotEmpty(template)) {
+            appendEntry(new SequenceEntry(template, templateName));
+        }
+    }
+
+    @Override
+    public void append(final FileHandle templateFile) {
+        append(templateFile.reader(charset), templateFile.name());
+    }
+
+    /** @param templateReader will be read in chunks and become currently parsed part of the template. Will be closed
+     *            once fully read or when this reader is cleared.
+     * @param templateName name of the template for debugging purposes. */
+    public void append(final Reader templateReader, final String templateName) {
+        appendEntry(new StreamEntry(templateReader, templateName, chunkSize));
+        openStreams++;
+    }
+
+    /** @param entry will be set as currently parsed entry. */
+    protected void appendEntry(final TemplateEntry entry) {
+        if (currentEntry != null) {
+            entriesQueue.addFirst(currentEntry);
+        }
+        setCurrentEntry(entry);
+        bufferedCharacters += entry.charsLeft();
+    }
+
+    /** @param entry becomes currently parsed entry. */
+    protected void setCurrentEntry(final TemplateEntry entry) {
+        currentEntry = entry;
+        if (entry == null) {
+            originalEntry = null;
+        } else if (originalEntry == null) {
+            originalEntry = entry;
+        }
+    }
+
+    /** @param entry will attempt to buffer at least this many characters.
+     * @param minimum amount of characters that should be available.
+     * @return amount of characters available in the entry after reading. */
+    private int fill(final TemplateEntry entry, final int minimum) {
+        final int available = entry.charsLeft();
+        if (available >= minimum || entry.isExhausted()) {
+            return available;
+        }
+        final int read = entry.fill(minimum);
+        bufferedCharacters += read;
+        if (entry.isExhausted()) {
+            openStreams--;
+        }
+        return entry.charsLeft();
+    }
+
+    @Override
+    public boolean hasNextCharacter() {
+        return hasNextCharacter(0);
+    }
+
+    @Override
+    public boolean hasNextCharacter(final int additionalIndexes) {
+        if (currentEntry == null) {
+            return false;
+        } else if (bufferedCharacters > additionalIndexes) {
+            return true;
+        } else if (openStreams == 0) {
+            return false;
+        }
+        int indexesLeft = additionalIndexes - fill(currentEntry, additionalIndexes + 1);
+        if (indexesLeft < 0) {
+            return true;
+        }
+        for (final TemplateEntry entry : entriesQueue) {
+            indexesLeft -= fill(entry, indexesLeft + 1);
+            if (indexesLeft < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public char nextCharacter() {
+        while (fill(currentEntry, 1) == 0) {
+            setCurrentEntry(entriesQueue.removeFirst());
+        }
+        bufferedCharacters--;
+        final char character = currentEntry.nextChar();
+        if (character == '\n') {
+            currentEntry.incrementLine();
+        }
+        return character;
+    }
+
+    @Override
+    public char peekCharacter() {
+        return peekCharacter(0);
+    }
+
+    @Override
+    public char peekCharacter(final int additionalIndexes) {
+        int indexesLeft = additionalIndexes;
+        int charactersLeft = fill(currentEntry, indexesLeft + 1);
+        if (charactersLeft > indexesLeft) {
+            return currentEntry.peekChar(indexesLeft);
+        }
+        indexesLeft -= charactersLeft;
+        for (final TemplateEntry entry : entriesQueue) {
+            charactersLeft = fill(entry, indexesLeft + 1);
+            if (charactersLeft > indexesLeft) {
+                return entry.peekChar(indexesLeft);
+            }
+            indexesLeft -= charactersLeft;
+        }
+        throw new IllegalStateException(
+                "Not enough characters left to peek value with: " + additionalIndexes + " additional indexes.");
+    }
+
+    @Override
+    public boolean startsWith(final CharSequence value) {
+        if (!hasNextCharacter(value.length() - 1)) {
+            return false;
+        }
+        for (int index = 0, length = value.length(); index < length; index++) {
+            if (peekCharacter(index) != value.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getCurrentLine() {
+        return originalEntry == null ? 0 : originalEntry.getLine();
+    }
+
+    @Override
+    public int getCurrentSequenceLine() {
+        return currentEntry == null ? 0 : currentEntry.getLine();
+    }
+
+    @Override
+    public String getCurrentTemplateName() {
+        return originalEntry == null ? null : originalEntry.getName();
+    }
+
+    @Override
+    public String getCurrentSequenceName() {
+        return currentEntry == null ? null : currentEntry.getName();
+    }
+
+    @Override
+    public String getCurrentSequence() {
+        return currentEntry == null ? null : currentEntry.toString();
+    }
+
+    @Override
+    public String getOriginalSequence() {
+        return originalEntry == null ? null : originalEntry.toString();
+    }
+
+    @Override
+    public boolean isParsingOriginalTemplate() {
+        return currentEntry == originalEntry && originalEntry != null;
+    }
+
+    @Override
+    public void clear() {
+        if (currentEntry != null) {
+            currentEntry.close();
+        }
+        for (final TemplateEntry entry : entriesQueue) {
+            entry.close();
+        }
+        currentEntry = null;
+        originalEntry = null;
+        entriesQueue.clear();
+        bufferedCharacters = 0;
+        openStreams = 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Currently parsing: ");
+        appendDebugMessage(builder, originalEntry);
+        // Slow, but this is for debug only.
+        final Array<TemplateEntry> entries = GdxArrays.newArray(entriesQueue);
+        for (int index = entriesQueue.size() - 2; index >= 0; index--) {
+            builder.append("\nWhich spawned:");
+            appendDebugMessage(builder, entries.get(index));
+        }
+        if (currentEntry != originalEntry) {
+            builder.append("\nWhich spawned:");
+            appendDebugMessage(builder, currentEntry);
+        }
+        return builder.toString();
+    }
+
+    private static void appendDebugMessage(final StringBuilder builder, final TemplateEntry entry) {
+        builder.append('\n').append(entry.getName()).append(": line ").append(entry.getLine())
+                .append(" of template part: \n").append(entry);
+    }
+
+    /** Data container for a single template part.
+     *
+     * @author MJ */
+    protected abstract static class TemplateEntry {
+        private final String name;
+        private int line = 1; // Counting lines from 1 is more natural to humans.
+
+        public TemplateEntry(final String name) {
+            this.name = name;
+        }
+
+        /** @return next buffered character. Modifies iteration index. */
+        public abstract char nextChar();
+
+        /** @param additionalIndexes will be added to the iteration index. Has to be lower than {@link #charsLeft()}.
+         * @return buffered character at the selected position. */
+        public abstract char peekChar(int additionalIndexes);
+
+        /** @return amount of buffered, unparsed characters. */
+        public abstract int charsLeft();
+
+        /** @return true if the entry cannot read any more characters. */
+        public abstract boolean isExhausted();
+
+        /** @param minimum amount of characters that should be buffered after reading.
+         * @return amount of newly read characters. */
+        public abstract int fill(int minimum);
+
+        /** Releases any resources held by the entry. */
+        public abstract void close();
+
+        /** Increments lines count. */
+        public void incrementLine() {
+            line++;
+        }
+
+        /** @return currently parsed line of the entry. */
+        public int getLine() {
+            return line;
+        }
+
+        /** @return name of the template. */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** Wraps around a fully loaded char sequence.
+     *
+     * @author MJ */
+    protected static class SequenceEntry extends TemplateEntry {
+        private final CharSequence sequence;
+        private final int length;
+        private int index;
+
+        public SequenceEntry(final CharSequence sequence, final String name) {
+            super(name);
+            this.sequence = sequence;
+            length = sequence.length();
+        }
+
+        @Override
+        public char nextChar() {
+            return sequence.charAt(index++);
+        }
+
+        @Override
+        public char peekChar(final int additionalIndexes) {
+            return sequence.charAt(index + additionalIndexes);
+        }
+
+        @Override
+        public int charsLeft() {
+            return length - index;
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return true;
+        }
+
+        @Override
+        public int fill(final int minimum) {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return sequence.toString();
+        }
+    }
+
+    /** Reads characters from a {@link Reader} in chunks. Only a single chunk (or a bit more, if a longer look-up is
+     * requested) is kept in memory at once.
+     *
+     * @author MJ */
+    protected static class StreamEntry extends TemplateEntry {
+        private final Reader reader;
+        private char[] buffer;
+        private int index;
+        private int length;
+        private boolean exhausted;
+
+        public StreamEntry(final Reader reader, final String name, final int chunkSize) {
+            super(name);
+            this.reader = reader;
+            buffer = new char[chunkSize];
+        }
+
+        @Override
+        public char nextChar() {
+            return buffer[index++];
+        }
+
+        @Override
+        public char peekChar(final int additionalIndexes) {
+            return buffer[index + additionalIndexes];
+        }
+
+        @Override
+        public int charsLeft() {
+            return length - index;
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        @Override
+        public int fill(final int minimum) {
+            compact(minimum);
+            int read = 0;
+            try {
+                while (charsLeft() < minimum) {
+                    final int chunk = reader.read(buffer, length, buffer.length - length);
+                    if (chunk < 0) {
+                        close();
+                        break;
+                    }
+                    length += chunk;
+                    read += chunk;
+                }
+            } catch (final IOException exception) {
+                close();
+                throw new GdxRuntimeException("Unable to read template: " + getName(), exception);
+            }
+            return read;
+        }
+
+        /** Moves unparsed characters to the beginning of the buffer, growing it if necessary.
+         *
+         * @param minimum amount of characters that should fit in the buffer. */
+        private void compact(final int minimum) {
+            final int charsLeft = charsLeft();
+            if (minimum > buffer.length) {
+                final char[] newBuffer = new char[minimum];
+                System.arraycopy(buffer, index, newBuffer, 0, charsLeft);
+                buffer = newBuffer;
+            } else if (index > 0) {
+                System.arraycopy(buffer, index, buffer, 0, charsLeft);
+            }
+            index = 0;
+            length = charsLeft;
+        }
+
+        @Override
+        public void close() {
+            exhausted = true;
+            StreamUtils.closeQuietly(reader);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, index, charsLeft());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.czyzby.lml.parser.impl;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.kiwi.util.gdx.collection.immutable.ImmutableArray;
+import com.github.czyzby.lml.parser.tag.LmlTagProvider;
+
+/** Immutable, pre-lexed form of a LML template. Stores static text runs, tags with resolved tag providers and macros
+ * with their unparsed content, so the template does not have to be read and tokenized character by character each
+ * time it is built. Parts of the template that depend on arguments, equations or conditions cannot be resolved in
+ * advance and are kept as raw template parts, which are passed to the template reader during each build.
+ *
+ * @author MJ
+ * @see LmlTemplateCompiler
+ * @see AbstractLmlParser#setCompileTemplates(boolean) */
+public class CompiledLmlTemplate {
+    private final String name;
+    private final String source;
+    private final long lastModified;
+    private final Array<Instruction> instructions;
+
+    /** @param name name of the template, used for debugging purposes.
+     * @param source original content of the template.
+     * @param lastModified modification time of the template file. Used to validate cached templates.
+     * @param instructions pre-lexed template entities, in the order of their appearance. Will be copied. */
+    public CompiledLmlTemplate(final String name, final String source, final long lastModified,
+            final Array<Instruction> instructions) {
+        this.name = name;
+        this.source = source;
+        this.lastModified = lastModified;
+        this.instructions = ImmutableArray.copyOf(instructions);
+    }
+
+    /** @return name of the template, used for debugging purposes. */
+    public String getName() {
+        return name;
+    }
+
+    /** @return original content of the template. */
+    public String getSource() {
+        return source;
+    }
+
+    /** @return modification time of the template file at the moment of compiling. */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /** @return immutable array of pre-lexed template entities, in the order of their appearance. */
+    public Array<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /** Determines how the instruction should be handled by the parser.
+     *
+     * @author MJ */
+    public static enum InstructionType {
+        /** Plain text between tags. Appended to the data between tags. */
+        TEXT,
+        /** Raw template part that cannot be pre-lexed - for example, it contains arguments. Passed to the template
+         * reader and parsed as usual. */
+        TEMPLATE,
+        /** Opening or immediately closed regular tag. */
+        TAG,
+        /** Closing tag of a regular parental tag. */
+        CLOSING_TAG,
+        /** Macro tag with its unparsed content. */
+        MACRO;
+    }
+
+    /** Single, pre-lexed template entity.
+     *
+     * @author MJ */
+    public static class Instruction {
+        private final InstructionType type;
+        private final String content;
+        private final String tagName;
+        private final LmlTagProvider tagProvider;
+        private final String dataBetweenTags;
+
+        /** @param type determines how the instruction is handled.
+         * @param content plain text, raw template part or raw tag data, depending on the type.
+         * @param tagName name of the tag with stripped markers. Null if not a tag.
+         * @param tagProvider resolved provider of the tag. Null if not a regular or macro tag.
+         * @param dataBetweenTags unparsed content of a parental macro. Null if not a macro or macro is a child. */
+        public Instruction(final InstructionType type, final String content, final String tagName,
+                final LmlTagProvider tagProvider, final String dataBetweenTags) {
+            this.type = type;
+            this.content = content;
+            this.tagName = tagName;
+            this.tagProvider = tagProvider;
+            this.dataBetweenTags = dataBetweenTags;
+        }
+
+        /** @return determines how the instruction is handled. */
+        public InstructionType getType() {
+            return type;
+        }
+
+        /** @return plain text, raw template part or raw tag data, depending on the instruction type. */
+        public String getContent() {
+            return content;
+        }
+
+        /** @return name of the tag with stripped markers. Null if the instruction does not represent a tag. */
+        public String getTagName() {
+            return tagName;
+        }
+
+        /** @return resolved provider of the tag. Null if the instruction is not a regular or macro tag. */
+        public LmlTagProvider getTagProvider() {
+            return tagProvider;
+        }
+
+        /** @return unparsed content of a parental macro tag. Null if the macro is a child or the instruction is not a
+         *         macro. */
+        public String getDataBetweenTags() {
+            return dataBetweenTags;
+        }
+
+        @Override
+        public String toString() {
+            return type + ": " + content;
+        }
+    }
+}
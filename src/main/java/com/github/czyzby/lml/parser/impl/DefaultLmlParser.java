@@ -6,6 +6,7 @@ import com.github.czyzby.kiwi.util.common.Nullables;
 import com.github.czyzby.kiwi.util.common.Strings;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.lml.parser.*;
+import com.github.czyzby.lml.parser.impl.CompiledLmlTemplate.Instruction;
 import com.github.czyzby.lml.parser.impl.tag.macro.util.Equation;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.parser.tag.LmlTagProvider;
@@ -113,9 +114,85 @@ public class DefaultLmlParser extends AbstractLmlParser {
      *
      * @return actor parsed from LML template currently stored in the template reader. */
     protected Array<Actor> parse() {
+        actors = GdxArrays.newArray(Actor.class);
+        invokePreListeners(actors);
+        processTemplateReader(new StringBuilder());
+        if (currentParentTag != null) {
+            throwError('"' + currentParentTag.getTagName() + "\" tag was never closed.");
+        }
+        invokePortListeners(actors);
+        return actors;
+    }
+
+    @Override
+    public Array<Actor> parseCompiledTemplate(final CompiledLmlTemplate template) {
+        try {
+            return parse(template);
+        } catch (final LmlParsingException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throwError("Unable to build compiled template: " + template.getName(), exception);
+            return null;
+        } finally {
+            currentParentTag = null;
+            templateReader.clear();
+            actors = null;
+        }
+    }
+
+    /** Builds actors using a pre-lexed template. Raw template parts and macro results are read with the template
+     * reader, just like during regular parsing.
+     *
+     * @param template compiled LML template.
+     * @return actors parsed from the template. */
+    protected Array<Actor> parse(final CompiledLmlTemplate template) {
         actors = GdxArrays.newArray(Actor.class);
         invokePreListeners(actors);
         final StringBuilder builder = new StringBuilder();
+        for (final Instruction instruction : template.getInstructions()) {
+            switch (instruction.getType()) {
+                case TEXT:
+                    builder.append(instruction.getContent());
+                    break;
+                case TEMPLATE:
+                    templateReader.append(instruction.getContent(), template.getName());
+                    break;
+                case TAG:
+                    handleDataBetweenTags(builder);
+                    processRegularTag(instruction.getTagProvider(), new StringBuilder(instruction.getContent()));
+                    break;
+                case CLOSING_TAG:
+                    handleDataBetweenTags(builder);
+                    processClosedTag(instruction.getTagName());
+                    break;
+                case MACRO:
+                    handleDataBetweenTags(builder);
+                    processMacro(instruction.getTagProvider(), new StringBuilder(instruction.getContent()),
+                            instruction.getDataBetweenTags());
+                    break;
+            }
+            // Macros and raw template parts might have appended data to the reader:
+            processTemplateReader(builder);
+        }
+        if (currentParentTag != null) {
+            throwError('"' + currentParentTag.getTagName() + "\" tag was never closed.");
+        }
+        invokePortListeners(actors);
+        return actors;
+    }
+
+    /** @param builder contains data between tags. Will be passed to the current parent tag (if any) and cleared. */
+    private void handleDataBetweenTags(final StringBuilder builder) {
+        if (currentParentTag != null) {
+            currentParentTag.handleDataBetweenTags(builder);
+        }
+        Strings.clearBuilder(builder);
+    }
+
+    /** Reads and processes all characters currently stored in the template reader.
+     *
+     * @param builder collects data between tags. Might be passed to the current parent tag. */
+    protected void processTemplateReader(final StringBuilder builder) {
         while (templateReader.hasNextCharacter()) {
             final char character = templateReader.nextCharacter();
             if (character == syntax.getArgumentOpening()) {
@@ -128,20 +205,12 @@ public class DefaultLmlParser extends AbstractLmlParser {
                     continue;
                 }
                 // This is not a comment, since we're there. Parsing a new tag.
-                if (currentParentTag != null) {
-                    currentParentTag.handleDataBetweenTags(builder);
-                }
-                Strings.clearBuilder(builder);
+                handleDataBetweenTags(builder);
                 processTag(builder);
             } else { // Just your regular letter outside of a tag:
                 builder.append(character);
             }
         }
-        if (currentParentTag != null) {
-            throwError('"' + currentParentTag.getTagName() + "\" tag was never closed.");
-        }
-        invokePortListeners(actors);
-        return actors;
     }
 
     /** Found an argument opening sign. Have to find argument's name and replace it in the template. */
@@ -355,7 +424,11 @@ public class DefaultLmlParser extends AbstractLmlParser {
      * @param tagNameEndIndex index in rawTagData at which tag name ends. */
     private void processClosedTag(final StringBuilder rawTagData, final int tagNameEndIndex) {
         // Starting with 1 char to strip '/' marker:
-        final String closedTagName = rawTagData.substring(1, tagNameEndIndex).trim();
+        processClosedTag(rawTagData.substring(1, tagNameEndIndex).trim());
+    }
+
+    /** @param closedTagName name of the currently closed tag, without markers. */
+    private void processClosedTag(final String closedTagName) {
         if (currentParentTag == null) {
             throwErrorIfStrict("There were no open tags, and yet: \"" + closedTagName + "\" is a closed parental tag.");
             return;
@@ -426,6 +499,18 @@ public class DefaultLmlParser extends AbstractLmlParser {
         macroTag.closeTag();
     }
 
+    /** @param tagProvider provider of a pre-lexed macro tag.
+     * @param rawTagData raw data of the macro tag.
+     * @param dataBetweenTags unparsed content of the macro. Null if macro is a child or has no content. */
+    private void processMacro(final LmlTagProvider tagProvider, final StringBuilder rawTagData,
+            final String dataBetweenTags) {
+        final LmlTag macroTag = tagProvider.create(this, currentParentTag, rawTagData);
+        if (macroTag.isParent() && dataBetweenTags != null) {
+            macroTag.handleDataBetweenTags(new StringBuilder(dataBetweenTags));
+        }
+        macroTag.closeTag();
+    }
+
     /** @param charactersAmount amount of characters to be removed from the reader. */
     private void burnCharacters(final int charactersAmount) {
         for (int index = 0; index < charactersAmount; index++) {
@@ -518,6 +603,12 @@ public class DefaultLmlParser extends AbstractLmlParser {
         if (tagProvider == null) {
             throwError("No tag parser found for name: " + tagName);
         }
+        processRegularTag(tagProvider, rawTagData);
+    }
+
+    /** @param tagProvider provider of the parsed tag.
+     * @param rawTagData raw data of a regular widget tag. */
+    private void processRegularTag(final LmlTagProvider tagProvider, final StringBuilder rawTagData) {
         final LmlTag tag = tagProvider.create(this, currentParentTag, rawTagData);
         if (tag.isParent()) {
             currentParentTag = tag;
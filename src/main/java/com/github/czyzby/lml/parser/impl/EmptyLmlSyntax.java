@@ -30,6 +30,16 @@ public class EmptyLmlSyntax implements LmlSyntax {
     /** Key: class of actor builder; value: map with building attributes assigned to the builder (key: attribute name,
      * ignoring case, value: processor). */
     private final ObjectMap<Class<?>, ObjectMap<String, LmlBuildingAttribute<?>>> buildingAttributeProcessors = getLazyMapOfIgnoreCaseMaps();
+    /** Key: concrete class of actor; value: map with attribute processors resolved for the class, including its
+     * superclasses (key: attribute name, as requested; value: processor or null if none found). Cleared each time
+     * attribute processors are modified. */
+    private final ObjectMap<Class<?>, ObjectMap<String, LmlAttribute<?>>> resolvedAttributeProcessors = GdxMaps
+            .newObjectMap();
+    /** Key: concrete class of actor builder; value: map with building attribute processors resolved for the class,
+     * including its superclasses (key: attribute name, as requested; value: processor or null if none found). Cleared
+     * each time building attribute processors are modified. */
+    private final ObjectMap<Class<?>, ObjectMap<String, LmlBuildingAttribute<?>>> resolvedBuildingAttributeProcessors = GdxMaps
+            .newObjectMap();
 
     private final LssSyntax lssSyntax = createLssSyntax();
 
@@ -219,12 +229,30 @@ public class EmptyLmlSyntax implements LmlSyntax {
     @SuppressWarnings("unchecked")
     public <Actor> LmlAttribute<Actor> getAttributeProcessor(final Class<Actor> forActorType,
             final String attributeName) {
+        ObjectMap<String, LmlAttribute<?>> resolvedProcessors = resolvedAttributeProcessors.get(forActorType);
+        if (resolvedProcessors == null) {
+            resolvedProcessors = GdxMaps.newObjectMap();
+            resolvedAttributeProcessors.put(forActorType, resolvedProcessors);
+        }
+        LmlAttribute<?> processor = resolvedProcessors.get(attributeName);
+        if (processor == null && !resolvedProcessors.containsKey(attributeName)) {
+            // Not resolved yet. Null values are cached as well, so unknown attributes are looked up only once.
+            processor = findAttributeProcessor(forActorType, attributeName);
+            resolvedProcessors.put(attributeName, processor);
+        }
+        return (LmlAttribute<Actor>) processor;
+    }
+
+    /** @param forActorType class of the actor. Its superclasses will be checked as well.
+     * @param attributeName name of the attribute.
+     * @return processor of the attribute assigned to the most specific class or null if none registered. */
+    protected LmlAttribute<?> findAttributeProcessor(final Class<?> forActorType, final String attributeName) {
         Class<?> actorClass = forActorType;
         while (actorClass != null) {
             if (attributeProcessors.containsKey(actorClass)) {
                 final ObjectMap<String, LmlAttribute<?>> processors = attributeProcessors.get(actorClass);
                 if (processors.containsKey(attributeName)) {
-                    return (LmlAttribute<Actor>) processors.get(attributeName);
+                    return processors.get(attributeName);
                 }
             }
             actorClass = actorClass.getSuperclass();
@@ -239,24 +267,46 @@ public class EmptyLmlSyntax implements LmlSyntax {
         for (final String name : names) {
             processors.put(name, attributeProcessor);
         }
+        resolvedAttributeProcessors.clear();
     }
 
     @Override
     public void removeAttributeProcessor(final String name, final Class<?> handledActorType) {
         attributeProcessors.get(handledActorType).remove(name);
+        resolvedAttributeProcessors.clear();
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <Builder extends LmlActorBuilder> LmlBuildingAttribute<Builder> getBuildingAttributeProcessor(
             final Builder builder, final String attributeName) {
-        Class<?> builderClass = builder.getClass();
+        final Class<?> builderType = builder.getClass();
+        ObjectMap<String, LmlBuildingAttribute<?>> resolvedProcessors = resolvedBuildingAttributeProcessors
+                .get(builderType);
+        if (resolvedProcessors == null) {
+            resolvedProcessors = GdxMaps.newObjectMap();
+            resolvedBuildingAttributeProcessors.put(builderType, resolvedProcessors);
+        }
+        LmlBuildingAttribute<?> processor = resolvedProcessors.get(attributeName);
+        if (processor == null && !resolvedProcessors.containsKey(attributeName)) {
+            processor = findBuildingAttributeProcessor(builderType, attributeName);
+            resolvedProcessors.put(attributeName, processor);
+        }
+        return (LmlBuildingAttribute<Builder>) processor;
+    }
+
+    /** @param builderType class of the actor builder. Its superclasses will be checked as well.
+     * @param attributeName name of the attribute.
+     * @return processor of the building attribute assigned to the most specific class or null if none registered. */
+    protected LmlBuildingAttribute<?> findBuildingAttributeProcessor(final Class<?> builderType,
+            final String attributeName) {
+        Class<?> builderClass = builderType;
         while (builderClass != null) {
             if (buildingAttributeProcessors.containsKey(builderClass)) {
                 final ObjectMap<String, LmlBuildingAttribute<?>> processors = buildingAttributeProcessors
                         .get(builderClass);
                 if (processors.containsKey(attributeName)) {
-                    return (LmlBuildingAttribute<Builder>) processors.get(attributeName);
+                    return processors.get(attributeName);
                 }
             }
             builderClass = builderClass.getSuperclass();
@@ -272,11 +322,13 @@ public class EmptyLmlSyntax implements LmlSyntax {
         for (final String name : names) {
             processors.put(name, buildingAttributeProcessor);
         }
+        resolvedBuildingAttributeProcessors.clear();
     }
 
     @Override
     public void removeBuildingAttributeProcessor(final String name, final Class<?> handledActorType) {
         buildingAttributeProcessors.get(handledActorType).remove(name);
+        resolvedBuildingAttributeProcessors.clear();
     }
 
     // DTD utility methods:
@@ -0,0 +1,151 @@
+package com.github.czyzby.lml.parser.impl;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.ImageTextButton;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.tag.LmlAttribute;
+import com.github.czyzby.lml.parser.tag.LmlTag;
+
+/** Binding table of widget properties that were parsed from i18n bundle lines. When bindings are set in
+ * {@link AbstractLmlParser#setBundleBindings(LmlBundleBindings)}, the parser records attributes and texts that
+ * referenced bundle lines. After the bundles are replaced in {@link com.github.czyzby.lml.parser.LmlData}, calling
+ * {@link #relocalize(LmlParser)} re-evaluates only these properties: the widgets are not recreated, so their state
+ * (scroll positions, user input, selection) is kept.
+ *
+ * <p>
+ * Bindings keep references to the widgets. They should be cleared with {@link #clear()} when the view is destroyed.
+ *
+ * @author MJ */
+public class LmlBundleBindings {
+    private final Array<Binding> bindings = GdxArrays.newArray();
+
+    /** @param binding will be re-evaluated on each {@link #relocalize(LmlParser)} call. */
+    public void add(final Binding binding) {
+        bindings.add(binding);
+    }
+
+    /** @param widget its attribute was parsed from a bundle line.
+     * @param tag contains the attribute.
+     * @param attributeProcessor handled the attribute. Will be invoked again on locale change only if it implements
+     *            {@link Localized}: other attributes might hold values modified by the user.
+     * @param rawAttributeData unparsed attribute data. */
+    public void bindAttribute(final Object widget, final LmlTag tag, final LmlAttribute<?> attributeProcessor,
+            final String rawAttributeData) {
+        if (attributeProcessor instanceof Localized) {
+            add(new AttributeBinding(widget, tag, attributeProcessor, rawAttributeData));
+        }
+    }
+
+    /** @param actor its text was parsed from the passed lines. Supports {@link Label}, {@link TextButton} and
+     *            {@link ImageTextButton}; other actors are ignored.
+     * @param rawTextLines unparsed text lines. At least one should reference a bundle line.
+     * @param multiline if true, lines are separated with new line characters. */
+    public void bindText(final Actor actor, final Array<String> rawTextLines, final boolean multiline) {
+        if (actor instanceof Label || actor instanceof TextButton || actor instanceof ImageTextButton) {
+            add(new TextBinding(actor, rawTextLines, multiline));
+        }
+    }
+
+    /** Re-evaluates all bindings. Should be called after the bundles are reloaded.
+     *
+     * @param parser contains the current bundles. */
+    public void relocalize(final LmlParser parser) {
+        for (final Binding binding : bindings) {
+            binding.relocalize(parser);
+        }
+    }
+
+    /** @return amount of recorded bindings. */
+    public int getSize() {
+        return bindings.size;
+    }
+
+    /** @return true if no properties were bound. */
+    public boolean isEmpty() {
+        return bindings.size == 0;
+    }
+
+    /** Removes all bindings, releasing widget references. */
+    public void clear() {
+        bindings.clear();
+    }
+
+    /** Represents a single widget property that depends on the current bundles.
+     *
+     * @author MJ */
+    public static interface Binding {
+        /** @param parser contains the current bundles. Should be used to parse the property again. */
+        void relocalize(LmlParser parser);
+    }
+
+    /** Marker interface for attribute processors that only set a displayed text of the widget, such as a window title
+     * or a text field message, and can be safely invoked multiple times. Only such attributes are bound: other
+     * attributes might attach listeners or set values that could have been modified by the user, like the text of a
+     * text field.
+     *
+     * @author MJ */
+    public static interface Localized {
+    }
+
+    /** Invokes the attribute processor again with the original attribute data.
+     *
+     * @author MJ */
+    private static class AttributeBinding implements Binding {
+        private final Object widget;
+        private final LmlTag tag;
+        private final LmlAttribute<Object> attributeProcessor;
+        private final String rawAttributeData;
+
+        @SuppressWarnings("unchecked")
+        public AttributeBinding(final Object widget, final LmlTag tag, final LmlAttribute<?> attributeProcessor,
+                final String rawAttributeData) {
+            this.widget = widget;
+            this.tag = tag;
+            this.attributeProcessor = (LmlAttribute<Object>) attributeProcessor;
+            this.rawAttributeData = rawAttributeData;
+        }
+
+        @Override
+        public void relocalize(final LmlParser parser) {
+            attributeProcessor.process(parser, tag, widget, rawAttributeData);
+        }
+    }
+
+    /** Parses the text lines again and replaces the text of the actor.
+     *
+     * @author MJ */
+    private static class TextBinding implements Binding {
+        private final Actor actor;
+        private final String[] rawTextLines;
+        private final boolean multiline;
+
+        public TextBinding(final Actor actor, final Array<String> rawTextLines, final boolean multiline) {
+            this.actor = actor;
+            this.rawTextLines = rawTextLines.toArray(String.class);
+            this.multiline = multiline;
+        }
+
+        @Override
+        public void relocalize(final LmlParser parser) {
+            final StringBuilder builder = new StringBuilder();
+            for (final String rawTextLine : rawTextLines) {
+                if (multiline && builder.length() > 0) {
+                    builder.append('\n');
+                }
+                builder.append(parser.parseString(rawTextLine, actor));
+            }
+            final String text = builder.toString();
+            if (actor instanceof Label) {
+                ((Label) actor).setText(text);
+            } else if (actor instanceof TextButton) {
+                ((TextButton) actor).setText(text);
+            } else if (actor instanceof ImageTextButton) {
+                ((ImageTextButton) actor).setText(text);
+            }
+        }
+    }
+}
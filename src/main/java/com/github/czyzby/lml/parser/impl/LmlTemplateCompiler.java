@@ -0,0 +1,360 @@
+package com.github.czyzby.lml.parser.impl;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.lml.parser.LmlSyntax;
+import com.github.czyzby.lml.parser.impl.CompiledLmlTemplate.Instruction;
+import com.github.czyzby.lml.parser.impl.CompiledLmlTemplate.InstructionType;
+import com.github.czyzby.lml.parser.tag.LmlTagProvider;
+import com.github.czyzby.lml.util.LmlUtilities;
+
+/** Converts LML templates into {@link CompiledLmlTemplate} instances. Follows the same lexing rules as
+ * {@link DefaultLmlParser}, but does not evaluate anything: comments are removed, static tags have their names and
+ * providers resolved, macros have their content extracted. Tags and text containing arguments are left as raw template
+ * parts; macros with arguments in their opening tags are stored as a single raw part along with their content. If the
+ * template seems invalid (unclosed or unknown tags, etc.), the rest of the template is also left as a raw template
+ * part, so the parser can report the error with the usual debugging data.
+ *
+ * <p>
+ * Note that tag providers are resolved at compile time, so compiled templates should be cleared after modifying
+ * registered tags and macros of the syntax.
+ *
+ * @author MJ */
+public class LmlTemplateCompiler {
+    private final LmlSyntax syntax;
+    private final boolean strict;
+    private final boolean nestedComments;
+
+    /** @param syntax determines syntax of the compiled templates.
+     * @param strict if false, macro closing tags are matched ignoring case.
+     * @param nestedComments if true, comments inside comments have to be closed. */
+    public LmlTemplateCompiler(final LmlSyntax syntax, final boolean strict, final boolean nestedComments) {
+        this.syntax = syntax;
+        this.strict = strict;
+        this.nestedComments = nestedComments;
+    }
+
+    /** @param template raw LML template.
+     * @param name name of the template, used for debugging.
+     * @param lastModified modification time of the template file.
+     * @return compiled template. */
+    public CompiledLmlTemplate compile(final String template, final String name, final long lastModified) {
+        final Array<Instruction> instructions = GdxArrays.newArray(Instruction.class);
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder tag = new StringBuilder();
+        final int length = template.length();
+        int index = 0;
+        while (index < length) {
+            final char character = template.charAt(index);
+            if (character == syntax.getArgumentOpening()) {
+                // Arguments have to be evaluated during each build.
+                flushText(instructions, text);
+                final int argumentEnd = findArgumentEnd(template, index + 1);
+                addTemplatePart(instructions, template.substring(index, argumentEnd));
+                index = argumentEnd;
+            } else if (character == syntax.getTagOpening()) {
+                if (isCommentOpening(template, index + 1)) {
+                    index = skipComment(template, index + 1);
+                    continue;
+                }
+                flushText(instructions, text);
+                final int tagEnd = processTag(template, index, tag, instructions);
+                if (tagEnd < 0) {
+                    // Unable to pre-lex the tag. Leaving the rest of the template to the parser.
+                    addTemplatePart(instructions, template.substring(index));
+                    break;
+                }
+                index = tagEnd;
+            } else {
+                text.append(character);
+                index++;
+            }
+        }
+        flushText(instructions, text);
+        return new CompiledLmlTemplate(name, template, lastModified, instructions);
+    }
+
+    private static void flushText(final Array<Instruction> instructions, final StringBuilder text) {
+        if (text.length() > 0) {
+            instructions.add(new Instruction(InstructionType.TEXT, Strings.getAndClear(text), null, null, null));
+        }
+    }
+
+    private static void addTemplatePart(final Array<Instruction> instructions, final String templatePart) {
+        instructions.add(new Instruction(InstructionType.TEMPLATE, templatePart, null, null, null));
+    }
+
+    /** @param template compiled template.
+     * @param index index of the first character after argument opening.
+     * @return index after the argument closing or template's length if argument is not closed. */
+    private int findArgumentEnd(final String template, final int index) {
+        final int closingIndex = template.indexOf(syntax.getArgumentClosing(), index);
+        return Strings.isCharacterAbsent(closingIndex) ? template.length() : closingIndex + 1;
+    }
+
+    /** @param template compiled template.
+     * @param index index of the character right after tag opening.
+     * @return true if a comment is opened at the selected index. */
+    private boolean isCommentOpening(final String template, final int index) {
+        return index < template.length() && (template.charAt(index) == syntax.getCommentOpening()
+                || template.charAt(index) == syntax.getSchemaCommentMarker());
+    }
+
+    /** @param character possible comment closing.
+     * @return true if the character is a standard or schema comment closing. */
+    private boolean isCommentClosing(final char character) {
+        return syntax.getCommentClosing() == character || syntax.getSchemaCommentMarker() == character;
+    }
+
+    /** @param template compiled template.
+     * @param index index of the comment opening marker.
+     * @return index of the first character after the comment. */
+    private int skipComment(final String template, int index) {
+        final int length = template.length();
+        index++; // Burning comment opening char.
+        if (template.startsWith(syntax.getDocumentTypeOpening(), index)) {
+            index += syntax.getDocumentTypeOpening().length();
+            int tagsOpened = 1;
+            while (index < length) {
+                final char character = template.charAt(index++);
+                if (character == syntax.getTagOpening()) {
+                    tagsOpened++;
+                } else if (character == syntax.getTagClosing() && --tagsOpened == 0) {
+                    break;
+                }
+            }
+            return index;
+        }
+        int nestedCommentsAmount = 1;
+        while (index < length) {
+            final char character = template.charAt(index++);
+            if (isCommentClosing(character) && index < length && template.charAt(index) == syntax.getTagClosing()) {
+                index++; // Polling tag closing.
+                if (!nestedComments || --nestedCommentsAmount == 0) {
+                    break;
+                }
+            }
+            if (nestedComments && character == syntax.getTagOpening() && isCommentOpening(template, index)) {
+                index++; // Polling comment opening marker.
+                nestedCommentsAmount++;
+            }
+        }
+        return index;
+    }
+
+    /** @param template compiled template.
+     * @param tagOpeningIndex index of the tag opening character.
+     * @param tag helper builder. Will be cleared.
+     * @param instructions will contain the tag instruction.
+     * @return index of the first character after the tag (or tag content, in case of macros) or -1 if the tag cannot be
+     *         pre-lexed. */
+    private int processTag(final String template, final int tagOpeningIndex, final StringBuilder tag,
+            final Array<Instruction> instructions) {
+        Strings.clearBuilder(tag);
+        final int length = template.length();
+        boolean started = false;
+        boolean containsArguments = false;
+        int index = tagOpeningIndex + 1;
+        while (index < length) {
+            final char character = template.charAt(index);
+            if (!started && Strings.isWhitespace(character)) {
+                index++;
+                continue;
+            }
+            started = true;
+            if (character == syntax.getArgumentOpening()) {
+                containsArguments = true;
+                final int argumentEnd = findArgumentEnd(template, index + 1);
+                tag.append(template, index, argumentEnd);
+                index = argumentEnd;
+            } else if (character == syntax.getTagOpening() && isCommentOpening(template, index + 1)) {
+                index = skipComment(template, index + 1);
+            } else if (character == syntax.getTagClosing()) {
+                index++;
+                if (containsArguments) {
+                    // Tag data has to be evaluated during each build.
+                    return addTagWithArguments(template, tagOpeningIndex, index, tag.toString(), instructions);
+                }
+                return processTagEntity(template, index, tag.toString(), instructions);
+            } else {
+                tag.append(character);
+                index++;
+            }
+        }
+        return -1; // Unclosed tag.
+    }
+
+    /** @param template compiled template.
+     * @param tagOpeningIndex index of the tag opening character.
+     * @param index index of the first character after the tag.
+     * @param rawTagData collected tag data. Contains arguments.
+     * @param instructions will contain the raw template part.
+     * @return index of the first character after the tag (or macro closing tag, in case of macros with content) or -1
+     *         if unable to process. */
+    private int addTagWithArguments(final String template, final int tagOpeningIndex, final int index,
+            final String rawTagData, final Array<Instruction> instructions) {
+        if (!Strings.startsWith(rawTagData, syntax.getMacroMarker())
+                || Strings.endsWith(rawTagData.trim(), syntax.getClosedTagMarker())) {
+            // Regular tag or a macro without content.
+            addTemplatePart(instructions, template.substring(tagOpeningIndex, index));
+            return index;
+        }
+        // Macro content is read directly by the macro, so the whole macro has to be stored as a single template part.
+        final String macroName = rawTagData.substring(1, getTagNameEndIndex(rawTagData)).trim();
+        final int closingTagIndex = findMacroClosingTag(template, index, macroName);
+        if (closingTagIndex < 0) {
+            return -1;
+        }
+        final int macroEnd = closingTagIndex + 1 + isSameMacroTagName(template, closingTagIndex + 1, macroName);
+        addTemplatePart(instructions, template.substring(tagOpeningIndex, macroEnd));
+        return macroEnd;
+    }
+
+    /** @param template compiled template.
+     * @param index index of the first character after the tag.
+     * @param rawTagData collected tag data.
+     * @param instructions will contain the tag instruction.
+     * @return index of the first character after the tag or its content or -1 if unable to process. */
+    private int processTagEntity(final String template, final int index, final String rawTagData,
+            final Array<Instruction> instructions) {
+        final int tagNameEndIndex = getTagNameEndIndex(rawTagData);
+        if (Strings.startsWith(rawTagData, syntax.getClosedTagMarker())) {
+            final String closedTagName = rawTagData.substring(1, tagNameEndIndex).trim();
+            instructions.add(new Instruction(InstructionType.CLOSING_TAG, rawTagData, closedTagName, null, null));
+            return index;
+        } else if (Strings.startsWith(rawTagData, syntax.getMacroMarker())) {
+            final String macroName = LmlUtilities
+                    .stripEnding(rawTagData.substring(1, tagNameEndIndex), syntax.getClosedTagMarker()).trim();
+            final LmlTagProvider tagProvider = syntax.getMacroTagProvider(macroName);
+            if (tagProvider == null) {
+                return -1;
+            }
+            if (Strings.endsWith(rawTagData.trim(), syntax.getClosedTagMarker())) {
+                // Macro is a child - it has no content.
+                instructions.add(new Instruction(InstructionType.MACRO, rawTagData, macroName, tagProvider, null));
+                return index;
+            }
+            return processMacroContent(template, index, rawTagData, macroName, tagProvider, instructions);
+        }
+        final String tagName = LmlUtilities
+                .stripEnding(rawTagData.substring(0, tagNameEndIndex), syntax.getClosedTagMarker()).trim();
+        final LmlTagProvider tagProvider = syntax.getTagProvider(tagName);
+        if (tagProvider == null) {
+            return -1;
+        }
+        instructions.add(new Instruction(InstructionType.TAG, rawTagData, tagName, tagProvider, null));
+        return index;
+    }
+
+    /** @param rawTagData unparsed LML tag data.
+     * @return index that marks the end of tag's name. */
+    private static int getTagNameEndIndex(final String rawTagData) {
+        for (int index = 0, length = rawTagData.length(); index < length; index++) {
+            if (Strings.isWhitespace(rawTagData.charAt(index))) {
+                return index;
+            }
+        }
+        return rawTagData.length();
+    }
+
+    /** @return index of the first character after macro closing tag or -1 if macro is not closed. */
+    private int processMacroContent(final String template, final int contentStartIndex, final String rawTagData,
+            final String macroName, final LmlTagProvider tagProvider, final Array<Instruction> instructions) {
+        final int closingTagIndex = findMacroClosingTag(template, contentStartIndex, macroName);
+        if (closingTagIndex < 0) {
+            return -1;
+        }
+        final String content = template.substring(contentStartIndex, closingTagIndex);
+        instructions.add(new Instruction(InstructionType.MACRO, rawTagData, macroName, tagProvider,
+                Strings.isEmpty(content) ? null : content));
+        return closingTagIndex + 1 + isSameMacroTagName(template, closingTagIndex + 1, macroName);
+    }
+
+    /** @param template compiled template.
+     * @param contentStartIndex index of the first character after the macro opening tag.
+     * @param macroName name of the macro.
+     * @return index of the tag opening character of the matching macro closing tag or -1 if macro is not closed. */
+    private int findMacroClosingTag(final String template, final int contentStartIndex, final String macroName) {
+        final int length = template.length();
+        int sameNameNestedMacrosAmount = 1;
+        for (int index = contentStartIndex; index < length; index++) {
+            if (template.charAt(index) != syntax.getTagOpening() || index + 1 >= length) {
+                continue;
+            }
+            final char nextCharacter = template.charAt(index + 1);
+            if (nextCharacter == syntax.getClosedTagMarker()) {
+                if (isSameMacroTagName(template, index + 1, macroName) > -1 && --sameNameNestedMacrosAmount == 0) {
+                    return index;
+                }
+            } else if (nextCharacter == syntax.getMacroMarker()) {
+                if (isSameMacroTagName(template, index + 1, macroName) > -1) {
+                    sameNameNestedMacrosAmount++;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** @param template compiled template.
+     * @param index index of the first character after tag opening.
+     * @param macroName name of the currently processed macro.
+     * @return amount of characters that make up the rest of the tag (after the opening) if it is a macro with the same
+     *         name or -1. */
+    private int isSameMacroTagName(final String template, final int index, final String macroName) {
+        final int length = template.length();
+        int additionalIndexes = 0;
+        if (template.charAt(index) == syntax.getClosedTagMarker()) {
+            additionalIndexes++;
+        }
+        if (index + additionalIndexes >= length
+                || template.charAt(index + additionalIndexes++) != syntax.getMacroMarker()) {
+            return -1;
+        }
+        final int nameStartIndex = index + additionalIndexes;
+        while (index + additionalIndexes < length) {
+            final char character = template.charAt(index + additionalIndexes++);
+            if (character == syntax.getTagClosing() || character == syntax.getClosedTagMarker()
+                    || Strings.isWhitespace(character)) {
+                if ((Strings.isWhitespace(character) || character == syntax.getClosedTagMarker())
+                        && isMacroTagChild(template, index + additionalIndexes - 1)) {
+                    return -1;
+                }
+                final String tagName = template.substring(nameStartIndex, index + additionalIndexes - 1).trim();
+                if (macroName.equals(tagName) || !strict && macroName.equalsIgnoreCase(tagName)) {
+                    return additionalIndexes;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** @return true if the tag ends with closed tag marker followed by tag closing (ignoring whitespaces). */
+    private boolean isMacroTagChild(final String template, int index) {
+        final int length = template.length();
+        while (index < length) {
+            final char character = template.charAt(index++);
+            if (character == syntax.getClosedTagMarker() && isLastCharacterInTag(template, index)) {
+                return true;
+            } else if (character == syntax.getTagClosing()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** @return true if there are only whitespaces between the index and the tag closing. */
+    private boolean isLastCharacterInTag(final String template, int index) {
+        final int length = template.length();
+        while (index < length) {
+            final char character = template.charAt(index++);
+            if (character == syntax.getTagClosing()) {
+                return true;
+            } else if (!Strings.isWhitespace(character)) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -12,7 +12,7 @@ import com.github.czyzby.lml.util.LmlUtilities;
 public class MethodActorConsumer implements ActorConsumer<Object, Object> {
     private final Method method;
     private final Object methodOwner;
-    private final Object[] arguments;
+    private final boolean containsArgument;
 
     public MethodActorConsumer(final Method method, final Object methodOwner) {
         if (method == null || methodOwner == null) {
@@ -22,27 +22,19 @@ public class MethodActorConsumer implements ActorConsumer<Object, Object> {
         this.method = method;
         this.methodOwner = methodOwner;
         final Class<?>[] parameters = method.getParameterTypes();
-        if (parameters == null || parameters.length == 0) {
-            arguments = LmlUtilities.EMPTY_ARRAY;
-        } else {
-            arguments = new Object[1];
-        }
+        containsArgument = parameters != null && parameters.length > 0;
     }
 
     @Override
     public Object consume(final Object actor) {
-        if (containsArgument()) {
-            arguments[0] = actor;
-        }
+        // Consumers are shared by all actors using the action, so arguments array cannot be reused: nested and
+        // re-entrant invocations would overwrite each other's argument.
+        final Object[] arguments = containsArgument ? new Object[] { actor } : LmlUtilities.EMPTY_ARRAY;
         try {
             return Reflection.invokeMethod(method, methodOwner, arguments);
         } catch (final Exception exception) {
             throw new GdxRuntimeException("Unable to invoke method: " + method + " of object: " + methodOwner
-                    + (containsArgument() ? " with argument: " + actor : ""), exception);
+                    + (containsArgument ? " with argument: " + actor : ""), exception);
         }
     }
-
-    private boolean containsArgument() {
-        return arguments.length == 1;
-    }
 }
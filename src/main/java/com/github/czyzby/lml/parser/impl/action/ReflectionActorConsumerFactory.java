@@ -0,0 +1,24 @@
+package com.github.czyzby.lml.parser.impl.action;
+
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.github.czyzby.lml.parser.action.ActorConsumer;
+import com.github.czyzby.lml.parser.action.ActorConsumerFactory;
+
+/** Default {@link ActorConsumerFactory} implementation. Uses LibGDX reflection API to invoke methods and extract field
+ * values, which makes it available on all platforms.
+ *
+ * @author MJ
+ * @see MethodActorConsumer
+ * @see FieldActorConsumer */
+public class ReflectionActorConsumerFactory implements ActorConsumerFactory {
+    @Override
+    public ActorConsumer<?, ?> createMethodConsumer(final Method method, final Object methodOwner) {
+        return new MethodActorConsumer(method, methodOwner);
+    }
+
+    @Override
+    public ActorConsumer<?, ?> createFieldConsumer(final Field field, final Object fieldOwner) {
+        return new FieldActorConsumer(field, fieldOwner);
+    }
+}
@@ -5,10 +5,13 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextTooltip;
 import com.badlogic.gdx.scenes.scene2d.ui.Tooltip;
 import com.github.czyzby.kiwi.util.common.Nullables;
 import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.parser.action.ActorConsumer;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
+import com.github.czyzby.lml.util.LmlUtilities;
 
 /** Creates a {@link TextTooltip} with text parsed from attribute value. Expects a string. Tooltip's style is not
  * manageable and will be choose style mapped to "default" in default LML data's skin. Uses default tooltip manager
@@ -37,8 +40,15 @@ public class TooltipLmlAttribute implements LmlAttribute<Actor> {
             tooltip = parseTooltipFromAction(parser, actor, rawAttributeData);
         } else {
             // Parsing regular string and creating a default text tooltip:
-            tooltip = new TextTooltip(parser.parseString(rawAttributeData, actor),
+            final int parsedBundleLines = LmlUtilities.getParsedBundleLinesAmount(parser);
+            final TextTooltip textTooltip = new TextTooltip(parser.parseString(rawAttributeData, actor),
                     parser.getData().getDefaultTooltipManager(), parser.getData().getDefaultSkin());
+            final LmlBundleBindings bundleBindings = LmlUtilities.getBundleBindings(parser);
+            if (bundleBindings != null && parsedBundleLines != LmlUtilities.getParsedBundleLinesAmount(parser)) {
+                // Processing the attribute again would attach another tooltip. Binding tooltip's text instead:
+                bundleBindings.bindText(textTooltip.getActor(), GdxArrays.newArray(rawAttributeData), false);
+            }
+            tooltip = textTooltip;
         }
         if (tooltip != null) {
             actor.addListener(tooltip);
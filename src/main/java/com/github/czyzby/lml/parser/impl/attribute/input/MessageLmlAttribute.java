@@ -2,13 +2,14 @@ package com.github.czyzby.lml.parser.impl.attribute.input;
 
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 
 /** See {@link TextField#setMessageText(String)}. Mapped to "message", "messageText".
  *
  * @author MJ */
-public class MessageLmlAttribute implements LmlAttribute<TextField> {
+public class MessageLmlAttribute implements LmlAttribute<TextField>, LmlBundleBindings.Localized {
     @Override
     public Class<TextField> getHandledType() {
         return TextField.class;
@@ -2,13 +2,14 @@ package com.github.czyzby.lml.parser.impl.attribute.table.window;
 
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 
 /** Sets label text of {@link Window#getTitleLabel()}. Mapped to "title".
  *
  * @author MJ */
-public class TitleLmlAttribute implements LmlAttribute<Window> {
+public class TitleLmlAttribute implements LmlAttribute<Window>, LmlBundleBindings.Localized {
     @Override
     public Class<Window> getHandledType() {
         return Window.class;
@@ -3,14 +3,18 @@ package com.github.czyzby.lml.parser.impl.tag;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Tree;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxSets;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.parser.LmlSyntax;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
+import com.github.czyzby.lml.parser.impl.attribute.building.TextLmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlActorBuilder;
 import com.github.czyzby.lml.parser.tag.LmlBuildingAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
@@ -25,6 +29,10 @@ import com.github.czyzby.lml.util.LmlUtilities;
  */
 public abstract class AbstractActorLmlTag extends AbstractLmlTag {
     private final Actor actor;
+    // Unparsed text of the actor. Kept only if bundle bindings are recorded. Not initialized by field declarations, as
+    // the text attribute is parsed by the constructor.
+    private Array<String> rawText;
+    private boolean isTextLocalized;
 
     public AbstractActorLmlTag(final LmlParser parser, final LmlTag parentTag, final StringBuilder rawTagData) {
         super(parser, parentTag, rawTagData);
@@ -79,6 +87,7 @@ public abstract class AbstractActorLmlTag extends AbstractLmlTag {
             // Processing building attributes:
             final LmlBuildingAttribute<LmlActorBuilder> buildingAttributeProcessor = syntax
                     .getBuildingAttributeProcessor(builder, attribute.key);
+            final int parsedBundleLines = LmlUtilities.getParsedBundleLinesAmount(getParser());
             if (buildingAttributeProcessor != null // This is the actual processing method:
                     && buildingAttributeProcessor.process(getParser(), this, builder, attribute.value)) {
                 // If processing returns true, the attribute is fully parsed and can be omitted during attribute parsing
@@ -86,9 +95,18 @@ public abstract class AbstractActorLmlTag extends AbstractLmlTag {
                 // eventually parsed by a second processor, after the widget is created.
                 processedAttributes.add(attribute.key);
             }
+            if (isTextAttribute(buildingAttributeProcessor)) {
+                recordRawText(attribute.value, parsedBundleLines);
+            }
         }
     }
 
+    /** @param buildingAttributeProcessor might be null.
+     * @return true if the processor handles the text of the actor. */
+    private static boolean isTextAttribute(final LmlBuildingAttribute<?> buildingAttributeProcessor) {
+        return buildingAttributeProcessor instanceof TextLmlAttribute;
+    }
+
     private void processTagAttributes(final ObjectSet<String> processedAttributes, final Actor actor,
             final Object managedObject) {
         if (hasComponentActors() && !Lml.DISABLE_COMPONENT_ACTORS_ATTRIBUTE_PARSING) {
@@ -221,13 +239,47 @@ public abstract class AbstractActorLmlTag extends AbstractLmlTag {
     /** @param plainTextLine trimmed line of data between tags. Is not empty. Should be handled by the tag. */
     protected abstract void handlePlainTextLine(String plainTextLine);
 
+    /**
+     * @param rawText unparsed text line that will be appended to the text of the managed actor.
+     * @return parsed text. If the text references bundle lines and the parser records bundle bindings, the whole text
+     * of the actor will be parsed again on locale change.
+     * @see LmlBundleBindings#bindText(Actor, Array, boolean)
+     */
+    protected String parseText(final String rawText) {
+        final int parsedBundleLines = LmlUtilities.getParsedBundleLinesAmount(getParser());
+        final String text = getParser().parseString(rawText, actor);
+        recordRawText(rawText, parsedBundleLines);
+        return text;
+    }
+
+    /**
+     * @param rawTextLine was just parsed as a part of the actor's text.
+     * @param parsedBundleLines amount of bundle lines parsed before the text was processed.
+     */
+    private void recordRawText(final String rawTextLine, final int parsedBundleLines) {
+        if (LmlUtilities.getBundleBindings(getParser()) == null) {
+            return;
+        }
+        if (rawText == null) {
+            rawText = GdxArrays.newArray(String.class);
+        }
+        rawText.add(rawTextLine);
+        isTextLocalized |= parsedBundleLines != LmlUtilities.getParsedBundleLinesAmount(getParser());
+    }
+
     /**
      * @param rawData unparsed LML data.
      * @return parsed LML data as a new label widget.
      */
     protected Label toLabel(final String rawData) {
         final LmlParser parser = getParser();
-        return new Label(parser.parseString(rawData, actor), parser.getData().getDefaultSkin());
+        final int parsedBundleLines = LmlUtilities.getParsedBundleLinesAmount(parser);
+        final Label label = new Label(parser.parseString(rawData, actor), parser.getData().getDefaultSkin());
+        final LmlBundleBindings bundleBindings = LmlUtilities.getBundleBindings(parser);
+        if (bundleBindings != null && parsedBundleLines != LmlUtilities.getParsedBundleLinesAmount(parser)) {
+            bundleBindings.bindText(label, GdxArrays.newArray(rawData), false);
+        }
+        return label;
     }
 
     @Override
@@ -263,10 +315,20 @@ public abstract class AbstractActorLmlTag extends AbstractLmlTag {
     @Override
     public final void closeTag() {
         doOnTagClose();
+        bindText();
         closeComponentActors();
         invokeOnCloseActions(actor);
     }
 
+    /** Registers text binding if the actor's text references bundle lines. */
+    private void bindText() {
+        final LmlBundleBindings bundleBindings = LmlUtilities.getBundleBindings(getParser());
+        if (isTextLocalized && bundleBindings != null) {
+            bundleBindings.bindText(actor, rawText, LmlUtilities.isMultiline(actor));
+        }
+        rawText = null;
+    }
+
     private void closeComponentActors() {
         if (hasComponentActors()) {
             for (final Actor component : getComponentActors(actor)) {
@@ -4,9 +4,11 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.EventListener;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.github.czyzby.kiwi.util.common.Exceptions;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.parser.LmlParserListener;
 import com.github.czyzby.lml.parser.impl.tag.macro.util.Equation;
+import com.github.czyzby.lml.parser.impl.tag.macro.util.Equation.CompiledEquation;
 import com.github.czyzby.lml.parser.tag.LmlActorBuilder;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.scene2d.ui.reflected.ActorStorage;
@@ -19,6 +21,7 @@ import com.github.czyzby.lml.util.LmlUtilities;
  * @author MJ */
 public abstract class AbstractListenerLmlTag extends AbstractActorLmlTag implements LmlParserListener {
     private String condition;
+    private CompiledEquation compiledCondition;
     private String[] ids;
     private boolean keep;
 
@@ -77,6 +80,16 @@ public abstract class AbstractListenerLmlTag extends AbstractActorLmlTag impleme
      *            actors are displayed on each event. */
     public void setCondition(final String condition) {
         this.condition = condition;
+        compiledCondition = null;
+        if (condition != null) {
+            try {
+                // Compiling condition once, so it does not have to be tokenized on each event:
+                compiledCondition = new Equation().getCompiledEquation(condition);
+            } catch (final RuntimeException exception) {
+                // Invalid equation: error will be reported on event, as it was not compiled.
+                Exceptions.ignore(exception);
+            }
+        }
     }
 
     /** @param keep if true and {@link #setIds(String[])} is used, this listener will be attached to every actor with
@@ -98,7 +111,9 @@ public abstract class AbstractListenerLmlTag extends AbstractActorLmlTag impleme
     /** @param actor has the listener attached. Its stage will be used to display stored actors. */
     protected void doOnEvent(final Actor actor) {
         if (condition != null) {
-            final boolean shouldDisplay = new Equation(getParser(), actor).getBooleanResult(condition);
+            final Equation equation = new Equation(getParser(), actor);
+            final boolean shouldDisplay = compiledCondition == null ? equation.getBooleanResult(condition)
+                    : equation.getBooleanResult(compiledCondition);
             if (!shouldDisplay) {
                 return;
             }
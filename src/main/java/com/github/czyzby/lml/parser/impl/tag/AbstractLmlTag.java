@@ -4,10 +4,12 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.github.czyzby.kiwi.util.common.Strings;
 import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.LmlSyntax;
 import com.github.czyzby.lml.parser.tag.LmlActorBuilder;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.util.LmlUtilities;
@@ -20,40 +22,47 @@ import com.github.czyzby.lml.util.collection.IgnoreCaseStringMap;
  * @see AbstractActorLmlTag */
 public abstract class AbstractLmlTag implements LmlTag {
     private final LmlParser parser;
-    private final Array<String> attributes;
+    private Array<String> attributes;
     private final ObjectMap<String, String> namedAttributes;
     private final String tagName;
     private final LmlTag parentTag;
     private final boolean parent, macro;
+    /** Unescaped raw tag data. Kept until unnamed attributes are requested and extracted. */
+    private char[] tagData;
+    /** Start and end indexes of unnamed attributes in tag data. Kept until attributes are extracted. */
+    private IntArray attributeSpans;
 
     public AbstractLmlTag(final LmlParser parser, final LmlTag parentTag, final StringBuilder rawTagData) {
         this.parser = parser;
         this.parentTag = parentTag;
-        final Array<String> entities = extractTagEntities(rawTagData, parser);
-        final String tagName = entities.first();
-        macro = Strings.startsWith(tagName, parser.getSyntax().getMacroMarker());
-        this.tagName = LmlUtilities.stripMarker(tagName, parser.getSyntax().getMacroMarker());
-        final String lastAttribute = GdxArrays.getLast(entities);
-        if (Strings.endsWith(lastAttribute, parser.getSyntax().getClosedTagMarker())) {
+        final LmlSyntax syntax = parser.getSyntax();
+        final char[] data = unescape(rawTagData);
+        final IntArray spans = extractTagEntities(data);
+        final String tagName = toString(data, spans, 0);
+        macro = Strings.startsWith(tagName, syntax.getMacroMarker());
+        this.tagName = LmlUtilities.stripMarker(tagName, syntax.getMacroMarker());
+        final int lastEnd = spans.size - 1;
+        if (data[spans.get(lastEnd) - 1] == syntax.getClosedTagMarker()) {
             // The tag ends with a closing marker, which means it is a child.
             parent = false;
-            if (lastAttribute.length() == 1) {
-                GdxArrays.removeLast(entities);
+            if (spans.get(lastEnd) - spans.get(lastEnd - 1) == 1) {
+                spans.size -= 2;
             } else {
-                entities.set(GdxArrays.sizeOf(entities) - 1, LmlUtilities.stripEnding(lastAttribute));
+                spans.incr(lastEnd, -1);
             }
         } else {
             parent = true;
         }
-        if (hasAttributes(entities) || hasDefaultAttributes(tagName)) {
-            entities.removeIndex(0); // Removing tag name from attributes.
-            attributes = entities;
+        if (hasAttributes(spans) || hasDefaultAttributes(tagName)) {
+            spans.removeRange(0, 1); // Removing tag name from attributes.
             if (supportsNamedAttributes() || supportsOptionalNamedAttributes()) {
                 namedAttributes = new IgnoreCaseStringMap<String>();
             } else {
                 namedAttributes = null;
             }
-            fillAttributes(parser, entities);
+            fillAttributes(parser, data, spans);
+            tagData = data;
+            attributeSpans = spans;
         } else {
             attributes = null;
             namedAttributes = null;
@@ -76,82 +85,141 @@ public abstract class AbstractLmlTag implements LmlTag {
         return false;
     }
 
-    private static boolean hasAttributes(final Array<String> entities) {
-        // The first entity is name, so at least 2 entities are required:
-        return entities.size > 1;
+    private static boolean hasAttributes(final IntArray spans) {
+        // The first entity is name, so at least 2 entities (4 indexes) are required:
+        return spans.size > 2;
     }
 
-    private static Array<String> extractTagEntities(final StringBuilder rawTagData, final LmlParser parser) {
-        Strings.replace(rawTagData, "\\n", "\n");
-        Strings.replace(rawTagData, "&gt;", ">");
-        boolean inQuotation = false, inDoubleQuotation = false, lastCharWhitespace = true;
-        final Array<String> entities = GdxArrays.newArray(String.class);
-        final StringBuilder builder = new StringBuilder();
-        lastCharWhitespace = true;
-        for (int index = 0, length = rawTagData.length(); index < length; index++) {
+    /** @param rawTagData raw tag data with escaped new lines and closing brackets.
+     * @return tag data with replaced escape sequences. */
+    private static char[] unescape(final StringBuilder rawTagData) {
+        final int length = rawTagData.length();
+        final char[] data = new char[length];
+        int dataIndex = 0;
+        for (int index = 0; index < length; index++) {
             final char character = rawTagData.charAt(index);
+            if (character == '\\' && index + 1 < length && rawTagData.charAt(index + 1) == 'n') {
+                data[dataIndex++] = '\n';
+                index++;
+            } else if (character == '&' && index + 3 < length && rawTagData.charAt(index + 1) == 'g'
+                    && rawTagData.charAt(index + 2) == 't' && rawTagData.charAt(index + 3) == ';') {
+                data[dataIndex++] = '>';
+                index += 3;
+            } else {
+                data[dataIndex++] = character;
+            }
+        }
+        if (dataIndex < length) { // Escape sequences were replaced.
+            final char[] unescapedData = new char[dataIndex];
+            System.arraycopy(data, 0, unescapedData, 0, dataIndex);
+            return unescapedData;
+        }
+        return data;
+    }
+
+    /** @param data unescaped tag data.
+     * @return start (inclusive) and end (exclusive) indexes of each tag entity - whitespace-separated tag name and
+     *         attributes. Whitespaces in quotations are not treated as separators. */
+    private static IntArray extractTagEntities(final char[] data) {
+        boolean inQuotation = false, inDoubleQuotation = false, lastCharWhitespace = true;
+        final IntArray spans = new IntArray();
+        for (int index = 0, length = data.length; index < length; index++) {
+            final char character = data[index];
             if (Strings.isWhitespace(character)) {
-                if (inQuotation || inDoubleQuotation) {
-                    builder.append(character);
-                    continue;
-                } else if (lastCharWhitespace) {
+                if (inQuotation || inDoubleQuotation || lastCharWhitespace) {
                     continue;
                 }
                 lastCharWhitespace = true;
-                entities.add(builder.toString());
-                Strings.clearBuilder(builder);
+                spans.add(index);
+                continue;
             } else if (character == '\'') {
-                lastCharWhitespace = false;
-                builder.append(character);
                 if (!inDoubleQuotation) {
                     inQuotation = !inQuotation;
                 }
             } else if (character == '"') {
-                lastCharWhitespace = false;
-                builder.append(character);
                 if (!inQuotation) {
                     inDoubleQuotation = !inDoubleQuotation;
                 }
-            } else {
+            }
+            if (lastCharWhitespace) {
                 lastCharWhitespace = false;
-                builder.append(character);
+                spans.add(index);
             }
         }
         if (!lastCharWhitespace) {
-            entities.add(builder.toString());
+            spans.add(data.length);
         }
-        return entities;
+        return spans;
     }
 
-    private void fillAttributes(final LmlParser parser, final Array<String> entities) {
-        // Starting from 1, since 0 index is the tag name.
-        for (int index = entities.size - 1; index >= 0; index--) { // Iterating backwards to take removal into account.
-            final String rawAttribute = entities.get(index);
-            if (Strings.isBlank(rawAttribute)) {
-                entities.removeIndex(index);
+    private void fillAttributes(final LmlParser parser, final char[] data, final IntArray spans) {
+        final boolean mapAttributes = supportsNamedAttributes() || supportsOptionalNamedAttributes();
+        final char separator = parser.getSyntax().getAttributeSeparator();
+        // Iterating backwards to take removal into account.
+        for (int index = spans.size - 2; index >= 0; index -= 2) {
+            int start = spans.get(index), end = spans.get(index + 1);
+            if (isBlank(data, start, end)) {
+                spans.removeRange(index, index + 1);
                 continue;
             }
-            final String entity = LmlUtilities.stripQuotation(rawAttribute);
-            entities.set(index, entity);
-            if ((supportsNamedAttributes() || supportsOptionalNamedAttributes()) && Strings.isNotEmpty(entity)) {
-                final int separatorIndex = entity.indexOf(parser.getSyntax().getAttributeSeparator());
+            if (isQuoted(data, start, end)) {
+                spans.set(index, ++start);
+                spans.set(index + 1, --end);
+            }
+            if (mapAttributes && start < end) {
+                final int separatorIndex = indexOf(data, separator, start, end);
                 if (Strings.isCharacterAbsent(separatorIndex)) {
                     if (supportsNamedAttributes()) {
-                        parser.throwErrorIfStrict("Invalid attribute format: \"" + entity
-                                + "\". Attribute might be missing assignment character ('"
-                                + parser.getSyntax().getAttributeSeparator() + "') or be otherwise unparseable.");
+                        parser.throwErrorIfStrict("Invalid attribute format: \"" + new String(data, start, end - start)
+                                + "\". Attribute might be missing assignment character ('" + separator
+                                + "') or be otherwise unparseable.");
                     }
                     // Supports optionally: parsing another attribute.
                     continue;
                 }
-                final String attributeName = entity.substring(0, separatorIndex);
-                final String attributeValue = LmlUtilities
-                        .stripQuotation(entity.substring(separatorIndex + 1, entity.length()));
-                namedAttributes.put(attributeName, attributeValue);
+                final String attributeName = new String(data, start, separatorIndex - start);
+                start = separatorIndex + 1;
+                if (isQuoted(data, start, end)) {
+                    start++;
+                    end--;
+                }
+                namedAttributes.put(attributeName, new String(data, start, end - start));
             }
         }
     }
 
+    private static String toString(final char[] data, final IntArray spans, final int entityIndex) {
+        final int start = spans.get(entityIndex * 2);
+        return new String(data, start, spans.get(entityIndex * 2 + 1) - start);
+    }
+
+    private static boolean isBlank(final char[] data, final int start, final int end) {
+        for (int index = start; index < end; index++) {
+            if (!Strings.isWhitespace(data[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return true if the selected range starts and ends with single or double quotation. */
+    private static boolean isQuoted(final char[] data, final int start, final int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        final char first = data[start];
+        return (first == '\'' || first == '"') && data[end - 1] == first;
+    }
+
+    private static int indexOf(final char[] data, final char character, final int start, final int end) {
+        for (int index = start; index < end; index++) {
+            if (data[index] == character) {
+                return index;
+            }
+        }
+        return Strings.CHARACTER_UNAVAILABLE;
+    }
+
     @Override
     public boolean isParent() {
         return parent;
@@ -179,6 +247,16 @@ public abstract class AbstractLmlTag implements LmlTag {
 
     @Override
     public Array<String> getAttributes() {
+        if (attributeSpans != null) {
+            // Unnamed attributes are rarely used by actor tags, so they are extracted on demand:
+            final Array<String> attributes = GdxArrays.newArray(String.class);
+            for (int index = 0, size = attributeSpans.size / 2; index < size; index++) {
+                attributes.add(toString(tagData, attributeSpans, index));
+            }
+            this.attributes = attributes;
+            attributeSpans = null;
+            tagData = null;
+        }
         return attributes;
     }
 
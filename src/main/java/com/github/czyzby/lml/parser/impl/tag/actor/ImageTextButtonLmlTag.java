@@ -37,7 +37,7 @@ public class ImageTextButtonLmlTag extends ButtonLmlTag {
     @Override
     protected void handlePlainTextLine(final String plainTextLine) {
         final ImageTextButton button = (ImageTextButton) getActor();
-        final String textToAppend = getParser().parseString(plainTextLine, getActor());
+        final String textToAppend = parseText(plainTextLine);
         if (Strings.isEmpty(button.getText())) {
             button.setText(textToAppend);
         } else {
@@ -33,7 +33,7 @@ public class LabelLmlTag extends AbstractNonParentalActorLmlTag {
     @Override
     protected void handlePlainTextLine(final String plainTextLine) {
         final Label label = getLabel();
-        final String textToAppend = getParser().parseString(plainTextLine, label);
+        final String textToAppend = parseText(plainTextLine);
         if (Strings.isEmpty(label.getText())) {
             // Label is currently empty, so we just set the text as initial value.
             label.setText(textToAppend);
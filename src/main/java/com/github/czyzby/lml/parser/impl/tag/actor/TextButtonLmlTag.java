@@ -37,7 +37,7 @@ public class TextButtonLmlTag extends ButtonLmlTag {
     @Override
     protected void handlePlainTextLine(final String plainTextLine) {
         final TextButton button = getTextButton();
-        final String textToAppend = getParser().parseString(plainTextLine, getActor());
+        final String textToAppend = parseText(plainTextLine);
         if (Strings.isEmpty(button.getText())) {
             button.setText(textToAppend);
         } else {
@@ -4,16 +4,22 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.EventListener;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.github.czyzby.kiwi.util.common.Exceptions;
 import com.github.czyzby.kiwi.util.common.Strings;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.parser.LmlParserListener;
+import com.github.czyzby.lml.parser.impl.AbstractLmlParser;
+import com.github.czyzby.lml.parser.impl.CompiledLmlTemplate;
 import com.github.czyzby.lml.parser.impl.tag.AbstractMacroLmlTag;
 import com.github.czyzby.lml.parser.impl.tag.macro.util.Equation;
+import com.github.czyzby.lml.parser.impl.tag.macro.util.Equation.CompiledEquation;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.util.LmlUtilities;
 
 /** This base class for macros that create event listeners and attach them to their parent actor. When the event is
- * detected, content between macro tag is parsed with {@link LmlParser} and the result is added to the stage.
+ * detected, content between macro tag is parsed with {@link LmlParser} and the result is added to the stage. If
+ * possible, the optional condition is compiled once - when the macro is closed - so it does not have to be tokenized
+ * again on each event. The content is compiled as well if the parser has template compilation enabled.
  *
  * @author MJ */
 public abstract class AbstractListenerLmlMacroTag extends AbstractMacroLmlTag implements LmlParserListener {
@@ -32,6 +38,8 @@ public abstract class AbstractListenerLmlMacroTag extends AbstractMacroLmlTag im
 
     private Array<Actor> cachedActors;
     private String content;
+    private CompiledLmlTemplate compiledContent;
+    private CompiledEquation condition;
     private boolean cacheActors;
     private String[] ids;
     private boolean keep = REMOVE;
@@ -75,6 +83,30 @@ public abstract class AbstractListenerLmlMacroTag extends AbstractMacroLmlTag im
         }
         setKeepListener(
                 hasAttribute(KEEP_ATTRIBUTE) ? getParser().parseBoolean(getAttribute(KEEP_ATTRIBUTE), actor) : REMOVE);
+        compileCondition();
+        if (!cacheActors) {
+            compileContent();
+        }
+    }
+
+    /** Compiles the optional condition, so it does not have to be tokenized on each event. */
+    private void compileCondition() {
+        if (hasAttribute(IF_ATTRIBUTE)) {
+            try {
+                condition = new Equation().getCompiledEquation(getAttribute(IF_ATTRIBUTE));
+            } catch (final RuntimeException exception) {
+                // Invalid equation: error will be reported on event, as it was not compiled.
+                Exceptions.ignore(exception);
+            }
+        }
+    }
+
+    /** Compiles macro content, if the parser supports compiled templates and has template compilation enabled. */
+    private void compileContent() {
+        if (getParser() instanceof AbstractLmlParser && ((AbstractLmlParser) getParser()).isCompilingTemplates()) {
+            compiledContent = ((AbstractLmlParser) getParser()).compileTemplate(content,
+                    "'" + getTagName() + "' macro content");
+        }
     }
 
     /** @param actor should have the proper listener attached. The listener should invoke {@link #doOnEvent(Actor)} when
@@ -96,9 +128,12 @@ public abstract class AbstractListenerLmlMacroTag extends AbstractMacroLmlTag im
     /** @param actor has the listener attached. */
     protected void doOnEvent(final Actor actor) {
         // Checking optional condition:
-        if (hasAttribute(IF_ATTRIBUTE)) {
-            final boolean condition = new Equation(getParser(), actor).getBooleanResult(getAttribute(IF_ATTRIBUTE));
-            if (!condition) {
+        if (condition != null) {
+            if (!new Equation(getParser(), actor).getBooleanResult(condition)) {
+                return;
+            }
+        } else if (hasAttribute(IF_ATTRIBUTE)) {
+            if (!new Equation(getParser(), actor).getBooleanResult(getAttribute(IF_ATTRIBUTE))) {
                 return;
             }
         }
@@ -124,12 +159,14 @@ public abstract class AbstractListenerLmlMacroTag extends AbstractMacroLmlTag im
     /** @param content will become current content between macro tags. */
     protected void setContent(final String content) {
         this.content = content;
+        compiledContent = null;
     }
 
     /** @return an array of actors parsed from the content of the macro. Will be cached if {@link #isCachingActors()}
      *         returns true. */
     protected Array<Actor> parseSnippet() {
-        final Array<Actor> actors = getParser().parseTemplate(content);
+        final Array<Actor> actors = compiledContent == null ? getParser().parseTemplate(content)
+                : ((AbstractLmlParser) getParser()).parseCompiledTemplate(compiledContent);
         if (isCachingActors()) {
             cachedActors = actors;
         }
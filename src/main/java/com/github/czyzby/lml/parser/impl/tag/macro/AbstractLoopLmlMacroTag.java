@@ -4,6 +4,7 @@ import com.badlogic.gdx.utils.ObjectMap;
 import com.github.czyzby.kiwi.util.common.Strings;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.parser.impl.tag.AbstractMacroLmlTag;
+import com.github.czyzby.lml.parser.impl.tag.macro.util.LoopMacroContent;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.util.collection.IgnoreCaseStringMap;
 
@@ -26,8 +27,37 @@ public abstract class AbstractLoopLmlMacroTag extends AbstractMacroLmlTag {
 
     @Override
     public void handleDataBetweenTags(final CharSequence rawMacroContent) {
-        final StringBuilder contentBuilder = new StringBuilder(rawMacroContent.length());
         final ObjectMap<String, String> arguments = new IgnoreCaseStringMap<String>();
+        // Content is not copied for each iteration: only the arguments values are stored and the iterations are
+        // generated lazily as the template reader goes through the result.
+        LoopMacroContent loopContent = null;
+        while (hasNext()) {
+            arguments.put(indexArgument, String.valueOf(getIndex()));
+            next(arguments);
+            if (loopContent == null) {
+                loopContent = new LoopMacroContent(rawMacroContent, getParser().getSyntax(), arguments);
+            }
+            if (!loopContent.addIteration(arguments)) {
+                // Arguments differ between iterations - content has to be copied.
+                final StringBuilder contentBuilder = new StringBuilder(rawMacroContent.length());
+                loopContent.appendTo(contentBuilder);
+                contentBuilder.append(replaceArguments(rawMacroContent, arguments));
+                handleRemainingIterations(rawMacroContent, arguments, contentBuilder);
+                return;
+            }
+        }
+        if (loopContent != null && Strings.isNotEmpty(loopContent)) {
+            appendTextToParse(loopContent);
+        }
+    }
+
+    /** Processes the loop by replacing arguments in the content and copying the results to the builder.
+     *
+     * @param rawMacroContent content of the macro.
+     * @param arguments current loop arguments.
+     * @param contentBuilder contains previous iterations. */
+    private void handleRemainingIterations(final CharSequence rawMacroContent,
+            final ObjectMap<String, String> arguments, final StringBuilder contentBuilder) {
         while (hasNext()) {
             arguments.put(indexArgument, String.valueOf(getIndex()));
             next(arguments);
@@ -1,15 +1,24 @@
 package com.github.czyzby.lml.parser.impl.tag.macro.util;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.github.czyzby.kiwi.util.common.Nullables;
 import com.github.czyzby.kiwi.util.common.Strings;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxMaps;
 import com.github.czyzby.lml.parser.LmlParser;
 import com.github.czyzby.lml.util.LmlUtilities;
 
 /** Allows to evaluate string equations at runtime. Supports String, float, int and boolean types, determined upon
  * parsing. See {@link DefaultOperator} for supported operations.
  *
+ * <p>
+ * Equations are compiled into operators trees, which are cached by their content. Since the structure of the tree
+ * does not depend on the values, each subsequent evaluation of the same equation only parses its values and executes
+ * the operators.
+ *
  * @author MJ */
 // I think that this is currently by far the most dragon-ish class in LML, as the logic is pretty complex and I decided
 // to keep most variables method-scoped for easy nested equations. Also, I didn't really want the internal classes to
@@ -17,6 +26,9 @@ import com.github.czyzby.lml.util.LmlUtilities;
 // rarely extended. So, basically: here be dragons. Kind of.
 public class Equation {
     private static final IntMap<Operator> OPERATORS = new IntMap<Operator>();
+    private static final ObjectMap<String, CompiledEquation> COMPILED_EQUATIONS = GdxMaps.newObjectMap();
+    /** Maximum amount of cached compiled equations. When exceeded, the cache is cleared. Defaults to 256. */
+    public static int MAX_CACHED_EQUATIONS = 256;
     private final LmlParser parser;
     private final Actor actor;
 
@@ -35,6 +47,7 @@ public class Equation {
      *            operators. */
     public static void registerOperator(final Operator operator) {
         OPERATORS.put(operator.getSign(), operator);
+        clearCache();
     }
 
     /** @param parser will be used to parse values.
@@ -65,25 +78,96 @@ public class Equation {
      * @return result of the equation as string. */
     public String getResult(final CharSequence equation) {
         try {
-            return Nullables.toString(parseEquation(equation));
+            return Nullables.toString(evaluate(getCompiledEquation(equation)));
+        } catch (final RuntimeException exception) {
+            throwException(exception);
+        }
+        return null;
+    }
+
+    /** @param equation was compiled with {@link #getCompiledEquation(CharSequence)}. Will be evaluated.
+     * @return result of the equation as string. */
+    public String getResult(final CompiledEquation equation) {
+        try {
+            return Nullables.toString(evaluate(equation));
         } catch (final RuntimeException exception) {
             throwException(exception);
         }
         return null;
     }
 
-    private Object parseEquation(final CharSequence equation) {
+    /** @param equation will be compiled. Note that compiled equations do not depend on the parser or actor passed to
+     *            this instance, so they can be stored and evaluated multiple times by different equation instances.
+     * @return cached compiled equation or a new one, if this equation was not evaluated before.
+     * @throws RuntimeException if the equation is invalid. */
+    public CompiledEquation getCompiledEquation(final CharSequence equation) {
+        if (!isCachingCompiledEquations()) {
+            return compileEquation(equation);
+        }
+        final String key = equation.toString();
+        synchronized (COMPILED_EQUATIONS) {
+            final CompiledEquation compiledEquation = COMPILED_EQUATIONS.get(key);
+            if (compiledEquation != null) {
+                return compiledEquation;
+            }
+        }
+        final CompiledEquation compiledEquation = compileEquation(key);
+        synchronized (COMPILED_EQUATIONS) {
+            if (COMPILED_EQUATIONS.size >= MAX_CACHED_EQUATIONS) {
+                // Equations often contain already replaced arguments, so cache might grow indefinitely otherwise.
+                COMPILED_EQUATIONS.clear();
+            }
+            COMPILED_EQUATIONS.put(key, compiledEquation);
+        }
+        return compiledEquation;
+    }
+
+    /** @return true if compiled equations can be shared with other instances. By default, only instances of this class
+     *         use the cache, as extending classes might change equation parsing. */
+    protected boolean isCachingCompiledEquations() {
+        return getClass() == Equation.class;
+    }
+
+    /** Clears compiled equations cache. Invoked automatically when a new operator is registered. */
+    public static void clearCache() {
+        synchronized (COMPILED_EQUATIONS) {
+            COMPILED_EQUATIONS.clear();
+        }
+    }
+
+    /** @param equation will be separated into values and operators, which will be sorted according to their priority.
+     *            Values are not parsed at this point, so the compiled equation can be evaluated multiple times.
+     * @return compiled equation. */
+    protected CompiledEquation compileEquation(final CharSequence equation) {
+        final Array<Object> values = GdxArrays.newArray();
         Element firstNode = new OperatorElement(DefaultOperator.NO_OP, null, null);
         // Separating equation into values (boolean, int, float, String) and operators:
-        findEquationElements(equation, firstNode);
+        findEquationElements(equation, firstNode, values);
         // Merging neighbor operators (for example, != will be parsed as one operator: NOT_EQUALS):
         firstNode = mergeOperatorElements(firstNode);
-        // Executing operators:
-        firstNode = evaluateOperators(firstNode, findMaxPriority(firstNode));
-        return convertToResult(firstNode);
+        // Building operators tree:
+        firstNode = compileOperators(firstNode, findMaxPriority(firstNode));
+        return new CompiledEquation(values, convertToResult(firstNode));
     }
 
-    protected void findEquationElements(final CharSequence equation, final Element firstNode) {
+    /** @param equation compiled equation.
+     * @return result of the equation. */
+    protected String evaluate(final CompiledEquation equation) {
+        // Values are parsed in their order of appearance, as they might invoke actions:
+        final String[] values = new String[equation.values.size];
+        for (int index = 0; index < values.length; index++) {
+            final Object value = equation.values.get(index);
+            if (value instanceof CompiledEquation) {
+                values[index] = evaluate((CompiledEquation) value);
+            } else {
+                values[index] = toValue(parseValue((String) value));
+            }
+        }
+        return equation.root.evaluate(this, values);
+    }
+
+    protected void findEquationElements(final CharSequence equation, final Element firstNode,
+            final Array<Object> values) {
         final StringBuilder valueBuilder = new StringBuilder();
         Element lastNode = firstNode;
         for (int index = 0, length = equation.length(); index < length; index++) {
@@ -109,7 +193,8 @@ public class Equation {
                 if (nested != 0) {
                     throw new IllegalStateException("Invalid amount of parenthesis in equation: " + equation);
                 }
-                node = new ValueElement(parseEquation(valueBuilder.toString()), lastNode, null);
+                node = new NodeElement(new ValueNode(values.size, valueBuilder), lastNode, null);
+                values.add(compileEquation(valueBuilder.toString()));
             } else if (isOperator(character)) {
                 node = new OperatorElement(getOperator(character), lastNode, null);
             } else {
@@ -130,21 +215,21 @@ public class Equation {
                 if (Strings.isBlank(valueBuilder)) {
                     continue;
                 }
-                node = new ValueElement(buildValue(valueBuilder), lastNode, null);
+                final String value = buildValue(valueBuilder);
+                node = new NodeElement(new ValueNode(values.size, value), lastNode, null);
+                values.add(value);
             }
             lastNode.setNext(node);
             lastNode = node;
         }
     }
 
+    /** @return value with stripped quotation and replaced new line markers. Not parsed by the LML parser yet. */
     private String buildValue(final StringBuilder valueBuilder) {
         String value = valueBuilder.toString().trim().replace("\\n", "\n");
         if (isInQuotation(value)) {
             value = LmlUtilities.stripQuotation(value);
         }
-        if (parser != null) {
-            return parser.parseString(value, actor);
-        }
         return value;
     }
 
@@ -199,7 +284,7 @@ public class Equation {
         return priority;
     }
 
-    private Element evaluateOperators(Element firstNode, final int maxPriority) {
+    private Element compileOperators(Element firstNode, final int maxPriority) {
         for (int currentPriority = maxPriority; currentPriority <= maxPriority
                 && currentPriority >= 0; currentPriority--) {
             for (Element element = firstNode; element != null;) {
@@ -220,8 +305,9 @@ public class Equation {
                                             + element.previous() + " and followed by " + element.next());
                         }
                     } else {
-                        final Object result = evaluateDoubleArgumentOperator(element);
-                        resultElement = new ValueElement(result, element.previous().previous(), element.next().next());
+                        final Node node = new DoubleArgumentNode(element.getOperator(), getNode(element.previous()),
+                                getNode(element.next()));
+                        resultElement = new NodeElement(node, element.previous().previous(), element.next().next());
                     }
                 }
                 if (resultElement == null && element.getOperator().getSingleArgumentPriority() == currentPriority) {
@@ -236,8 +322,8 @@ public class Equation {
                         element = element.next();
                         continue;
                     }
-                    final Object result = evaluateSingleArgumentOperator(element);
-                    resultElement = new ValueElement(result, element.previous(), element.next().next());
+                    final Node node = new SingleArgumentNode(element.getOperator(), getNode(element.next()));
+                    resultElement = new NodeElement(node, element.previous(), element.next().next());
                 } else {
                     resultElement = resultElement == null ? element.next() : resultElement;
                 }
@@ -266,34 +352,56 @@ public class Equation {
         }
     }
 
-    protected Object evaluateDoubleArgumentOperator(final Element element) {
-        final Operator operator = element.getOperator();
-        final Element leftArgument = element.previous();
-        final Element rightArgument = element.next();
-        if (leftArgument.isBoolean() && rightArgument.isBoolean()) {
-            return operator.process(leftArgument.getBoolean(), rightArgument.getBoolean());
-        } else if (leftArgument.isInt() && rightArgument.isInt()) {
-            return operator.process(leftArgument.getInt(), rightArgument.getInt());
-        } else if (leftArgument.isFloat() && rightArgument.isFloat()) {
-            return operator.process(leftArgument.getFloat(), rightArgument.getFloat());
-        }
-        return operator.process(leftArgument.getString(), rightArgument.getString());
+    /** @param element value element of the compiled equation.
+     * @return operators tree node represented by the element. */
+    protected Node getNode(final Element element) {
+        return ((NodeElement) element).getNode();
+    }
+
+    /** @param operator will process the arguments.
+     * @param leftArgument value before the operator.
+     * @param rightArgument value after the operator.
+     * @return result of the operation. */
+    protected Object evaluateDoubleArgumentOperator(final Operator operator, final String leftArgument,
+            final String rightArgument) {
+        if (Strings.isBoolean(leftArgument) && Strings.isBoolean(rightArgument)) {
+            return operator.process(Boolean.valueOf(leftArgument).booleanValue(),
+                    Boolean.valueOf(rightArgument).booleanValue());
+        } else if (Strings.isInt(leftArgument) && Strings.isInt(rightArgument)) {
+            return operator.process(Integer.valueOf(leftArgument).intValue(),
+                    Integer.valueOf(rightArgument).intValue());
+        } else if (Strings.isFloat(leftArgument) && Strings.isFloat(rightArgument)) {
+            return operator.process(Float.valueOf(leftArgument).floatValue(),
+                    Float.valueOf(rightArgument).floatValue());
+        }
+        return operator.process(leftArgument, rightArgument);
+    }
+
+    /** @param operator will process the argument.
+     * @param argument value after the operator.
+     * @return result of the operation. */
+    protected Object evaluateSingleArgumentOperator(final Operator operator, final String argument) {
+        if (Strings.isBoolean(argument)) {
+            return operator.process(Boolean.valueOf(argument).booleanValue());
+        } else if (Strings.isInt(argument)) {
+            return operator.process(Integer.valueOf(argument).intValue());
+        } else if (Strings.isFloat(argument)) {
+            return operator.process(Float.valueOf(argument).floatValue());
+        }
+        return operator.process(argument);
     }
 
-    protected Object evaluateSingleArgumentOperator(final Element element) {
-        final Operator operator = element.getOperator();
-        final Element argument = element.next();
-        if (argument.isBoolean()) {
-            return operator.process(argument.getBoolean());
-        } else if (argument.isInt()) {
-            return operator.process(argument.getInt());
-        } else if (argument.isFloat()) {
-            return operator.process(argument.getFloat());
-        }
-        return operator.process(argument.getString());
+    /** @param value parsed value or operation result.
+     * @return value converted to string. Nulls are converted to empty strings. */
+    protected static String toValue(final Object value) {
+        final String string = Nullables.toString(value, Strings.EMPTY_STRING);
+        if (string == null || string.equalsIgnoreCase(Nullables.DEFAULT_NULL_STRING)) {
+            return Strings.EMPTY_STRING;
+        }
+        return string;
     }
 
-    protected Object convertToResult(final Element firstNode) {
+    protected Node convertToResult(final Element firstNode) {
         if (firstNode.isOperator()) {
             throw new IllegalStateException(
                     "No logical values in the equation. Equation cannot be empty or contain only operators.");
@@ -303,7 +411,7 @@ public class Equation {
                     "Equation could not have been evaluated to a single value. Most likely not enough operators were given. Leftover nodes: "
                             + printNodes(firstNode));
         }
-        return firstNode.getString();
+        return getNode(firstNode);
     }
 
     protected Operator getOperator(final char character) {
@@ -319,7 +427,19 @@ public class Equation {
      * @param equation will be evaluated.
      * @return true if: returned value is boolean true, a positive number or non-null string. */
     public boolean getBooleanResult(final CharSequence equation) {
-        final Element result = new ValueElement(getResult(equation), null, null);
+        return toBoolean(getResult(equation));
+    }
+
+    /** Utility method that calls {@link #getResult(CompiledEquation)} and converts returned value to a boolean.
+     *
+     * @param equation was compiled with {@link #getCompiledEquation(CharSequence)}. Will be evaluated.
+     * @return true if: returned value is boolean true, a positive number or non-null string. */
+    public boolean getBooleanResult(final CompiledEquation equation) {
+        return toBoolean(getResult(equation));
+    }
+
+    private boolean toBoolean(final String value) {
+        final Element result = new ValueElement(value, null, null);
         if (result.isBoolean()) {
             return result.getBoolean();
         } else if (result.isInt()) {
@@ -623,6 +743,134 @@ public class Equation {
         }
     }
 
+    /** Holds operators tree nodes during equation compiling.
+     *
+     * @author MJ */
+    protected static class NodeElement extends AbstractElement {
+        private final Node node;
+
+        public NodeElement(final Node node, final Element previous, final Element next) {
+            super(previous, next);
+            this.node = node;
+        }
+
+        /** @return wrapped operators tree node. */
+        public Node getNode() {
+            return node;
+        }
+
+        @Override
+        public String getString() {
+            return node.toString();
+        }
+    }
+
+    /** Compiled form of an equation. Contains unparsed values (or nested equations) in the order of their appearance
+     * and the root of the operators tree. Immutable and safe to share between equation instances.
+     *
+     * @author MJ
+     * @see Equation#getCompiledEquation(CharSequence) */
+    public static class CompiledEquation {
+        private final Array<Object> values;
+        private final Node root;
+
+        /** @param values unparsed string values or nested compiled equations, in the order of their appearance.
+         * @param root root of the operators tree. */
+        protected CompiledEquation(final Array<Object> values, final Node root) {
+            this.values = values;
+            this.root = root;
+        }
+
+        @Override
+        public String toString() {
+            return root.toString();
+        }
+    }
+
+    /** Common base for operators tree nodes.
+     *
+     * @author MJ */
+    protected static abstract class Node {
+        /** @param equation evaluates operators.
+         * @param values parsed equation values.
+         * @return result of the node evaluation. */
+        public abstract String evaluate(Equation equation, String[] values);
+    }
+
+    /** Represents a parsed equation value (or a nested equation result).
+     *
+     * @author MJ */
+    protected static class ValueNode extends Node {
+        private final int index;
+        private final String source;
+
+        /** @param index index of the value in the parsed values array.
+         * @param source unparsed value. Used for debugging purposes. */
+        public ValueNode(final int index, final CharSequence source) {
+            this.index = index;
+            this.source = source.toString();
+        }
+
+        @Override
+        public String evaluate(final Equation equation, final String[] values) {
+            return values[index];
+        }
+
+        @Override
+        public String toString() {
+            return source;
+        }
+    }
+
+    /** Represents an operator processing a single argument.
+     *
+     * @author MJ */
+    protected static class SingleArgumentNode extends Node {
+        private final Operator operator;
+        private final Node argument;
+
+        public SingleArgumentNode(final Operator operator, final Node argument) {
+            this.operator = operator;
+            this.argument = argument;
+        }
+
+        @Override
+        public String evaluate(final Equation equation, final String[] values) {
+            return toValue(equation.evaluateSingleArgumentOperator(operator, argument.evaluate(equation, values)));
+        }
+
+        @Override
+        public String toString() {
+            return operator.getSign() + "(" + argument + ")";
+        }
+    }
+
+    /** Represents an operator processing two arguments.
+     *
+     * @author MJ */
+    protected static class DoubleArgumentNode extends Node {
+        private final Operator operator;
+        private final Node leftArgument;
+        private final Node rightArgument;
+
+        public DoubleArgumentNode(final Operator operator, final Node leftArgument, final Node rightArgument) {
+            this.operator = operator;
+            this.leftArgument = leftArgument;
+            this.rightArgument = rightArgument;
+        }
+
+        @Override
+        public String evaluate(final Equation equation, final String[] values) {
+            return toValue(equation.evaluateDoubleArgumentOperator(operator, leftArgument.evaluate(equation, values),
+                    rightArgument.evaluate(equation, values)));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + leftArgument + ") " + operator.getSign() + " (" + rightArgument + ")";
+        }
+    }
+
     /** Contains operators supported by default.
      *
      * @author MJ */
@@ -0,0 +1,189 @@
+package com.github.czyzby.lml.parser.impl.tag.macro.util;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
+import com.github.czyzby.lml.parser.LmlSyntax;
+
+/** Lazy result of a loop macro. Rather than copying the macro content with replaced arguments once per iteration, it
+ * splits the content into text parts and argument references only once and stores argument values of each iteration.
+ * Characters are generated on demand: at most two iterations are kept in memory as text at a time, so the memory usage
+ * does not depend on the amount of iterations multiplied by the content length. Template readers consume appended
+ * sequences mostly sequentially, which makes the generation cheap.
+ *
+ * <p>
+ * Content is split using argument names available in the first iteration. If following iterations define different
+ * arguments, this object cannot be used - see {@link #addIteration(ObjectMap)}.
+ *
+ * @author MJ */
+public class LoopMacroContent implements CharSequence {
+    /** Text parts of the content. There is always one more text part than argument references. */
+    private final Array<String> textParts = GdxArrays.newArray(String.class);
+    /** Names of arguments referenced in the content, in the order of their appearance. */
+    private final Array<String> argumentReferences = GdxArrays.newArray(String.class);
+    /** Names of arguments available in the first iteration. */
+    private final Array<String> argumentNames = GdxArrays.newArray(String.class);
+    /** Values of referenced arguments in each iteration. */
+    private final Array<String[]> iterations = GdxArrays.newArray();
+    /** Index of the first character after each iteration. */
+    private int[] iterationEnds = new int[16];
+    private int length;
+
+    private final StringBuilder currentIteration = new StringBuilder();
+    private int currentIterationIndex = -1;
+    private int currentIterationStart;
+
+    /** @param content raw content of the loop macro.
+     * @param syntax determines argument markers.
+     * @param arguments arguments of the first iteration. Will be used to determine which parts of the content are
+     *            argument references. */
+    public LoopMacroContent(final CharSequence content, final LmlSyntax syntax,
+            final ObjectMap<String, String> arguments) {
+        for (final String argumentName : arguments.keys()) {
+            argumentNames.add(argumentName);
+        }
+        splitContent(content, syntax, arguments);
+    }
+
+    /** Mimics {@link com.github.czyzby.lml.parser.impl.tag.AbstractMacroLmlTag#replaceArguments(CharSequence, ObjectMap)
+     * replaceArguments}, but stores argument references instead of replacing them. */
+    private void splitContent(final CharSequence content, final LmlSyntax syntax,
+            final ObjectMap<String, String> arguments) {
+        final StringBuilder textBuilder = new StringBuilder();
+        final StringBuilder argumentNameBuilder = new StringBuilder();
+        MAIN_LOOP:
+        for (int index = 0, length = content.length(); index < length; index++) {
+            final char character = content.charAt(index);
+            if (character == syntax.getArgumentOpening()) {
+                argumentNameBuilder.setLength(0);
+                for (int argumentIndex = index + 1; argumentIndex < length; argumentIndex++) {
+                    final char argumentCharacter = content.charAt(argumentIndex);
+                    if (argumentCharacter == syntax.getArgumentClosing()) {
+                        final String argumentName = argumentNameBuilder.toString();
+                        if (arguments.containsKey(argumentName)) {
+                            textParts.add(textBuilder.toString());
+                            textBuilder.setLength(0);
+                            argumentReferences.add(argumentName);
+                            index = argumentIndex;
+                            continue MAIN_LOOP;
+                        }
+                    }
+                    argumentNameBuilder.append(argumentCharacter);
+                }
+            }
+            textBuilder.append(character);
+        }
+        textParts.add(textBuilder.toString());
+    }
+
+    /** @param arguments arguments of the next iteration.
+     * @return true if the iteration was added. False if the iteration defines different arguments than the first
+     *         iteration, which means that the content would be split differently - in this case the iteration should be
+     *         processed with standard argument replacement. */
+    public boolean addIteration(final ObjectMap<String, String> arguments) {
+        if (arguments.size != argumentNames.size) {
+            return false;
+        }
+        for (final String argumentName : argumentNames) {
+            if (!arguments.containsKey(argumentName)) {
+                return false;
+            }
+        }
+        final String[] values = new String[argumentReferences.size];
+        int iterationLength = 0;
+        for (final String textPart : textParts) {
+            iterationLength += textPart.length();
+        }
+        for (int index = 0; index < values.length; index++) {
+            final String value = String.valueOf(arguments.get(argumentReferences.get(index)));
+            values[index] = value;
+            iterationLength += value.length();
+        }
+        if (iterations.size == iterationEnds.length) {
+            final int[] ends = new int[iterationEnds.length * 2];
+            System.arraycopy(iterationEnds, 0, ends, 0, iterationEnds.length);
+            iterationEnds = ends;
+        }
+        length += iterationLength;
+        iterationEnds[iterations.size] = length;
+        iterations.add(values);
+        return true;
+    }
+
+    /** @param builder will have the content of all iterations appended. */
+    public void appendTo(final StringBuilder builder) {
+        for (int index = 0; index < iterations.size; index++) {
+            appendIteration(builder, index);
+        }
+    }
+
+    private void appendIteration(final StringBuilder builder, final int iterationIndex) {
+        final String[] values = iterations.get(iterationIndex);
+        for (int index = 0; index < values.length; index++) {
+            builder.append(textParts.get(index)).append(values[index]);
+        }
+        builder.append(textParts.peek());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < currentIterationStart || index >= currentIterationStart + currentIteration.length()) {
+            setCurrentIteration(findIteration(index));
+        }
+        return currentIteration.charAt(index - currentIterationStart);
+    }
+
+    /** @return index of the iteration containing the selected character. */
+    private int findIteration(final int characterIndex) {
+        // Characters are usually read sequentially, so the next iteration is checked first:
+        final int nextIteration = currentIterationIndex + 1;
+        if (nextIteration < iterations.size && characterIndex >= currentIterationStart
+                && characterIndex < iterationEnds[nextIteration]) { // Index is after the current buffer.
+            return nextIteration;
+        }
+        int low = 0, high = iterations.size - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (iterationEnds[middle] <= characterIndex) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void setCurrentIteration(final int iterationIndex) {
+        currentIteration.setLength(0);
+        // Keeping the previous iteration as well: readers might peek the next iteration before the current one is
+        // fully consumed, so this prevents generating the same iteration multiple times.
+        final int firstIteration = Math.max(0, iterationIndex - 1);
+        for (int index = firstIteration; index <= iterationIndex; index++) {
+            appendIteration(currentIteration, index);
+        }
+        currentIterationIndex = iterationIndex;
+        currentIterationStart = firstIteration == 0 ? 0 : iterationEnds[firstIteration - 1];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        final StringBuilder builder = new StringBuilder(end - start);
+        for (int index = start; index < end; index++) {
+            builder.append(charAt(index));
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        // Used mostly for debugging and error messages.
+        final StringBuilder builder = new StringBuilder(length);
+        appendTo(builder);
+        return builder.toString();
+    }
+}
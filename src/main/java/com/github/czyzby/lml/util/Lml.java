@@ -3,6 +3,8 @@ package com.github.czyzby.lml.util;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.github.czyzby.lml.parser.LmlData;
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.action.ActorConsumerFactory;
+import com.github.czyzby.lml.parser.impl.action.ReflectionActorConsumerFactory;
 
 /** Utility class for simplified parser creation. Stores LML settings.
  *
@@ -29,6 +31,14 @@ public class Lml {
      * can significantly speed up the method look-up time, especially when using multiple action containers. */
     public static boolean EXTRACT_UNANNOTATED_METHODS = true;
 
+    /** Used to create {@link com.github.czyzby.lml.parser.action.ActorConsumer ActorConsumers} invoking
+     * {@link com.github.czyzby.lml.parser.action.ActionContainer ActionContainers} methods and extracting their fields.
+     * Defaults to {@link ReflectionActorConsumerFactory}, which uses LibGDX reflection API and works on every platform.
+     * On desktop, you can set this value to
+     * {@link com.github.czyzby.lml.nongwt.action.MethodHandleActorConsumerFactory MethodHandleActorConsumerFactory} to
+     * make action invocations considerably cheaper. Should be changed before any action containers are registered. */
+    public static ActorConsumerFactory ACTOR_CONSUMER_FACTORY = new ReflectionActorConsumerFactory();
+
     /** If this is set to true, multi-widget actors will parse only its own attributes. For example, Scene2D Window
      * contains a Scene2D Label (used as its title). When component actors attribute parsing is turned on, window can
      * handle both its own attributes (table + unique window attributes), as well as label attributes, which will be
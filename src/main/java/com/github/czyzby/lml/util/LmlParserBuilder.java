@@ -253,6 +253,16 @@ public class LmlParserBuilder {
         return this;
     }
 
+    /** @param compile if true, template files will be read and tokenized only once, then cached and reused until they
+     *            are modified. This makes rebuilding views from the same files much cheaper. Note that tags and macros
+     *            should be registered before parsing any templates when this setting is on.
+     * @return this for chaining.
+     * @see AbstractLmlParser#setCompileTemplates(boolean) */
+    public LmlParserBuilder compileTemplates(final boolean compile) {
+        parser.setCompileTemplates(compile);
+        return this;
+    }
+
     /** @param amount amount of lines (included in exception message) before and after the line that caused the error.
      *            Cannot be negative.
      * @return this for chaining. */
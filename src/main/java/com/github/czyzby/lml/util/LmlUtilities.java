@@ -21,6 +21,8 @@ import com.github.czyzby.lml.parser.LmlSyntax;
 import com.github.czyzby.lml.parser.action.ActionContainer;
 import com.github.czyzby.lml.parser.action.ActorConsumer;
 import com.github.czyzby.lml.parser.action.StageAttacher;
+import com.github.czyzby.lml.parser.impl.AbstractLmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.util.collection.IgnoreCaseStringMap;
@@ -435,6 +437,7 @@ public class LmlUtilities {
         }
         final LmlSyntax syntax = parser.getSyntax();
         final boolean hasProcessedAttributes = processedAttributes != null;
+        final LmlBundleBindings bundleBindings = getBundleBindings(parser);
         for (final Entry<String, String> attribute : tag.getNamedAttributes()) {
             if (attribute == null || hasProcessedAttributes && processedAttributes.contains(attribute.key)) {
                 continue;
@@ -447,13 +450,38 @@ public class LmlUtilities {
                 }
                 continue;
             }
+            final int parsedBundleLines = getParsedBundleLinesAmount(parser);
             attributeProcessor.process(parser, tag, widget, attribute.value);
+            if (bundleBindings != null && parsedBundleLines != getParsedBundleLinesAmount(parser)) {
+                // Attribute references bundle lines - it will be processed again on locale change.
+                bundleBindings.bindAttribute(widget, tag, attributeProcessor, attribute.value);
+            }
             if (hasProcessedAttributes) {
                 processedAttributes.add(attribute.key);
             }
         }
     }
 
+    /** @param parser parses the templates.
+     * @return binding table of properties parsed from bundle lines or null if the parser does not record bindings.
+     * @see AbstractLmlParser#setBundleBindings(LmlBundleBindings) */
+    public static LmlBundleBindings getBundleBindings(final LmlParser parser) {
+        if (parser instanceof AbstractLmlParser) {
+            return ((AbstractLmlParser) parser).getBundleBindings();
+        }
+        return null;
+    }
+
+    /** @param parser parses the templates.
+     * @return total amount of bundle lines parsed by the parser. Always 0 if the parser does not count bundle lines.
+     * @see AbstractLmlParser#getParsedBundleLinesAmount() */
+    public static int getParsedBundleLinesAmount(final LmlParser parser) {
+        if (parser instanceof AbstractLmlParser) {
+            return ((AbstractLmlParser) parser).getParsedBundleLinesAmount();
+        }
+        return 0;
+    }
+
     // Syntax helpers:
 
     /** Warning: uses default LML syntax. Will not work if you modified any LML markers.
@@ -6,6 +6,12 @@ import com.github.czyzby.kiwi.util.common.Strings;
 /** {@link ObjectMap} which uses Strings as keys. Keys are compared ignoring their case - for example, value mapped to
  * "String" will be returned also for "STRING", "string" or "sTrInG" (etc).
  *
+ * <p>
+ * Entries are stored in the regular {@link ObjectMap} tables using lower case keys, so the map can be safely copied
+ * and read by any code operating on {@link ObjectMap}. Keys that are already in lower case are used as they are:
+ * {@link #get(String)}, {@link #containsKey(String)} and {@link #put(String, Object)} allocate new strings only for
+ * keys that contain upper case characters.
+ *
  * @author MJ
  *
  * @param <Value> type of values stored in the map. */
@@ -20,10 +26,16 @@ public class IgnoreCaseStringMap<Value> extends KeyNormalizingObjectMap<String,
     }
 
     /** @param key will be normalized, ensuring that all strings are equal, ignoring their case.
-     * @return normalized key.
+     * @return normalized key. Passed instance if the key is already in lower case.
      * @throws NullPointerException if key is null. */
     @Override
     protected String normalizeKey(final String key) {
-        return Strings.toLowerCase(key);
+        for (int index = 0, length = key.length(); index < length; index++) {
+            final char character = key.charAt(index);
+            if (Character.toLowerCase(character) != character) {
+                return Strings.toLowerCase(key);
+            }
+        }
+        return key;
     }
 }
@@ -1,9 +1,13 @@
 package com.github.czyzby.lml.vis.parser.impl.attribute;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.github.czyzby.kiwi.util.gdx.collection.GdxArrays;
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
+import com.github.czyzby.lml.util.LmlUtilities;
 import com.kotcrab.vis.ui.widget.Tooltip;
 
 /** Attaches a {@link Tooltip} with the default style to the chosen actor. Attribute expects a string value that will be
@@ -21,7 +25,13 @@ public class VisTooltipLmlAttribute implements LmlAttribute<Actor> {
     public void process(final LmlParser parser, final LmlTag tag, final Actor actor, final String rawAttributeData) {
         final Tooltip tooltip = new Tooltip();
         tooltip.clearChildren(); // Removing empty cell with predefined paddings.
-        tooltip.add(parser.parseString(rawAttributeData, actor));
+        final int parsedBundleLines = LmlUtilities.getParsedBundleLinesAmount(parser);
+        final Label label = tooltip.add(parser.parseString(rawAttributeData, actor)).getActor();
+        final LmlBundleBindings bundleBindings = LmlUtilities.getBundleBindings(parser);
+        if (bundleBindings != null && parsedBundleLines != LmlUtilities.getParsedBundleLinesAmount(parser)) {
+            // Processing the attribute again would attach another tooltip. Binding tooltip's text instead:
+            bundleBindings.bindText(label, GdxArrays.newArray(rawAttributeData), false);
+        }
         tooltip.pack();
         tooltip.setTarget(actor);
     }
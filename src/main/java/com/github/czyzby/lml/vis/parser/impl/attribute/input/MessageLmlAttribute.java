@@ -1,6 +1,7 @@
 package com.github.czyzby.lml.vis.parser.impl.attribute.input;
 
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.kotcrab.vis.ui.widget.VisTextField;
@@ -8,7 +9,7 @@ import com.kotcrab.vis.ui.widget.VisTextField;
 /** See {@link VisTextField#setMessageText(String)}. Mapped to "message", "messageText".
  *
  * @author MJ */
-public class MessageLmlAttribute implements LmlAttribute<VisTextField> {
+public class MessageLmlAttribute implements LmlAttribute<VisTextField>, LmlBundleBindings.Localized {
     @Override
     public Class<VisTextField> getHandledType() {
         return VisTextField.class;
@@ -1,6 +1,7 @@
 package com.github.czyzby.lml.vis.parser.impl.attribute.tabbed.tab;
 
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.vis.ui.VisTabTable;
@@ -8,7 +9,7 @@ import com.github.czyzby.lml.vis.ui.VisTabTable;
 /** See {@link VisTabTable#setTitle(String)}. Mapped to "title", "name", "tabTitle", "tabName".
  *
  * @author MJ */
-public class TabTitleLmlAttribute implements LmlAttribute<VisTabTable> {
+public class TabTitleLmlAttribute implements LmlAttribute<VisTabTable>, LmlBundleBindings.Localized {
     @Override
     public Class<VisTabTable> getHandledType() {
         return VisTabTable.class;
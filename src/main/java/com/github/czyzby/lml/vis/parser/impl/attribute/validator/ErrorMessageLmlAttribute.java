@@ -1,6 +1,7 @@
 package com.github.czyzby.lml.vis.parser.impl.attribute.validator;
 
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.kotcrab.vis.ui.util.form.FormInputValidator;
@@ -10,7 +11,7 @@ import com.kotcrab.vis.ui.util.form.FormInputValidator;
  * "errorMsg", "errorMessage", "formError".
  *
  * @author MJ */
-public class ErrorMessageLmlAttribute implements LmlAttribute<FormInputValidator> {
+public class ErrorMessageLmlAttribute implements LmlAttribute<FormInputValidator>, LmlBundleBindings.Localized {
     @Override
     public Class<FormInputValidator> getHandledType() {
         return FormInputValidator.class;
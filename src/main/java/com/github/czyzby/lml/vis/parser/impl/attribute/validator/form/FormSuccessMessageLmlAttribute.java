@@ -1,6 +1,7 @@
 package com.github.czyzby.lml.vis.parser.impl.attribute.validator.form;
 
 import com.github.czyzby.lml.parser.LmlParser;
+import com.github.czyzby.lml.parser.impl.LmlBundleBindings;
 import com.github.czyzby.lml.parser.tag.LmlAttribute;
 import com.github.czyzby.lml.parser.tag.LmlTag;
 import com.github.czyzby.lml.vis.ui.VisFormTable;
@@ -9,7 +10,7 @@ import com.github.czyzby.lml.vis.ui.VisFormTable;
  * to "success", "successMsg", "successMessage".
  *
  * @author MJ */
-public class FormSuccessMessageLmlAttribute implements LmlAttribute<VisFormTable> {
+public class FormSuccessMessageLmlAttribute implements LmlAttribute<VisFormTable>, LmlBundleBindings.Localized {
     @Override
     public Class<VisFormTable> getHandledType() {
         return VisFormTable.class;